@@ -0,0 +1,67 @@
+package frisskyy;
+
+import java.util.List;
+import javax.swing.table.AbstractTableModel;
+import frisskyy.solver.ConvergenceResult;
+
+// Итоги проверки порядка: строка на каждый метод и шаг
+class ConvergenceTableModel extends AbstractTableModel {
+
+    private static final String[] NAMES = {"Метод", "h", "Макс. ошибка", "СКО", "Порядок"};
+    static final String[] FORMATS = {null, "%.6g", "%.6e", "%.6e", "%.3f"};
+
+    private final List<ConvergenceResult> results;
+    private final int[] resultIndex;
+    private final int[] levelIndex;
+
+    ConvergenceTableModel(List<ConvergenceResult> results) {
+        this.results = results;
+        int rows = 0;
+        for (ConvergenceResult result : results) {
+            rows += result.getLevels();
+        }
+        resultIndex = new int[rows];
+        levelIndex = new int[rows];
+        int row = 0;
+        for (int r = 0; r < results.size(); r++) {
+            for (int level = 0; level < results.get(r).getLevels(); level++) {
+                resultIndex[row] = r;
+                levelIndex[row] = level;
+                row++;
+            }
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return resultIndex.length;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return NAMES[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column == 0 ? String.class : Double.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        ConvergenceResult result = results.get(resultIndex[row]);
+        int level = levelIndex[row];
+        switch (column) {
+            case 0: return result.getMethod().getTitle();
+            case 1: return result.getStep(level);
+            case 2: return result.getMaxError(level);
+            case 3: return result.getRmsError(level);
+            default: return result.getOrder(level);
+        }
+    }
+}
@@ -1,75 +1,82 @@
 package frisskyy;
 
 import javax.swing.*;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.io.BufferedWriter;
-import java.io.FileWriter;
+import java.nio.file.Path;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.LogarithmicAxis;
+import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.plot.ValueMarker;
+import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
 import org.jfree.data.xy.XYSeries;
 import org.jfree.data.xy.XYSeriesCollection;
+import frisskyy.batch.BatchRunner;
+import frisskyy.expr.UserEquation;
+import frisskyy.expr.UserEvent;
+import frisskyy.io.SolutionExporter;
+import frisskyy.solver.ConvergenceResult;
+import frisskyy.solver.ConvergenceStudy;
+import frisskyy.solver.Equations;
+import frisskyy.solver.Event;
+import frisskyy.solver.EventOccurrence;
+import frisskyy.solver.Method;
+import frisskyy.solver.PararealSolver;
+import frisskyy.solver.RungeKuttaSolver;
+import frisskyy.solver.SolutionCache;
+import frisskyy.solver.SolveKey;
+import frisskyy.solver.SolveStatistics;
+import frisskyy.solver.SolverMetrics;
+import frisskyy.solver.SolveMonitor;
+import frisskyy.solver.Solution;
+import frisskyy.solver.StepControl;
+import frisskyy.solver.ThirdOrderODE;
 
 public class RKProgram extends JFrame {
 
-    interface ThirdOrderODE {
-        double calculate(double t, double y, double dy, double d2y);
-        String getName();
-        double[] exactSolution(double t); // Метод для точного решения
-        boolean isExactSolutionAvailable(); // Проверка на точное решение
-    }
-
-    private final ThirdOrderODE[] equations = {
-            new ThirdOrderODE() {
-                public double calculate(double t, double y, double dy, double d2y) {
-                    return -d2y - dy - y;
-                }
-                public String getName() {
-                    return "y''' + y'' + y' + y = 0";
-                }
-                public double[] exactSolution(double t) {
-                    // Точное решение для первой задачи
-                    double e_t = Math.exp(-t);
-                    double cos_t = Math.cos(t);
-                    double sin_t = Math.sin(t);
-                    double y_exact = 0.5*e_t + 0.5*cos_t + 0.5*sin_t;
-                    double dy_exact = -0.5*e_t - 0.5*sin_t + 0.5*cos_t;
-                    double d2y_exact = 0.5*e_t - 0.5*cos_t - 0.5*sin_t;
-                    return new double[]{y_exact, dy_exact, d2y_exact};
-                }
-                public boolean isExactSolutionAvailable() {
-                    return true;
-                }
-            },
-            new ThirdOrderODE() {
-                public double calculate(double t, double y, double dy, double d2y) {
-                    return Math.sin(t) - y - dy - d2y;
-                }
-                public String getName() {
-                    return "y''' + y'' + y' + y = sin(t)";
-                }
-                public double[] exactSolution(double t) {
-                    return new double[]{0, 0, 0}; // No exact solution available
-                }
-                public boolean isExactSolutionAvailable() {
-                    return false;
-                }
-            }
-    };
+    private final ThirdOrderODE[] equations = Equations.all().toArray(new ThirdOrderODE[0]);
 
-    private JComboBox<String> equationCombo, methodCombo;
+    private JComboBox<String> equationCombo;
+    private JTextField rhsField, exactField;
+    private JComboBox<Method> methodCombo;
     private JTextField y0Field, dy0Field, d2y0Field;
     private JTextField t0Field, tEndField, hField;
-    private JButton solveButton, exportButton;
+    private JTextField atolField, rtolField, hMinField, hMaxField;
+    private JComboBox<String> eventCombo;
+    private JTextField eventField;
+    private JComboBox<Event.Direction> directionCombo;
+    private JCheckBox terminalCheck;
+    private JCheckBox pararealCheck;
+    private JSpinner slicesSpinner;
+    private JButton solveButton, exportButton, cancelButton, studyButton;
+    private JProgressBar progressBar;
     private ChartPanel chartPanel;
-    private JTextArea resultArea;
-    private List<double[]> lastSolution;
+    private JLabel statusLabel;
+    private JTable resultTable;
+    private final RungeKuttaSolver solver = new RungeKuttaSolver();
+    // Повторный запуск с теми же параметрами берет решение из кэша; под кэш отводится
+    // не больше четверти доступной JVM памяти
+    private final SolutionCache cache = new SolutionCache(Runtime.getRuntime().maxMemory() / 4);
+    private Solution lastSolution;
+    private ThirdOrderODE lastEquation;
+    private SolveWorker worker;
+    // Последнее завершенное решение, которое можно продолжить при увеличении t_end
+    private SolveWorker lastCompleted;
+    private StudyWorker studyWorker;
     private DecimalFormat df = new DecimalFormat("0.######");
 
     public RKProgram() {
@@ -79,7 +86,7 @@ public class RKProgram extends JFrame {
         setLayout(new BorderLayout(5, 5));
 
         // Control Panel
-        JPanel controlPanel = new JPanel(new GridLayout(9, 2, 5, 5));
+        JPanel controlPanel = new JPanel(new GridLayout(21, 2, 5, 5));
         controlPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
 
         controlPanel.add(new JLabel("Уравнение:"));
@@ -87,6 +94,7 @@ public class RKProgram extends JFrame {
         for (ThirdOrderODE eq : equations) {
             equationCombo.addItem(eq.getName());
         }
+        equationCombo.addItem("Своё уравнение");
         equationCombo.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
@@ -95,8 +103,17 @@ public class RKProgram extends JFrame {
         });
         controlPanel.add(equationCombo);
 
+        // Правая часть и точное решение для своего уравнения
+        controlPanel.add(new JLabel("y''' ="));
+        rhsField = new JTextField("-y'' - y' - y");
+        controlPanel.add(rhsField);
+
+        controlPanel.add(new JLabel("Точное y(t) (необяз.):"));
+        exactField = new JTextField("0.5*exp(-t) + 0.5*cos(t) + 0.5*sin(t)");
+        controlPanel.add(exactField);
+
         controlPanel.add(new JLabel("Метод:"));
-        methodCombo = new JComboBox<>(new String[]{"Эйлер", "Эйлер-Коши (РК2)", "Рунге-Кутта 3 (Гейне)", "Рунге-Кутта 4", "Фельдберг 5(4)"});
+        methodCombo = new JComboBox<>(Method.values());
         controlPanel.add(methodCombo);
 
         controlPanel.add(new JLabel("y(t0):"));
@@ -123,14 +140,88 @@ public class RKProgram extends JFrame {
         hField = new JTextField("0.1");
         controlPanel.add(hField);
 
-        exportButton = new JButton("Экспорт в TXT");
+        // Параметры адаптивного шага
+        controlPanel.add(new JLabel("Абс. допуск (atol):"));
+        atolField = new JTextField("1e-6");
+        controlPanel.add(atolField);
+
+        controlPanel.add(new JLabel("Отн. допуск (rtol):"));
+        rtolField = new JTextField("1e-6");
+        controlPanel.add(rtolField);
+
+        controlPanel.add(new JLabel("Мин. шаг (h_min):"));
+        hMinField = new JTextField("1e-8");
+        controlPanel.add(hMinField);
+
+        controlPanel.add(new JLabel("Макс. шаг (h_max):"));
+        hMaxField = new JTextField("1.0");
+        controlPanel.add(hMaxField);
+
+        // Событие: переход функции через ноль, при необходимости - с остановкой решения
+        controlPanel.add(new JLabel("Событие:"));
+        eventCombo = new JComboBox<>(new String[]{"Нет", "y = 0", "y' = 0 (экстремумы y)",
+                "y'' = 0 (перегибы y)", "Своё: g(t, y, y', y'') = 0"});
+        eventCombo.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                updateEventFields();
+            }
+        });
+        controlPanel.add(eventCombo);
+
+        controlPanel.add(new JLabel("g(t, y, y', y'') ="));
+        eventField = new JTextField("y - 0.5");
+        controlPanel.add(eventField);
+
+        controlPanel.add(new JLabel("Направление перехода:"));
+        JPanel eventOptions = new JPanel(new GridLayout(1, 2, 5, 0));
+        directionCombo = new JComboBox<>(Event.Direction.values());
+        eventOptions.add(directionCombo);
+        terminalCheck = new JCheckBox("Остановить");
+        eventOptions.add(terminalCheck);
+        controlPanel.add(eventOptions);
+
+        // Parareal: длинный интервал делится на отрезки, которые решаются параллельно
+        controlPanel.add(new JLabel("Отрезков по времени:"));
+        JPanel pararealOptions = new JPanel(new GridLayout(1, 2, 5, 0));
+        pararealCheck = new JCheckBox("Parareal");
+        pararealOptions.add(pararealCheck);
+        slicesSpinner = new JSpinner(new SpinnerNumberModel(
+                Math.max(2, Runtime.getRuntime().availableProcessors()), 2, 4096, 1));
+        pararealOptions.add(slicesSpinner);
+        controlPanel.add(pararealOptions);
+
+        exportButton = new JButton("Экспорт");
         exportButton.addActionListener(new ExportButtonListener());
         controlPanel.add(exportButton);
 
+        studyButton = new JButton("Порядок сходимости");
+        studyButton.addActionListener(new StudyButtonListener());
+        controlPanel.add(studyButton);
+
         solveButton = new JButton("Решить");
         solveButton.addActionListener(new SolveButtonListener());
         controlPanel.add(solveButton);
 
+        cancelButton = new JButton("Отмена");
+        cancelButton.setEnabled(false);
+        cancelButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (worker != null) {
+                    worker.requestCancel();
+                }
+                if (studyWorker != null) {
+                    studyWorker.requestCancel();
+                }
+            }
+        });
+        controlPanel.add(cancelButton);
+
+        progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        controlPanel.add(progressBar);
+
         add(controlPanel, BorderLayout.NORTH);
 
         // График и результаты
@@ -145,20 +236,58 @@ public class RKProgram extends JFrame {
         centerPanel.add(chartPanel);
 
         // Здесь результаты подсчета
-        resultArea = new JTextArea();
-        resultArea.setEditable(false);
-        resultArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
-        centerPanel.add(new JScrollPane(resultArea));
+        // Таблица читает значения из решения только для видимых строк
+        JPanel resultPanel = new JPanel(new BorderLayout(5, 5));
+        statusLabel = new JLabel(" ");
+        resultPanel.add(statusLabel, BorderLayout.NORTH);
+        resultTable = new JTable();
+        resultTable.setFillsViewportHeight(true);
+        resultPanel.add(new JScrollPane(resultTable), BorderLayout.CENTER);
+        centerPanel.add(resultPanel);
 
         add(centerPanel, BorderLayout.CENTER);
 
         // Обновляем поля
         updateInitialConditionsFields();
+        updateEventFields();
+    }
+
+    private void updateEventFields() {
+        int selectedIndex = eventCombo.getSelectedIndex();
+        eventField.setEnabled(selectedIndex == 4);
+        directionCombo.setEnabled(selectedIndex > 0);
+        terminalCheck.setEnabled(selectedIndex > 0);
+    }
+
+    // Выбранное событие (пустой список - без событий); своё событие разбирается при каждом запуске
+    private List<Event> selectedEvents() {
+        Event.Direction direction = (Event.Direction) directionCombo.getSelectedItem();
+        boolean terminal = terminalCheck.isSelected();
+        switch (eventCombo.getSelectedIndex()) {
+            case 1:
+                return Collections.singletonList(Event.zeroOf("y = 0", 0, direction, terminal));
+            case 2:
+                return Collections.singletonList(Event.zeroOf("y' = 0", 1, direction, terminal));
+            case 3:
+                return Collections.singletonList(Event.zeroOf("y'' = 0", 2, direction, terminal));
+            case 4:
+                return Collections.singletonList(UserEvent.parse(eventField.getText(), direction, terminal));
+            default:
+                return Collections.emptyList();
+        }
     }
 
     private void updateInitialConditionsFields() {
         int selectedIndex = equationCombo.getSelectedIndex();
-        if (selectedIndex == 0) { // Задача 1
+        boolean userEquation = selectedIndex == equations.length;
+        rhsField.setEnabled(userEquation);
+        exactField.setEnabled(userEquation);
+        if (userEquation) { // Своё уравнение: условия вводит пользователь
+            y0Field.setEditable(true);
+            dy0Field.setEditable(true);
+            d2y0Field.setEditable(true);
+            t0Field.setEditable(true);
+        } else if (selectedIndex == 0) { // Задача 1
             y0Field.setText("1.0");
             dy0Field.setText("0.0");
             d2y0Field.setText("0.0");
@@ -181,287 +310,602 @@ public class RKProgram extends JFrame {
         }
     }
 
-    // Методы решения
-    private List<double[]> solveEuler(ThirdOrderODE equation,
-                                      double y0, double dy0, double d2y0,
-                                      double t0, double tEnd, double h) {
-        List<double[]> results = new ArrayList<>();
-        double t = t0;
-        double y = y0;
-        double dy = dy0;
-        double d2y = d2y0;
-
-        while (t <= tEnd + 1e-10) {
-            results.add(new double[]{t, y, dy, d2y});
-            double d3y = equation.calculate(t, y, dy, d2y);
-            y += h * dy;
-            dy += h * d2y;
-            d2y += h * d3y;
-            t += h;
-        }
-        return results;
-    }
-
-    private List<double[]> solveEulerCauchy(ThirdOrderODE equation,
-                                            double y0, double dy0, double d2y0,
-                                            double t0, double tEnd, double h) {
-        List<double[]> results = new ArrayList<>();
-        double t = t0;
-        double y = y0;
-        double dy = dy0;
-        double d2y = d2y0;
-
-        while (t <= tEnd) {
-            results.add(new double[]{t, y, dy, d2y});
-
-            // Предиктор
-            double d3y = equation.calculate(t, y, dy, d2y);
-            double yPred = y + h * dy;
-            double dyPred = dy + h * d2y;
-            double d2yPred = d2y + h * d3y;
-
-            // Корректор
-            double d3yCorr = equation.calculate(t + h, yPred, dyPred, d2yPred);
-            y += h * (dy + dyPred) / 2;
-            dy += h * (d2y + d2yPred) / 2;
-            d2y += h * (d3y + d3yCorr) / 2;
-            t += h;
-        }
-        return results;
+    private void showResults(String status, TableModel model, String[] formats) {
+        statusLabel.setText(status.isEmpty() ? " " : status);
+        resultTable.setModel(model);
+        for (int i = 0; i < formats.length && i < resultTable.getColumnCount(); i++) {
+            if (formats[i] != null) {
+                resultTable.getColumnModel().getColumn(i).setCellRenderer(new NumberRenderer(formats[i]));
+            }
+        }
     }
 
-    private List<double[]> solveRKHeun(ThirdOrderODE equation,
-                                       double y0, double dy0, double d2y0,
-                                       double t0, double tEnd, double h) {
-        List<double[]> results = new ArrayList<>();
-        double t = t0;
-        double y = y0;
-        double dy = dy0;
-        double d2y = d2y0;
-
-        while (t <= tEnd + 1e-10) {
-            results.add(new double[]{t, y, dy, d2y});
-
-            // Коэффициенты k1
-            double k1_y = dy;
-            double k1_dy = d2y;
-            double k1_d2y = equation.calculate(t, y, dy, d2y);
-
-            // Коэффициенты k2
-            double k2_y = dy + h * k1_dy / 3;
-            double k2_dy = d2y + h * k1_d2y / 3;
-            double k2_d2y = equation.calculate(t + h/3, y + h*k1_y/3, dy + h*k1_dy/3, d2y + h*k1_d2y/3);
-
-            // Коэффициенты k3
-            double k3_y = dy + 2*h * k2_dy / 3;
-            double k3_dy = d2y + 2*h * k2_d2y / 3;
-            double k3_d2y = equation.calculate(t + 2*h/3, y + 2*h*k2_y/3, dy + 2*h*k2_dy/3, d2y + 2*h*k2_d2y/3);
-
-            // Обновление
-            y += h * (k1_y + 3*k3_y) / 4;
-            dy += h * (k1_dy + 3*k3_dy) / 4;
-            d2y += h * (k1_d2y + 3*k3_d2y) / 4;
-            t += h;
-        }
-        return results;
+    private void clearResults() {
+        showResults("", new DefaultTableModel(), new String[0]);
     }
 
-    private List<double[]> solveRK4(ThirdOrderODE equation,
-                                    double y0, double dy0, double d2y0,
-                                    double t0, double tEnd, double h) {
-        List<double[]> results = new ArrayList<>();
-        double t = t0;
-        double y = y0;
-        double dy = dy0;
-        double d2y = d2y0;
-
-        while (t <= tEnd + 1e-10) {
-            results.add(new double[]{t, y, dy, d2y});
-
-            double k1_y = dy;
-            double k1_dy = d2y;
-            double k1_d2y = equation.calculate(t, y, dy, d2y);
-
-            double k2_y = dy + h * k1_dy / 2;
-            double k2_dy = d2y + h * k1_d2y / 2;
-            double k2_d2y = equation.calculate(t + h/2, y + h*k1_y/2, dy + h*k1_dy/2, d2y + h*k1_d2y/2);
+    // Форматирование числа в момент отрисовки ячейки; NaN показывается прочерком
+    private static class NumberRenderer extends DefaultTableCellRenderer {
+        private final String format;
 
-            double k3_y = dy + h * k2_dy / 2;
-            double k3_dy = d2y + h * k2_d2y / 2;
-            double k3_d2y = equation.calculate(t + h/2, y + h*k2_y/2, dy + h*k2_dy/2, d2y + h*k2_d2y/2);
-
-            double k4_y = dy + h * k3_dy;
-            double k4_dy = d2y + h * k3_d2y;
-            double k4_d2y = equation.calculate(t + h, y + h*k3_y, dy + h*k3_dy, d2y + h*k3_d2y);
+        NumberRenderer(String format) {
+            this.format = format;
+            setHorizontalAlignment(RIGHT);
+        }
 
-            y += h * (k1_y + 2*k2_y + 2*k3_y + k4_y) / 6;
-            dy += h * (k1_dy + 2*k2_dy + 2*k3_dy + k4_dy) / 6;
-            d2y += h * (k1_d2y + 2*k2_d2y + 2*k3_d2y + k4_d2y) / 6;
-            t += h;
+        @Override
+        protected void setValue(Object value) {
+            if (value instanceof Double && ((Double) value).isNaN()) {
+                setText("-");
+            } else {
+                setText(value == null ? "" : String.format(format, value));
+            }
         }
-        return results;
     }
 
-    private List<double[]> solveFehlberg(ThirdOrderODE equation,
-                                         double y0, double dy0, double d2y0,
-                                         double t0, double tEnd, double h) {
-        List<double[]> results = new ArrayList<>();
-        double t = t0;
-        double y = y0;
-        double dy = dy0;
-        double d2y = d2y0;
-
-        while (t <= tEnd + 1e-10) {
-            results.add(new double[]{t, y, dy, d2y});
-
-            // Коэффициенты k1
-            double k1_y = dy;
-            double k1_dy = d2y;
-            double k1_d2y = equation.calculate(t, y, dy, d2y);
-
-            // Коэффициенты k2
-            double k2_y = dy + h * k1_dy / 4;
-            double k2_dy = d2y + h * k1_d2y / 4;
-            double k2_d2y = equation.calculate(t + h/4, y + h*k1_y/4, dy + h*k1_dy/4, d2y + h*k1_d2y/4);
-
-            // Коэффициенты k3
-            double k3_y = dy + h * (3*k1_dy + 9*k2_dy) / 32;
-            double k3_dy = d2y + h * (3*k1_d2y + 9*k2_d2y) / 32;
-            double k3_d2y = equation.calculate(t + 3*h/8,
-                    y + h*(3*k1_y + 9*k2_y)/32,
-                    dy + h*(3*k1_dy + 9*k2_dy)/32,
-                    d2y + h*(3*k1_d2y + 9*k2_d2y)/32);
-
-            // Коэффициенты k4
-            double k4_y = dy + h * (1932*k1_dy - 7200*k2_dy + 7296*k3_dy) / 2197;
-            double k4_dy = d2y + h * (1932*k1_d2y - 7200*k2_d2y + 7296*k3_d2y) / 2197;
-            double k4_d2y = equation.calculate(t + 12*h/13,
-                    y + h*(1932*k1_y - 7200*k2_y + 7296*k3_y)/2197,
-                    dy + h*(1932*k1_dy - 7200*k2_dy + 7296*k3_dy)/2197,
-                    d2y + h*(1932*k1_d2y - 7200*k2_d2y + 7296*k3_d2y)/2197);
-
-            // Коэффициенты k5
-            double k5_y = dy + h * (439*k1_dy/216 - 8*k2_dy + 3680*k3_dy/513 - 845*k4_dy/4104);
-            double k5_dy = d2y + h * (439*k1_d2y/216 - 8*k2_d2y + 3680*k3_d2y/513 - 845*k4_d2y/4104);
-            double k5_d2y = equation.calculate(t + h,
-                    y + h*(439*k1_y/216 - 8*k2_y + 3680*k3_y/513 - 845*k4_y/4104),
-                    dy + h*(439*k1_dy/216 - 8*k2_dy + 3680*k3_dy/513 - 845*k4_dy/4104),
-                    d2y + h*(439*k1_d2y/216 - 8*k2_d2y + 3680*k3_d2y/513 - 845*k4_d2y/4104));
-
-            // Коэффициенты k6
-            double k6_y = dy + h * (-8*k1_dy/27 + 2*k2_dy - 3544*k3_dy/2565 + 1859*k4_dy/4104 - 11*k5_dy/40);
-            double k6_dy = d2y + h * (-8*k1_d2y/27 + 2*k2_d2y - 3544*k3_d2y/2565 + 1859*k4_d2y/4104 - 11*k5_d2y/40);
-            double k6_d2y = equation.calculate(t + h/2,
-                    y + h*(-8*k1_y/27 + 2*k2_y - 3544*k3_y/2565 + 1859*k4_y/4104 - 11*k5_y/40),
-                    dy + h*(-8*k1_dy/27 + 2*k2_dy - 3544*k3_dy/2565 + 1859*k4_dy/4104 - 11*k5_dy/40),
-                    d2y + h*(-8*k1_d2y/27 + 2*k2_d2y - 3544*k3_d2y/2565 + 1859*k4_d2y/4104 - 11*k5_d2y/40));
-
-            // Решение 5-го порядка
-            y += h * (16*k1_y/135 + 6656*k3_y/12825 + 28561*k4_y/56430 - 9*k5_y/50 + 2*k6_y/55);
-            dy += h * (16*k1_dy/135 + 6656*k3_dy/12825 + 28561*k4_dy/56430 - 9*k5_dy/50 + 2*k6_dy/55);
-            d2y += h * (16*k1_d2y/135 + 6656*k3_d2y/12825 + 28561*k4_d2y/56430 - 9*k5_d2y/50 + 2*k6_d2y/55);
-            t += h;
-        }
-        return results;
+    // Выбранное уравнение; своё уравнение разбирается заново при каждом запуске
+    private ThirdOrderODE selectedEquation() {
+        int selectedIndex = equationCombo.getSelectedIndex();
+        return selectedIndex < equations.length
+                ? equations[selectedIndex]
+                : UserEquation.parse(rhsField.getText(), exactField.getText());
+    }
+
+    private void setRunning(boolean running) {
+        solveButton.setEnabled(!running);
+        studyButton.setEnabled(!running);
+        cancelButton.setEnabled(running);
     }
 
     private class SolveButtonListener implements ActionListener {
         @Override
         public void actionPerformed(ActionEvent e) {
             try {
-                ThirdOrderODE equation = equations[equationCombo.getSelectedIndex()];
+                ThirdOrderODE equation = selectedEquation();
                 double y0 = Double.parseDouble(y0Field.getText());
                 double dy0 = Double.parseDouble(dy0Field.getText());
                 double d2y0 = Double.parseDouble(d2y0Field.getText());
                 double t0 = Double.parseDouble(t0Field.getText());
                 double tEnd = Double.parseDouble(tEndField.getText());
                 double h = Double.parseDouble(hField.getText());
+                double atol = Double.parseDouble(atolField.getText());
+                double rtol = Double.parseDouble(rtolField.getText());
+                double hMin = Double.parseDouble(hMinField.getText());
+                double hMax = Double.parseDouble(hMaxField.getText());
+                if (!(h > 0) || !(tEnd > t0)) {
+                    throw new IllegalArgumentException("Требуется h > 0 и t_end > t0");
+                }
 
-                String method = (String)methodCombo.getSelectedItem();
-                switch(method) {
-                    case "Эйлер":
-                        lastSolution = solveEuler(equation, y0, dy0, d2y0, t0, tEnd, h);
-                        break;
-                    case "Эйлер-Коши (РК2)":
-                        lastSolution = solveEulerCauchy(equation, y0, dy0, d2y0, t0, tEnd, h);
-                        break;
-                    case "Рунге-Кутта 3 (Гейне)":
-                        lastSolution = solveRKHeun(equation, y0, dy0, d2y0, t0, tEnd, h);
-                        break;
-                    case "Рунге-Кутта 4":
-                        lastSolution = solveRK4(equation, y0, dy0, d2y0, t0, tEnd, h);
-                        break;
-                    case "Фельдберг 5(4)":
-                        lastSolution = solveFehlberg(equation, y0, dy0, d2y0, t0, tEnd, h);
-                        break;
+                Method method = (Method) methodCombo.getSelectedItem();
+                StepControl control = method.isAdaptive()
+                        ? new StepControl(atol, rtol, hMin, hMax) : null;
+                List<Event> events = selectedEvents();
+                int slices = pararealCheck.isSelected() ? (Integer) slicesSpinner.getValue() : 0;
+                if (slices > 0 && !events.isEmpty()) {
+                    throw new IllegalArgumentException("Parareal не поддерживает поиск событий");
                 }
 
-                // Update chart
-                XYSeries seriesY = new XYSeries("y(t)");
-                XYSeries seriesDY = new XYSeries("y'(t)");
-                XYSeries seriesD2Y = new XYSeries("y''(t)");
-                XYSeries seriesExactY = new XYSeries("Точное y(t)");
-                XYSeries seriesExactDY = new XYSeries("Точное y'(t)");
-                XYSeries seriesExactD2Y = new XYSeries("Точное y''(t)");
+                // Если изменился только t_end в большую сторону, решение продолжается
+                // с последней точки и дописывается в текущий график.
+                // Решения с событиями и Parareal не кэшируются и не продолжаются
+                SolveKey key = new SolveKey(method, equation, y0, dy0, d2y0, t0, tEnd, h, control);
+                SolveWorker previous = events.isEmpty() && slices == 0 && lastCompleted != null
+                        && !cache.contains(key)
+                        && key.isContinuationOf(lastCompleted.key)
+                        && chartPanel.getChart() == lastCompleted.chart ? lastCompleted : null;
+
+                // Решение выполняется в фоне, точки добавляются в график порциями
+                worker = new SolveWorker(equation, method, y0, dy0, d2y0, t0, tEnd, h, control, events,
+                        slices, key, previous);
+                worker.addPropertyChangeListener(evt -> {
+                    if ("progress".equals(evt.getPropertyName())) {
+                        progressBar.setValue((Integer) evt.getNewValue());
+                    }
+                });
+                if (previous == null) {
+                    chartPanel.setChart(worker.createChart());
+                }
+                clearResults();
+                progressBar.setValue(0);
+                setRunning(true);
+                worker.execute();
 
-                StringBuilder resultsText = new StringBuilder();
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(RKProgram.this,
+                        "Ошибка ввода данных", "Ошибка", JOptionPane.ERROR_MESSAGE);
+            } catch (IllegalArgumentException ex) {
+                JOptionPane.showMessageDialog(RKProgram.this,
+                        ex.getMessage(), "Ошибка", JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
 
-                if (equation.isExactSolutionAvailable()) {
-                    resultsText.append(String.format("%-8s %-12s %-12s %-12s %-12s %-12s %-12s\n",
-                            "t", "y(t)", "y'(t)", "y''(t)", "Ошибка y", "Ошибка y'", "Ошибка y''"));
-                } else {
-                    resultsText.append(String.format("%-8s %-12s %-12s %-12s\n",
-                            "t", "y(t)", "y'(t)", "y''(t)"));
-                }
+    // Фоновое решение: интегрирование и форматирование таблицы выполняются вне EDT,
+    // новые точки публикуются в серии графика порциями
+    private class SolveWorker extends SwingWorker<Solution, SolveWorker.Chunk> implements SolveMonitor {
+        private static final int CHUNK_SIZE = 4096;
+        private static final long PUBLISH_INTERVAL_NANOS = 100_000_000L;
+        private static final int MAX_EVENT_MARKERS = 100;
+
+        private final ThirdOrderODE equation;
+        private final Method method;
+        private final double y0, dy0, d2y0, t0, tEnd, h;
+        private final StepControl control;
+        private final List<Event> events;
+        // Число отрезков Parareal или 0 для последовательного решения
+        private final int pararealSlices;
+        private PararealSolver parareal;
+
+        private final SolveKey key;
+        // Продолжаемое решение (не изменяется, так как может лежать в кэше) или null
+        private final Solution base;
+
+        private final XYSeries seriesY, seriesDY, seriesD2Y;
+        private final XYSeries seriesExactY, seriesExactDY, seriesExactD2Y;
+        private JFreeChart chart;
+
+        private volatile boolean cancelRequested;
+        private int published;
+        private long lastPublishTime;
+        private Solution solution;
+        private boolean fromCache;
+        // Время подготовки точек графика: всего, во время интегрирования (в фоне) и в EDT
+        private long chunkNanos;
+        private long solveChunkNanos;
+        private long edtChartNanos;
+
+        // previous - завершенное решение той же задачи с меньшим t_end: его серии и график
+        // переходят к новому решению, новые точки дописываются в них
+        SolveWorker(ThirdOrderODE equation, Method method,
+                    double y0, double dy0, double d2y0,
+                    double t0, double tEnd, double h, StepControl control, List<Event> events,
+                    int pararealSlices, SolveKey key, SolveWorker previous) {
+            this.equation = equation;
+            this.method = method;
+            this.y0 = y0;
+            this.dy0 = dy0;
+            this.d2y0 = d2y0;
+            this.t0 = t0;
+            this.tEnd = tEnd;
+            this.h = h;
+            this.control = control;
+            this.events = events;
+            this.pararealSlices = pararealSlices;
+            this.key = key;
+            if (previous != null) {
+                base = previous.solution;
+                published = base.size();
+                chart = previous.chart;
+                seriesY = previous.seriesY;
+                seriesDY = previous.seriesDY;
+                seriesD2Y = previous.seriesD2Y;
+                seriesExactY = previous.seriesExactY;
+                seriesExactDY = previous.seriesExactDY;
+                seriesExactD2Y = previous.seriesExactD2Y;
+            } else {
+                base = null;
+                seriesY = new XYSeries("y(t)");
+                seriesDY = new XYSeries("y'(t)");
+                seriesD2Y = new XYSeries("y''(t)");
+                seriesExactY = new XYSeries("Точное y(t)");
+                seriesExactDY = new XYSeries("Точное y'(t)");
+                seriesExactD2Y = new XYSeries("Точное y''(t)");
+            }
+        }
+
+        JFreeChart createChart() {
+            long start = System.nanoTime();
+            XYSeriesCollection dataset = new XYSeriesCollection();
+            dataset.addSeries(seriesY);
+            dataset.addSeries(seriesDY);
+            dataset.addSeries(seriesD2Y);
+
+            if (equation.isExactSolutionAvailable()) {
+                dataset.addSeries(seriesExactY);
+                dataset.addSeries(seriesExactDY);
+                dataset.addSeries(seriesExactD2Y);
+            }
 
-                for (double[] point : lastSolution) {
-                    seriesY.add(point[0], point[1]);
-                    seriesDY.add(point[0], point[2]);
-                    seriesD2Y.add(point[0], point[3]);
+            chart = ChartFactory.createXYLineChart(
+                    String.format("Решение: %s (%s)", equation.getName(), method),
+                    "t", "Значения", dataset, PlotOrientation.VERTICAL, true, true, false);
+            // при мелком шаге точек намного больше, чем пикселей по горизонтали
+            XYLineAndShapeRenderer renderer =
+                    (XYLineAndShapeRenderer) chart.getXYPlot().getRenderer();
+            renderer.setDecimateLines(true);
+            edtChartNanos += System.nanoTime() - start;
+            return chart;
+        }
+
+        void requestCancel() {
+            cancelRequested = true;
+        }
+
+        @Override
+        public boolean isCancelRequested() {
+            return cancelRequested;
+        }
 
-                    if (equation.isExactSolutionAvailable()) {
-                        double[] exact = equation.exactSolution(point[0]);
-                        seriesExactY.add(point[0], exact[0]);
-                        seriesExactDY.add(point[0], exact[1]);
-                        seriesExactD2Y.add(point[0], exact[2]);
+        @Override
+        public void stepCompleted(double t, Solution out) {
+            int pending = out.size() - published;
+            long now = System.nanoTime();
+            if (pending >= CHUNK_SIZE || (pending > 0 && now - lastPublishTime >= PUBLISH_INTERVAL_NANOS)) {
+                publishPoints(out);
+                lastPublishTime = now;
+                setProgress((int) Math.min(100, Math.max(0, 100 * (t - t0) / (tEnd - t0))));
+            }
+        }
 
-                        double errorY = Math.abs(point[1] - exact[0]);
-                        double errorDY = Math.abs(point[2] - exact[1]);
-                        double errorD2Y = Math.abs(point[3] - exact[2]);
+        // Копирует еще не опубликованные точки в порцию для EDT
+        private void publishPoints(Solution out) {
+            int size = out.size();
+            if (size > published) {
+                long start = System.nanoTime();
+                publish(new Chunk(out, published, size, equation));
+                chunkNanos += System.nanoTime() - start;
+                published = size;
+            }
+        }
 
-                        resultsText.append(String.format("%-8.5f %-12.8f %-12.6f %-12.6f %-12.8f %-12.6f %-12.6f\n",
-                                point[0], point[1], point[2], point[3], errorY, errorDY, errorD2Y));
+        @Override
+        protected Solution doInBackground() {
+            lastPublishTime = System.nanoTime();
+            solution = base == null && events.isEmpty() && pararealSlices == 0 ? cache.get(key) : null;
+            fromCache = solution != null;
+            if (pararealSlices > 0) {
+                // Точки публикуются после каждой итерации, когда очередные отрезки стали точными
+                parareal = new PararealSolver(ForkJoinPool.commonPool(), pararealSlices);
+                parareal.setMonitor(this);
+                solution = parareal.solve(method, equation, y0, dy0, d2y0, t0, tEnd, h, control);
+            } else if (!fromCache) {
+                solver.setMonitor(this);
+                solver.setEvents(events);
+                try {
+                    if (base != null) {
+                        solution = base.copy();
+                        solver.extend(method, equation, tEnd, h, control, solution);
                     } else {
-                        resultsText.append(String.format("%-8.5f %-12.8f %-12.6f %-12.6f\n",
-                                point[0], point[1], point[2], point[3]));
+                        solution = solver.solve(method, equation, y0, dy0, d2y0, t0, tEnd, h, control);
                     }
+                } finally {
+                    solver.setMonitor(null);
+                    solver.setEvents(null);
                 }
+                // прерванное решение неполное и в кэш не попадает
+                if (!cancelRequested && events.isEmpty()) {
+                    cache.put(key, solution);
+                }
+            }
+            // время решателя включает подготовку порций графика в stepCompleted
+            solveChunkNanos = chunkNanos;
+            publishPoints(solution);
+            setProgress(100);
+            return solution;
+        }
 
-                XYSeriesCollection dataset = new XYSeriesCollection();
-                dataset.addSeries(seriesY);
-                dataset.addSeries(seriesDY);
-                dataset.addSeries(seriesD2Y);
+        // Итоги решения над таблицей: источник решения, прерывание, статистика шагов
+        private String formatStatus(Solution solution) {
+            StringBuilder status = new StringBuilder();
+            status.append(String.format("Точек: %d", solution.size()));
+            if (fromCache) {
+                status.append("; решение взято из кэша");
+            } else if (base != null) {
+                status.append(String.format("; решение продолжено с t = %.6f", base.getT(base.size() - 1)));
+            }
+            if (cancelRequested) {
+                status.append(String.format("; решение прервано на t = %.6f", solution.getT(solution.size() - 1)));
+            }
+            if (parareal != null) {
+                status.append(String.format("; Parareal: отрезков %d, итераций %d", pararealSlices,
+                        parareal.getIterations()));
+                if (!parareal.isConverged() && !cancelRequested) {
+                    status.append(" (не сошлось)");
+                }
+            }
+            if (!events.isEmpty()) {
+                List<EventOccurrence> found = solution.getEvents();
+                status.append(String.format("; событий: %d", found.size()));
+                if (solution.isTerminated()) {
+                    status.append(String.format(" (остановлено: %s)", found.get(found.size() - 1)));
+                } else if (!found.isEmpty()) {
+                    status.append(String.format(" (первое: %s)", found.get(0)));
+                }
+            }
+            if (method.isAdaptive()) {
+                status.append(String.format("; принято шагов: %d, отклонено: %d",
+                        solution.getAcceptedSteps(), solution.getRejectedSteps()));
+            }
+            return status.toString();
+        }
 
-                if (equation.isExactSolutionAvailable()) {
-                    dataset.addSeries(seriesExactY);
-                    dataset.addSeries(seriesExactDY);
-                    dataset.addSeries(seriesExactD2Y);
+        // Затраты: вычисления правой части, длины шагов и время по фазам
+        private String formatCost(Solution solution, long formatNanos, long chartNanos) {
+            SolveStatistics statistics = solution.getStatistics();
+            StringBuilder cost = new StringBuilder();
+            cost.append(String.format("; вызовов f: %d", statistics.getRhsEvaluations()));
+            if (statistics.getSteps() > 0) {
+                cost.append(String.format(" (%.1f на шаг); h: %.3g..%.3g, среднее %.3g",
+                        statistics.getRhsPerStep(), statistics.getMinStep(), statistics.getMaxStep(),
+                        statistics.getMeanStep()));
+            }
+            if (statistics.getJacobianEvaluations() > 0) {
+                cost.append(String.format("; якобианов: %d", statistics.getJacobianEvaluations()));
+            }
+            if (method.isSwitching()) {
+                cost.append(String.format("; переключений метода: %d", statistics.getMethodSwitches()));
+            }
+            cost.append("; время, мс:");
+            if (!fromCache) {
+                // только этот запуск: без продолженной части и без подготовки графика
+                long integrate = statistics.getIntegrateNanos() - solveChunkNanos
+                        - (base != null ? base.getStatistics().getIntegrateNanos() : 0);
+                cost.append(String.format(" решение %.1f,", Math.max(0, integrate) / 1e6));
+            }
+            cost.append(String.format(" таблица %.1f, график %.1f", formatNanos / 1e6, chartNanos / 1e6));
+            return cost.toString();
+        }
+
+        @Override
+        protected void process(List<Chunk> chunks) {
+            long start = System.nanoTime();
+            // Порции добавляются массивами без уведомлений, график перерисовывается один раз на пачку
+            for (Chunk chunk : chunks) {
+                int n = chunk.t.length;
+                seriesY.add(chunk.t, chunk.y, 0, n, false);
+                seriesDY.add(chunk.t, chunk.dy, 0, n, false);
+                seriesD2Y.add(chunk.t, chunk.d2y, 0, n, false);
+                if (chunk.exact != null) {
+                    seriesExactY.add(chunk.t, chunk.exact[0], 0, n, false);
+                    seriesExactDY.add(chunk.t, chunk.exact[1], 0, n, false);
+                    seriesExactD2Y.add(chunk.t, chunk.exact[2], 0, n, false);
+                }
+            }
+            seriesY.fireSeriesChanged();
+            seriesDY.fireSeriesChanged();
+            seriesD2Y.fireSeriesChanged();
+            if (equation.isExactSolutionAvailable()) {
+                seriesExactY.fireSeriesChanged();
+                seriesExactDY.fireSeriesChanged();
+                seriesExactD2Y.fireSeriesChanged();
+            }
+            edtChartNanos += System.nanoTime() - start;
+        }
+
+        @Override
+        protected void done() {
+            setRunning(false);
+            worker = null;
+            try {
+                get();
+                lastSolution = solution;
+                lastEquation = equation;
+                lastCompleted = cancelRequested || !events.isEmpty() || parareal != null ? null : this;
+                long formatStart = System.nanoTime();
+                SolutionTableModel model = new SolutionTableModel(solution, equation);
+                String status = formatStatus(solution);
+                long formatNanos = System.nanoTime() - formatStart;
+                long chartNanos = chunkNanos + edtChartNanos;
+                SolverMetrics metrics = SolverMetrics.getInstance();
+                metrics.recordPhase(SolverMetrics.Phase.FORMAT, formatNanos);
+                metrics.recordPhase(SolverMetrics.Phase.CHART, chartNanos);
+                showResults(status + formatCost(solution, formatNanos, chartNanos), model,
+                        SolutionTableModel.FORMATS);
+                showEvents(solution);
+            } catch (Exception ex) {
+                lastCompleted = null;
+                Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                JOptionPane.showMessageDialog(RKProgram.this,
+                        "Ошибка при решении: " + cause.getMessage(), "Ошибка", JOptionPane.ERROR_MESSAGE);
+            }
+        }
+
+        // Моменты событий - вертикальные линии на графике, полный список - в подсказке к итогам
+        private void showEvents(Solution solution) {
+            List<EventOccurrence> found = solution.getEvents();
+            if (found.isEmpty()) {
+                statusLabel.setToolTipText(null);
+                return;
+            }
+            XYPlot plot = chart.getXYPlot();
+            StringBuilder tip = new StringBuilder("<html>");
+            for (int i = 0; i < found.size() && i < MAX_EVENT_MARKERS; i++) {
+                EventOccurrence occurrence = found.get(i);
+                ValueMarker marker = new ValueMarker(occurrence.getT());
+                marker.setPaint(Color.GRAY);
+                plot.addDomainMarker(marker);
+                tip.append(occurrence).append(String.format(": y = %.6f<br>", occurrence.get(0)));
+            }
+            if (found.size() > MAX_EVENT_MARKERS) {
+                tip.append("...");
+            }
+            statusLabel.setToolTipText(tip.toString());
+        }
+
+        // Порция точек решения (и точного решения, если оно есть) для передачи в EDT
+        class Chunk {
+            final double[] t, y, dy, d2y;
+            final double[][] exact;
+
+            Chunk(Solution out, int from, int to, ThirdOrderODE equation) {
+                int n = to - from;
+                t = new double[n];
+                y = new double[n];
+                dy = new double[n];
+                d2y = new double[n];
+                exact = equation.isExactSolutionAvailable() ? new double[3][n] : null;
+                for (int i = 0; i < n; i++) {
+                    t[i] = out.getT(from + i);
+                    y[i] = out.getY(from + i);
+                    dy[i] = out.getDY(from + i);
+                    d2y[i] = out.getD2Y(from + i);
+                    if (exact != null) {
+                        double[] e = equation.exactSolution(t[i]);
+                        exact[0][i] = e[0];
+                        exact[1][i] = e[1];
+                        exact[2][i] = e[2];
+                    }
                 }
+            }
+        }
+    }
 
-                JFreeChart chart = ChartFactory.createXYLineChart(
-                        String.format("Решение: %s (%s)", equation.getName(), method),
-                        "t", "Значения", dataset, PlotOrientation.VERTICAL, true, true, false);
-                chartPanel.setChart(chart);
+    // Проверка порядка сходимости: выбор методов с постоянным шагом и числа уровней h, h/2, ...
+    private class StudyButtonListener implements ActionListener {
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            try {
+                ThirdOrderODE equation = selectedEquation();
+                if (!equation.isExactSolutionAvailable()) {
+                    throw new IllegalArgumentException("Для проверки порядка нужно точное решение");
+                }
+                double y0 = Double.parseDouble(y0Field.getText());
+                double dy0 = Double.parseDouble(dy0Field.getText());
+                double d2y0 = Double.parseDouble(d2y0Field.getText());
+                double t0 = Double.parseDouble(t0Field.getText());
+                double tEnd = Double.parseDouble(tEndField.getText());
+                double h = Double.parseDouble(hField.getText());
 
-                resultArea.setText(resultsText.toString());
+                List<Method> fixedStep = new ArrayList<>();
+                for (Method method : Method.values()) {
+                    if (!method.isAdaptive()) {
+                        fixedStep.add(method);
+                    }
+                }
+                JList<Method> methodList = new JList<>(fixedStep.toArray(new Method[0]));
+                int current = fixedStep.indexOf(methodCombo.getSelectedItem());
+                if (current >= 0) {
+                    methodList.setSelectedIndex(current);
+                } else {
+                    methodList.setSelectionInterval(0, fixedStep.size() - 1);
+                }
+                JSpinner levelsSpinner = new JSpinner(new SpinnerNumberModel(5, 2, 12, 1));
+
+                JPanel panel = new JPanel(new BorderLayout(5, 5));
+                panel.add(new JLabel("Методы (можно выбрать несколько):"), BorderLayout.NORTH);
+                panel.add(new JScrollPane(methodList), BorderLayout.CENTER);
+                JPanel levelsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+                levelsPanel.add(new JLabel("Уровней шага (h, h/2, ...):"));
+                levelsPanel.add(levelsSpinner);
+                panel.add(levelsPanel, BorderLayout.SOUTH);
+                if (JOptionPane.showConfirmDialog(RKProgram.this, panel, "Порядок сходимости",
+                        JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) {
+                    return;
+                }
+                List<Method> methods = methodList.getSelectedValuesList();
+                if (methods.isEmpty()) {
+                    throw new IllegalArgumentException("Не выбран ни один метод");
+                }
+
+                studyWorker = new StudyWorker(equation, methods, y0, dy0, d2y0, t0, tEnd, h,
+                        (Integer) levelsSpinner.getValue());
+                studyWorker.addPropertyChangeListener(evt -> {
+                    if ("progress".equals(evt.getPropertyName())) {
+                        progressBar.setValue((Integer) evt.getNewValue());
+                    }
+                });
+                clearResults();
+                progressBar.setValue(0);
+                setRunning(true);
+                studyWorker.execute();
 
             } catch (NumberFormatException ex) {
                 JOptionPane.showMessageDialog(RKProgram.this,
                         "Ошибка ввода данных", "Ошибка", JOptionPane.ERROR_MESSAGE);
+            } catch (IllegalArgumentException ex) {
+                JOptionPane.showMessageDialog(RKProgram.this,
+                        ex.getMessage(), "Ошибка", JOptionPane.ERROR_MESSAGE);
             }
         }
     }
 
+    // Все расчеты лестницы шагов выполняются параллельно, по завершении строится
+    // график ошибки от h в логарифмическом масштабе и таблица наблюдаемых порядков
+    private class StudyWorker extends SwingWorker<List<ConvergenceResult>, Void>
+            implements ConvergenceStudy.Listener {
+        private final ConvergenceStudy study = new ConvergenceStudy();
+        private final ThirdOrderODE equation;
+        private final List<Method> methods;
+        private final double y0, dy0, d2y0, t0, tEnd, h;
+        private final int levels;
+
+        StudyWorker(ThirdOrderODE equation, List<Method> methods,
+                    double y0, double dy0, double d2y0,
+                    double t0, double tEnd, double h, int levels) {
+            this.equation = equation;
+            this.methods = methods;
+            this.y0 = y0;
+            this.dy0 = dy0;
+            this.d2y0 = d2y0;
+            this.t0 = t0;
+            this.tEnd = tEnd;
+            this.h = h;
+            this.levels = levels;
+        }
+
+        void requestCancel() {
+            study.cancel();
+        }
+
+        @Override
+        public void runCompleted(int completed, int total) {
+            setProgress(100 * completed / total);
+        }
+
+        @Override
+        protected List<ConvergenceResult> doInBackground() {
+            study.setListener(this);
+            return study.run(methods, equation, y0, dy0, d2y0, t0, tEnd, h, levels);
+        }
+
+        @Override
+        protected void done() {
+            setRunning(false);
+            studyWorker = null;
+            try {
+                List<ConvergenceResult> results = get();
+                chartPanel.setChart(createChart(results));
+                showResults("Порядок сходимости: " + equation.getName(),
+                        new ConvergenceTableModel(results), ConvergenceTableModel.FORMATS);
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof CancellationException) {
+                    statusLabel.setText("Проверка порядка прервана");
+                } else {
+                    JOptionPane.showMessageDialog(RKProgram.this,
+                            "Ошибка при решении: " + ex.getCause().getMessage(), "Ошибка", JOptionPane.ERROR_MESSAGE);
+                }
+            } catch (Exception ex) {
+                JOptionPane.showMessageDialog(RKProgram.this,
+                        "Ошибка при решении: " + ex.getMessage(), "Ошибка", JOptionPane.ERROR_MESSAGE);
+            }
+        }
+
+        private JFreeChart createChart(List<ConvergenceResult> results) {
+            XYSeriesCollection dataset = new XYSeriesCollection();
+            for (ConvergenceResult result : results) {
+                XYSeries series = new XYSeries(String.format("%s (p = %.2f)",
+                        result.getMethod(), result.getObservedOrder()));
+                for (int level = 0; level < result.getLevels(); level++) {
+                    // нулевая ошибка не отображается на логарифмической оси
+                    if (result.getMaxError(level) > 0) {
+                        series.add(result.getStep(level), result.getMaxError(level));
+                    }
+                }
+                dataset.addSeries(series);
+            }
+            JFreeChart chart = ChartFactory.createXYLineChart(
+                    "Порядок сходимости: " + equation.getName(),
+                    "h", "Макс. ошибка", dataset, PlotOrientation.VERTICAL, true, true, false);
+            XYPlot plot = chart.getXYPlot();
+            plot.setDomainAxis(new LogarithmicAxis("h"));
+            LogarithmicAxis errorAxis = new LogarithmicAxis("Макс. ошибка");
+            errorAxis.setExpTickLabelsFlag(true);
+            plot.setRangeAxis(errorAxis);
+            ((XYLineAndShapeRenderer) plot.getRenderer()).setShapesVisible(true);
+            return chart;
+        }
+    }
+
     private class ExportButtonListener implements ActionListener {
         @Override
         public void actionPerformed(ActionEvent e) {
@@ -471,44 +915,63 @@ public class RKProgram extends JFrame {
                 return;
             }
 
+            // Формат выбирается по расширению: .txt, .csv или .bin, суффикс .gz включает сжатие
             JFileChooser fileChooser = new JFileChooser();
+            fileChooser.setDialogTitle("Экспорт (.txt, .csv, .bin; .gz - со сжатием)");
             if (fileChooser.showSaveDialog(RKProgram.this) == JFileChooser.APPROVE_OPTION) {
-                try (BufferedWriter writer = new BufferedWriter(new FileWriter(fileChooser.getSelectedFile()))) {
-                    ThirdOrderODE equation = equations[equationCombo.getSelectedIndex()];
+                exportButton.setEnabled(false);
+                new ExportWorker(fileChooser.getSelectedFile().toPath(), lastSolution, lastEquation).execute();
+            }
+        }
+    }
 
-                    if (equation.isExactSolutionAvailable()) {
-                        writer.write(String.format("%-8s %-12s %-12s %-12s %-12s %-12s %-12s\n",
-                                "t", "y(t)", "y'(t)", "y''(t)", "Ошибка y", "Ошибка y'", "Ошибка y''"));
-                    } else {
-                        writer.write(String.format("%-8s %-12s %-12s %-12s\n",
-                                "t", "y(t)", "y'(t)", "y''(t)"));
-                    }
+    // Запись решения в файл в фоне, чтобы большие экспорты не блокировали интерфейс
+    private class ExportWorker extends SwingWorker<Long, Void> {
+        private final Path path;
+        private final Solution solution;
+        private final ThirdOrderODE equation;
+        private final int size;
+
+        ExportWorker(Path path, Solution solution, ThirdOrderODE equation) {
+            this.path = path;
+            this.solution = solution;
+            this.equation = equation;
+            this.size = solution.size();
+        }
 
-                    for (double[] point : lastSolution) {
-                        if (equation.isExactSolutionAvailable()) {
-                            double[] exact = equation.exactSolution(point[0]);
-                            double errorY = Math.abs(point[1] - exact[0]);
-                            double errorDY = Math.abs(point[2] - exact[1]);
-                            double errorD2Y = Math.abs(point[3] - exact[2]);
-
-                            writer.write(String.format("%-8.3f %-12.6f %-12.6f %-12.6f %-12.6f %-12.6f %-12.6f\n",
-                                    point[0], point[1], point[2], point[3], errorY, errorDY, errorD2Y));
-                        } else {
-                            writer.write(String.format("%-8.3f %-12.6f %-12.6f %-12.6f\n",
-                                    point[0], point[1], point[2], point[3]));
-                        }
-                    }
-                    JOptionPane.showMessageDialog(RKProgram.this,
-                            "Данные успешно экспортированы", "Успех", JOptionPane.INFORMATION_MESSAGE);
-                } catch (Exception ex) {
-                    JOptionPane.showMessageDialog(RKProgram.this,
-                            "Ошибка при экспорте: " + ex.getMessage(), "Ошибка", JOptionPane.ERROR_MESSAGE);
-                }
+        @Override
+        protected Long doInBackground() throws Exception {
+            long start = System.nanoTime();
+            try (SolutionExporter exporter = SolutionExporter.open(path, equation)) {
+                exporter.write(solution, 0, size);
+            }
+            return System.nanoTime() - start;
+        }
+
+        @Override
+        protected void done() {
+            exportButton.setEnabled(true);
+            try {
+                long nanos = get();
+                JOptionPane.showMessageDialog(RKProgram.this,
+                        String.format("Данные успешно экспортированы: %d строк за %.2f с", size, nanos / 1e9),
+                        "Успех", JOptionPane.INFORMATION_MESSAGE);
+            } catch (InterruptedException | ExecutionException ex) {
+                Throwable cause = ex instanceof ExecutionException ? ex.getCause() : ex;
+                JOptionPane.showMessageDialog(RKProgram.this,
+                        "Ошибка при экспорте: " + cause, "Ошибка", JOptionPane.ERROR_MESSAGE);
             }
         }
     }
 
+    // Без аргументов открывается окно; с аргументами - пакетный режим без графики
+    // (RKProgram [-t потоков] файл_заданий..., см. BatchRunner)
     public static void main(String[] args) {
+        if (args.length > 0) {
+            BatchRunner.main(args);
+            return;
+        }
+        SolverMetrics.registerMBean();
         SwingUtilities.invokeLater(() -> {
             try {
                 UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
@@ -0,0 +1,63 @@
+package frisskyy;
+
+import javax.swing.table.AbstractTableModel;
+import frisskyy.solver.Solution;
+import frisskyy.solver.ThirdOrderODE;
+
+// Таблица результатов поверх столбцов Solution без копирования и форматирования всех строк:
+// JTable запрашивает только видимые ячейки, ошибки считаются по exactSolution для них же.
+// Решение не должно изменяться, пока модель показывается.
+class SolutionTableModel extends AbstractTableModel {
+
+    private static final String[] NAMES = {"t", "y(t)", "y'(t)", "y''(t)", "Ошибка y", "Ошибка y'", "Ошибка y''"};
+    static final String[] FORMATS = {"%.5f", "%.8f", "%.6f", "%.6f", "%.3e", "%.3e", "%.3e"};
+
+    private final Solution solution;
+    private final ThirdOrderODE equation;
+    private final boolean exact;
+
+    // Точное решение последней запрошенной строки: ячейки строки отрисовываются подряд
+    private int exactRow = -1;
+    private double[] exactValues;
+
+    SolutionTableModel(Solution solution, ThirdOrderODE equation) {
+        this.solution = solution;
+        this.equation = equation;
+        this.exact = equation.isExactSolutionAvailable();
+    }
+
+    @Override
+    public int getRowCount() {
+        return solution.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return exact ? NAMES.length : 4;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return NAMES[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return Double.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        if (column == 0) {
+            return solution.getT(row);
+        }
+        if (column <= 3) {
+            return solution.get(column - 1, row);
+        }
+        if (row != exactRow) {
+            exactValues = equation.exactSolution(solution.getT(row));
+            exactRow = row;
+        }
+        return Math.abs(solution.get(column - 4, row) - exactValues[column - 4]);
+    }
+}
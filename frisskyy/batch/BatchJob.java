@@ -0,0 +1,258 @@
+package frisskyy.batch;
+
+import frisskyy.expr.UserEquation;
+import frisskyy.expr.UserEvent;
+import frisskyy.solver.Equations;
+import frisskyy.solver.Event;
+import frisskyy.solver.Method;
+import frisskyy.solver.StepControl;
+import frisskyy.solver.ThirdOrderODE;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Одно задание пакетного режима. Файл заданий состоит из секций:
+//
+//   # комментарий
+//   [имя задания]
+//   equation = 1                  номер встроенного уравнения (Equations.all(), с 1)
+//   rhs = -y'' - y' - y           или своя правая часть y''' = ... (вместо equation)
+//   exact = 0.5*exp(-t) + ...     точное y(t) для своей правой части, необязательно
+//   method = RK4                  имя из Method
+//   y0 = 1, dy0 = 0, d2y0 = 0     начальные условия (по умолчанию 0), каждое на своей строке
+//   t0 = 0, tEnd = 10, h = 0.01   интервал и шаг (для адаптивных методов - шаг вывода)
+//   atol, rtol, hMin, hMax        допуски адаптивных методов (по умолчанию как в окне)
+//   output = results/job1.csv     файл результата (.csv, .bin, .txt, можно с .gz); путь - от файла заданий
+//   event = y - 0.5               необязательное событие g(t, y, y', y'') = 0
+//   direction = any               направление перехода: any, rising или falling
+//   terminal = true               завершать ли решение в момент события (по умолчанию false)
+//   parareal = 32                 решать методом Parareal на стольких отрезках (без событий)
+//
+// Ключи до первой секции задают значения по умолчанию для всех заданий файла.
+public final class BatchJob {
+
+    private final String name;
+    private final ThirdOrderODE equation;
+    private final Method method;
+    private final double y0, dy0, d2y0, t0, tEnd, h;
+    private final StepControl control;
+    private final List<Event> events;
+    private final int pararealSlices;
+    private final Path output;
+
+    private BatchJob(String name, ThirdOrderODE equation, Method method,
+                     double y0, double dy0, double d2y0, double t0, double tEnd, double h,
+                     StepControl control, List<Event> events, int pararealSlices, Path output) {
+        this.name = name;
+        this.equation = equation;
+        this.method = method;
+        this.y0 = y0;
+        this.dy0 = dy0;
+        this.d2y0 = d2y0;
+        this.t0 = t0;
+        this.tEnd = tEnd;
+        this.h = h;
+        this.control = control;
+        this.events = events;
+        this.pararealSlices = pararealSlices;
+        this.output = output;
+    }
+
+    // Читает все задания файла; ошибки сообщаются IllegalArgumentException с номером строки
+    public static List<BatchJob> parse(Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Map<String, String> defaults = new LinkedHashMap<>();
+        List<BatchJob> jobs = new ArrayList<>();
+        Map<String, String> current = defaults;
+        String currentName = null;
+        int currentLine = 0;
+        int lineNumber = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                if (line.startsWith("[") && line.endsWith("]")) {
+                    if (currentName != null) {
+                        jobs.add(create(currentName, defaults, current, dir, file, currentLine));
+                    }
+                    currentName = line.substring(1, line.length() - 1).trim();
+                    current = new LinkedHashMap<>();
+                    currentLine = lineNumber;
+                    continue;
+                }
+                int eq = line.indexOf('=');
+                if (eq <= 0) {
+                    throw new IllegalArgumentException(file + ":" + lineNumber + ": ожидается ключ = значение");
+                }
+                current.put(line.substring(0, eq).trim(), line.substring(eq + 1).trim());
+            }
+        }
+        if (currentName != null) {
+            jobs.add(create(currentName, defaults, current, dir, file, currentLine));
+        }
+        if (jobs.isEmpty()) {
+            throw new IllegalArgumentException(file + ": нет ни одного задания [имя]");
+        }
+        return jobs;
+    }
+
+    private static BatchJob create(String name, Map<String, String> defaults, Map<String, String> own,
+                                   Path dir, Path file, int line) {
+        Map<String, String> values = new LinkedHashMap<>(defaults);
+        values.putAll(own);
+        try {
+            ThirdOrderODE equation;
+            if (values.containsKey("rhs")) {
+                equation = UserEquation.parse(values.get("rhs"), values.getOrDefault("exact", ""));
+            } else {
+                int index = Integer.parseInt(require(values, "equation"));
+                if (index < 1 || index > Equations.all().size()) {
+                    throw new IllegalArgumentException("нет уравнения с номером " + index);
+                }
+                equation = Equations.all().get(index - 1);
+            }
+            Method method;
+            try {
+                method = Method.valueOf(require(values, "method"));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("неизвестный метод " + values.get("method"));
+            }
+            double h = number(values, "h", Double.NaN);
+            double t0 = number(values, "t0", 0);
+            double tEnd = number(values, "tEnd", Double.NaN);
+            if (!(h > 0) || !(tEnd > t0)) {
+                throw new IllegalArgumentException("требуется h > 0 и tEnd > t0");
+            }
+            StepControl control = method.isAdaptive()
+                    ? new StepControl(number(values, "atol", 1e-6), number(values, "rtol", 1e-6),
+                    number(values, "hMin", 1e-8), number(values, "hMax", 1.0))
+                    : null;
+            List<Event> events = Collections.emptyList();
+            if (values.containsKey("event")) {
+                Event.Direction direction;
+                try {
+                    direction = Event.Direction.valueOf(
+                            values.getOrDefault("direction", "any").toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("неизвестное направление " + values.get("direction"));
+                }
+                String terminal = values.getOrDefault("terminal", "false");
+                if (!terminal.equals("true") && !terminal.equals("false")) {
+                    throw new IllegalArgumentException("terminal должно быть true или false");
+                }
+                events = Collections.singletonList(
+                        UserEvent.parse(values.get("event"), direction, Boolean.parseBoolean(terminal)));
+            }
+            int slices = 0;
+            if (values.containsKey("parareal")) {
+                try {
+                    slices = Integer.parseInt(values.get("parareal"));
+                } catch (NumberFormatException e) {
+                    slices = 0;
+                }
+                if (slices < 1) {
+                    throw new IllegalArgumentException("parareal должно быть положительным целым");
+                }
+                if (!events.isEmpty()) {
+                    throw new IllegalArgumentException("parareal нельзя сочетать с событиями");
+                }
+            }
+            return new BatchJob(name, equation, method,
+                    number(values, "y0", 0), number(values, "dy0", 0), number(values, "d2y0", 0),
+                    t0, tEnd, h, control, events, slices, dir.resolve(require(values, "output")));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(file + ":" + line + ": задание [" + name + "]: " + e.getMessage());
+        }
+    }
+
+    private static String require(Map<String, String> values, String key) {
+        String value = values.get(key);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("не задан ключ " + key);
+        }
+        return value;
+    }
+
+    private static double number(Map<String, String> values, String key, double defaultValue) {
+        String value = values.get(key);
+        if (value == null) {
+            if (Double.isNaN(defaultValue)) {
+                throw new IllegalArgumentException("не задан ключ " + key);
+            }
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("неверное число " + key + " = " + value);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ThirdOrderODE getEquation() {
+        return equation;
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public double getY0() {
+        return y0;
+    }
+
+    public double getDY0() {
+        return dy0;
+    }
+
+    public double getD2Y0() {
+        return d2y0;
+    }
+
+    public double getT0() {
+        return t0;
+    }
+
+    public double getTEnd() {
+        return tEnd;
+    }
+
+    public double getH() {
+        return h;
+    }
+
+    // Допуски адаптивного метода или null для методов с постоянным шагом
+    public StepControl getControl() {
+        return control;
+    }
+
+    // Отслеживаемые события (пустой список, если событие не задано)
+    public List<Event> getEvents() {
+        return events;
+    }
+
+    // Число отрезков Parareal или 0 для обычного последовательного решения
+    public int getPararealSlices() {
+        return pararealSlices;
+    }
+
+    public Path getOutput() {
+        return output;
+    }
+}
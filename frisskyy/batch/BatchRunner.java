@@ -0,0 +1,208 @@
+package frisskyy.batch;
+
+import frisskyy.io.SolutionExporter;
+import frisskyy.solver.PararealSolver;
+import frisskyy.solver.RungeKuttaSolver;
+import frisskyy.solver.SolveMonitor;
+import frisskyy.solver.SolverMetrics;
+import frisskyy.solver.Solution;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// Пакетный режим без графического интерфейса: задания из файлов (формат - в BatchJob)
+// решаются в пуле потоков, точки пишутся в файл по мере интегрирования
+// в формате SolutionExporter по расширению (.csv, .bin, иначе текстовая таблица);
+// суффикс .gz включает сжатие.
+// Задания с ключом parareal решают отрезки в общем ForkJoinPool; точки пишутся после каждой
+// итерации по мере того, как отрезки становятся точными.
+//
+// Запуск: java -cp <classpath> frisskyy.batch.BatchRunner [-t N] файл_заданий...
+//   -t N  число потоков (по умолчанию - число процессоров)
+// Код возврата 0, если все задания выполнены, 1 - если хотя бы одно завершилось ошибкой,
+// 2 - при неверных аргументах или файле заданий.
+public class BatchRunner {
+
+    private final ExecutorService pool;
+
+    public BatchRunner(int threads) {
+        pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "batch-solver");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Выполняет задания и печатает итог по каждому; возвращает число неудачных заданий
+    public int run(List<BatchJob> jobs) {
+        List<Future<String>> futures = new ArrayList<>(jobs.size());
+        for (BatchJob job : jobs) {
+            futures.add(pool.submit(() -> execute(job)));
+        }
+        int failed = 0;
+        for (int i = 0; i < jobs.size(); i++) {
+            try {
+                System.out.println(futures.get(i).get());
+            } catch (ExecutionException e) {
+                failed++;
+                Throwable cause = e.getCause();
+                // у исключений файловой системы сообщение - только путь
+                String message = cause instanceof IOException ? cause.toString() : cause.getMessage();
+                System.err.println("[" + jobs.get(i).getName() + "] ошибка: " + message);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed += jobs.size() - i;
+                break;
+            }
+        }
+        return failed;
+    }
+
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private static String execute(BatchJob job) throws IOException {
+        long start = System.nanoTime();
+        Path output = job.getOutput();
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        Solution solution;
+        PararealSolver parareal = null;
+        try (SolutionExporter exporter = SolutionExporter.open(output, job.getEquation())) {
+            RowWriter rows = new RowWriter(exporter);
+            try {
+                if (job.getPararealSlices() > 0) {
+                    parareal = new PararealSolver(ForkJoinPool.commonPool(), job.getPararealSlices());
+                    parareal.setMonitor(rows);
+                    solution = parareal.solve(job.getMethod(), job.getEquation(),
+                            job.getY0(), job.getDY0(), job.getD2Y0(),
+                            job.getT0(), job.getTEnd(), job.getH(), job.getControl());
+                } else {
+                    RungeKuttaSolver solver = new RungeKuttaSolver();
+                    solver.setMonitor(rows);
+                    solver.setEvents(job.getEvents());
+                    solution = solver.solve(job.getMethod(), job.getEquation(),
+                            job.getY0(), job.getDY0(), job.getD2Y0(),
+                            job.getT0(), job.getTEnd(), job.getH(), job.getControl());
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            rows.writeRows(solution);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        String steps = job.getMethod().isAdaptive()
+                ? String.format(Locale.ROOT, ", шагов %d (отклонено %d)",
+                solution.getAcceptedSteps(), solution.getRejectedSteps())
+                : "";
+        if (job.getMethod().isSwitching()) {
+            steps += String.format(Locale.ROOT, ", переключений метода %d",
+                    solution.getStatistics().getMethodSwitches());
+        }
+        String events = "";
+        if (!job.getEvents().isEmpty()) {
+            events = String.format(Locale.ROOT, ", событий %d", solution.getEvents().size());
+            if (solution.isTerminated()) {
+                events += String.format(Locale.ROOT, ", остановлено при t = %s",
+                        solution.getT(solution.size() - 1));
+            }
+        }
+        if (parareal != null) {
+            events = String.format(Locale.ROOT, ", Parareal: итераций %d%s", parareal.getIterations(),
+                    parareal.isConverged() ? "" : " (не сошлось)");
+        }
+        return String.format(Locale.ROOT, "[%s] %s: %d точек%s%s, вызовов f %d, %.3f с -> %s",
+                job.getName(), job.getMethod().name(), solution.size(), steps, events,
+                solution.getStatistics().getRhsEvaluations(), seconds, output);
+    }
+
+    // Запись строк по мере интегрирования: после каждого шага дописываются новые точки
+    private static class RowWriter implements SolveMonitor {
+        private final SolutionExporter exporter;
+        private int written;
+
+        RowWriter(SolutionExporter exporter) {
+            this.exporter = exporter;
+        }
+
+        @Override
+        public void stepCompleted(double t, Solution out) {
+            try {
+                writeRows(out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public boolean isCancelRequested() {
+            return false;
+        }
+
+        void writeRows(Solution out) throws IOException {
+            exporter.write(out, written, out.size());
+            written = out.size();
+        }
+    }
+
+    public static void main(String[] args) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if ("-t".equals(args[i])) {
+                if (i + 1 == args.length) {
+                    usage();
+                }
+                try {
+                    threads = Integer.parseInt(args[++i]);
+                } catch (NumberFormatException e) {
+                    usage();
+                }
+            } else {
+                files.add(Path.of(args[i]));
+            }
+        }
+        if (files.isEmpty() || threads < 1) {
+            usage();
+        }
+
+        List<BatchJob> jobs = new ArrayList<>();
+        try {
+            for (Path file : files) {
+                jobs.addAll(BatchJob.parse(file));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Ошибка в файле заданий: " + e.getMessage());
+            System.exit(2);
+        }
+
+        // долгие задания можно наблюдать через JMX (SolverMetrics)
+        SolverMetrics.registerMBean();
+        BatchRunner runner = new BatchRunner(threads);
+        int failed;
+        try {
+            failed = runner.run(jobs);
+        } finally {
+            runner.shutdown();
+        }
+        System.out.println(String.format("Выполнено заданий: %d из %d", jobs.size() - failed, jobs.size()));
+        System.exit(failed == 0 ? 0 : 1);
+    }
+
+    private static void usage() {
+        System.err.println("Использование: BatchRunner [-t потоков] файл_заданий...");
+        System.exit(2);
+    }
+}
@@ -0,0 +1,11 @@
+package frisskyy.bench;
+
+// Измеряемая операция. setUp готовит данные вне замера, run выполняет одну
+// итерацию и возвращает число сделанных операций (шагов, точек, кадров),
+// по которому BenchmarkRunner считает пропускную способность и память на операцию.
+public interface Benchmark {
+    String getName();
+    String getUnit();
+    void setUp() throws Exception;
+    long run() throws Exception;
+}
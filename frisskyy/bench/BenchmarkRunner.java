@@ -0,0 +1,179 @@
+package frisskyy.bench;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Простой замер производительности без внешних зависимостей: прогрев, затем
+// несколько измеряемых итераций в одном потоке. Для каждой итерации считаются
+// время и выделенная потоком память (если JVM это поддерживает).
+//
+// Запуск: java -cp <classpath> frisskyy.bench.BenchmarkRunner [-w N] [-i N] [фильтр...]
+//   -w N  число прогревочных итераций (по умолчанию 3)
+//   -i N  число измеряемых итераций (по умолчанию 5)
+//   фильтр - подстрока имени; запускаются замеры, имя которых содержит хотя бы одну
+public class BenchmarkRunner {
+
+    // Результаты итераций складываются сюда, чтобы JIT не выбросил вычисления
+    private static volatile double sink;
+
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    public BenchmarkRunner(int warmupIterations, int measurementIterations) {
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+    }
+
+    public static void consume(double value) {
+        sink += value;
+    }
+
+    public Result measure(Benchmark benchmark) throws Exception {
+        benchmark.setUp();
+        for (int i = 0; i < warmupIterations; i++) {
+            benchmark.run();
+        }
+        double[] opsPerSecond = new double[measurementIterations];
+        long totalOps = 0;
+        long totalNanos = 0;
+        long totalBytes = 0;
+        for (int i = 0; i < measurementIterations; i++) {
+            long bytesBefore = allocatedBytes();
+            long start = System.nanoTime();
+            long ops = benchmark.run();
+            long nanos = System.nanoTime() - start;
+            long bytes = allocatedBytes() - bytesBefore;
+            opsPerSecond[i] = ops * 1e9 / nanos;
+            totalOps += ops;
+            totalNanos += nanos;
+            totalBytes += bytes;
+        }
+        double bytesPerOp = allocationSupported() ? (double) totalBytes / totalOps : Double.NaN;
+        return new Result(benchmark.getName(), benchmark.getUnit(),
+                mean(opsPerSecond), stdDev(opsPerSecond), (double) totalNanos / totalOps, bytesPerOp);
+    }
+
+    private boolean allocationSupported() {
+        return threads instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemoryEnabled();
+    }
+
+    private long allocatedBytes() {
+        if (!allocationSupported()) {
+            return 0;
+        }
+        return ((com.sun.management.ThreadMXBean) threads)
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static double mean(double[] values) {
+        double sum = 0.0;
+        for (double v : values) {
+            sum += v;
+        }
+        return sum / values.length;
+    }
+
+    private static double stdDev(double[] values) {
+        if (values.length < 2) {
+            return 0.0;
+        }
+        double m = mean(values);
+        double sum = 0.0;
+        for (double v : values) {
+            sum += (v - m) * (v - m);
+        }
+        return Math.sqrt(sum / (values.length - 1));
+    }
+
+    // Итог замера: пропускная способность (среднее и разброс по итерациям),
+    // среднее время и средний объем выделенной памяти на одну операцию
+    public static class Result {
+        private final String name;
+        private final String unit;
+        private final double opsPerSecond;
+        private final double opsPerSecondError;
+        private final double nanosPerOp;
+        private final double bytesPerOp;
+
+        Result(String name, String unit, double opsPerSecond, double opsPerSecondError,
+               double nanosPerOp, double bytesPerOp) {
+            this.name = name;
+            this.unit = unit;
+            this.opsPerSecond = opsPerSecond;
+            this.opsPerSecondError = opsPerSecondError;
+            this.nanosPerOp = nanosPerOp;
+            this.bytesPerOp = bytesPerOp;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getOpsPerSecond() {
+            return opsPerSecond;
+        }
+
+        public double getNanosPerOp() {
+            return nanosPerOp;
+        }
+
+        public double getBytesPerOp() {
+            return bytesPerOp;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%-48s %14.1f ± %-12.1f %-8s %14.1f %12.1f",
+                    name, opsPerSecond, opsPerSecondError, unit + "/s", nanosPerOp, bytesPerOp);
+        }
+    }
+
+    public static List<Benchmark> allBenchmarks() {
+        List<Benchmark> all = new ArrayList<>();
+        all.addAll(SolverBenchmarks.create());
+        all.addAll(ChartBenchmarks.create());
+        return all;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int warmup = 3;
+        int iterations = 5;
+        List<String> filters = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if ("-w".equals(args[i]) && i + 1 < args.length) {
+                warmup = Integer.parseInt(args[++i]);
+            } else if ("-i".equals(args[i]) && i + 1 < args.length) {
+                iterations = Integer.parseInt(args[++i]);
+            } else {
+                filters.add(args[i]);
+            }
+        }
+        System.setProperty("java.awt.headless", "true");
+
+        BenchmarkRunner runner = new BenchmarkRunner(warmup, Math.max(1, iterations));
+        System.out.println(String.format(Locale.US, "%-48s %29s %-8s %14s %12s",
+                "Замер", "Пропускная способность", "", "нс/оп", "байт/оп"));
+        for (Benchmark benchmark : allBenchmarks()) {
+            if (matches(benchmark.getName(), filters)) {
+                System.out.println(runner.measure(benchmark));
+            }
+        }
+    }
+
+    private static boolean matches(String name, List<String> filters) {
+        if (filters.isEmpty()) {
+            return true;
+        }
+        for (String filter : filters) {
+            if (name.contains(filter)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
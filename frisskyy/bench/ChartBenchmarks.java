@@ -0,0 +1,175 @@
+package frisskyy.bench;
+
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.ChartUtilities;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
+import org.jfree.data.general.DatasetUtilities;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+// Замеры для графиков на нескольких размерах данных: загрузка точек в XYSeries
+// (по одной и массивом), поиск границ осей в DatasetUtilities и отрисовка
+// графика в PNG без экрана (с прореживанием линий и без него).
+public class ChartBenchmarks {
+
+    private static final int[] SIZES = {10_000, 100_000, 1_000_000};
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 600;
+
+    public static List<Benchmark> create() {
+        List<Benchmark> list = new ArrayList<>();
+        for (int size : SIZES) {
+            list.add(new SeriesAddBenchmark(size, false));
+            list.add(new SeriesAddBenchmark(size, true));
+        }
+        for (int size : SIZES) {
+            list.add(new BoundsBenchmark(size, true));
+            list.add(new BoundsBenchmark(size, false));
+        }
+        for (int size : SIZES) {
+            list.add(new RenderBenchmark(size, false));
+            list.add(new RenderBenchmark(size, true));
+        }
+        return list;
+    }
+
+    // Данные, похожие на решение ОДУ: возрастающее t и гладкая функция с мелкой рябью
+    static void fill(double[] t, double[] y) {
+        for (int i = 0; i < t.length; i++) {
+            t[i] = i * 1e-3;
+            y[i] = Math.sin(t[i]) + 0.01 * Math.sin(t[i] * 100.0);
+        }
+    }
+
+    static XYSeriesCollection createDataset(int size) {
+        double[] t = new double[size];
+        double[] y = new double[size];
+        fill(t, y);
+        XYSeries series = new XYSeries("y");
+        series.add(t, y);
+        return new XYSeriesCollection(series);
+    }
+
+    private static class SeriesAddBenchmark implements Benchmark {
+        private final int size;
+        private final boolean bulk;
+        private final double[] t;
+        private final double[] y;
+
+        SeriesAddBenchmark(int size, boolean bulk) {
+            this.size = size;
+            this.bulk = bulk;
+            this.t = new double[size];
+            this.y = new double[size];
+        }
+
+        @Override
+        public String getName() {
+            return "series.add." + (bulk ? "bulk." : "point.") + size;
+        }
+
+        @Override
+        public String getUnit() {
+            return "точка";
+        }
+
+        @Override
+        public void setUp() {
+            fill(t, y);
+        }
+
+        @Override
+        public long run() {
+            XYSeries series = new XYSeries("y");
+            if (bulk) {
+                series.add(t, y);
+            } else {
+                for (int i = 0; i < size; i++) {
+                    series.add(t[i], y[i], false);
+                }
+                series.fireSeriesChanged();
+            }
+            BenchmarkRunner.consume(series.getItemCount());
+            return size;
+        }
+    }
+
+    private static class BoundsBenchmark implements Benchmark {
+        private final int size;
+        private final boolean domain;
+        private XYSeriesCollection dataset;
+
+        BoundsBenchmark(int size, boolean domain) {
+            this.size = size;
+            this.domain = domain;
+        }
+
+        @Override
+        public String getName() {
+            return "bounds." + (domain ? "domain." : "range.") + size;
+        }
+
+        @Override
+        public String getUnit() {
+            return "точка";
+        }
+
+        @Override
+        public void setUp() {
+            dataset = createDataset(size);
+        }
+
+        @Override
+        public long run() {
+            if (domain) {
+                BenchmarkRunner.consume(DatasetUtilities.findDomainBounds(dataset).getLength());
+            } else {
+                BenchmarkRunner.consume(DatasetUtilities.findRangeBounds(dataset).getLength());
+            }
+            return size;
+        }
+    }
+
+    private static class RenderBenchmark implements Benchmark {
+        private final int size;
+        private final boolean decimate;
+        private JFreeChart chart;
+
+        RenderBenchmark(int size, boolean decimate) {
+            this.size = size;
+            this.decimate = decimate;
+        }
+
+        @Override
+        public String getName() {
+            return "render.png." + (decimate ? "decimated." : "full.") + size;
+        }
+
+        @Override
+        public String getUnit() {
+            return "кадр";
+        }
+
+        @Override
+        public void setUp() {
+            chart = ChartFactory.createXYLineChart("Решение", "t", "y", createDataset(size),
+                    PlotOrientation.VERTICAL, true, false, false);
+            XYLineAndShapeRenderer renderer =
+                    (XYLineAndShapeRenderer) chart.getXYPlot().getRenderer();
+            renderer.setDecimateLines(decimate);
+        }
+
+        @Override
+        public long run() throws Exception {
+            OutputStream out = OutputStream.nullOutputStream();
+            ChartUtilities.writeChartAsPNG(out, chart, WIDTH, HEIGHT);
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package frisskyy.bench;
+
+import frisskyy.expr.UserEquation;
+import frisskyy.solver.EnsembleSolver;
+import frisskyy.solver.Equations;
+import frisskyy.solver.Method;
+import frisskyy.solver.PararealSolver;
+import frisskyy.solver.RungeKuttaSolver;
+import frisskyy.solver.SensitivitySystem;
+import frisskyy.solver.Solution;
+import frisskyy.solver.StepControl;
+import frisskyy.solver.ThirdOrderODE;
+import frisskyy.solver.TrajectorySpec;
+import frisskyy.solver.TrajectorySummary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+// Скорость решателя: шагов в секунду и выделение памяти на шаг для каждого метода.
+// Решатель и буфер Solution переиспользуются между итерациями, как в SolveWorker,
+// поэтому после прогрева память на шаг должна быть близка к нулю.
+public class SolverBenchmarks {
+
+    // Тестовое уравнение y''' = -y - 0.1 y'' (гладкое, не жесткое)
+    static final ThirdOrderODE TEST_EQUATION = new ThirdOrderODE() {
+        @Override
+        public double calculate(double t, double y, double dy, double d2y) {
+            return -y - 0.1 * d2y;
+        }
+
+        @Override
+        public String getName() {
+            return "y''' = -y - 0.1y''";
+        }
+
+        @Override
+        public double[] exactSolution(double t) {
+            return null;
+        }
+
+        @Override
+        public boolean isExactSolutionAvailable() {
+            return false;
+        }
+    };
+
+    // Жесткое только на части интервала: собственные значения -mu(t) и (-1 +- i*sqrt(3))/2,
+    // mu(t) = 1 + 1000 sin^4 t меняется от 1 до 1001
+    static final ThirdOrderODE MIXED_EQUATION = new ThirdOrderODE() {
+        @Override
+        public double calculate(double t, double y, double dy, double d2y) {
+            double s = Math.sin(t);
+            double mu = 1 + 1000 * s * s * s * s;
+            return -(1 + mu) * d2y - (1 + mu) * dy - mu * y;
+        }
+
+        @Override
+        public String getName() {
+            return "y''' = -(1+mu)y'' - (1+mu)y' - mu y";
+        }
+
+        @Override
+        public double[] exactSolution(double t) {
+            return null;
+        }
+
+        @Override
+        public boolean isExactSolutionAvailable() {
+            return false;
+        }
+    };
+
+    // То же уравнение, заданное текстом и скомпилированное в байт-код
+    static final ThirdOrderODE USER_EQUATION = UserEquation.parse("-y - 0.1*y''", "");
+
+    private static final double T_END = 20.0;
+    private static final double FIXED_STEP = 1e-3;
+    private static final StepControl CONTROL = new StepControl(1e-10, 1e-10, 1e-12, 1.0);
+
+    public static List<Benchmark> create() {
+        List<Benchmark> list = new ArrayList<>();
+        for (Method method : Method.values()) {
+            list.add(new StepBenchmark(method, TEST_EQUATION, ""));
+        }
+        list.add(new StepBenchmark(Method.RK4, USER_EQUATION, ".user"));
+        list.add(new EnsembleBenchmark(false));
+        list.add(new EnsembleBenchmark(true));
+        list.add(new PararealBenchmark());
+        list.add(new SensitivityBenchmark(false));
+        list.add(new SensitivityBenchmark(true));
+        for (Method method : new Method[]{Method.DORMAND_PRINCE, Method.ROSENBROCK, Method.AUTO}) {
+            list.add(new MixedStiffnessBenchmark(method));
+        }
+        return list;
+    }
+
+    // Полное решение задачи с жесткостью на части интервала: методы сравниваются по времени
+    // решения, а не по шагам, число которых у них разное
+    private static class MixedStiffnessBenchmark implements Benchmark {
+        private static final StepControl MIXED_CONTROL = new StepControl(1e-9, 1e-9, 1e-12, 1.0);
+        private final Method method;
+        private final RungeKuttaSolver solver = new RungeKuttaSolver();
+        private final Solution out = new Solution();
+
+        MixedStiffnessBenchmark(Method method) {
+            this.method = method;
+        }
+
+        @Override
+        public String getName() {
+            return "mixed." + method.name();
+        }
+
+        @Override
+        public String getUnit() {
+            return "решение";
+        }
+
+        @Override
+        public void setUp() {
+        }
+
+        @Override
+        public long run() {
+            solver.solve(method, MIXED_EQUATION, 1.0, 0.0, 0.0, 0.0, 30.0, 0.01, MIXED_CONTROL, out);
+            BenchmarkRunner.consume(out.getY(out.size() - 1));
+            return 1;
+        }
+    }
+
+    // Та же задача, что solver.RK4, методом Parareal в общем пуле (отрезков - по числу потоков);
+    // шаги считаются по последовательному решению, поэтому результаты сравнимы напрямую
+    private static class PararealBenchmark implements Benchmark {
+        private final PararealSolver solver = new PararealSolver(ForkJoinPool.commonPool(),
+                Math.max(2, ForkJoinPool.getCommonPoolParallelism()));
+
+        @Override
+        public String getName() {
+            return "parareal.RK4";
+        }
+
+        @Override
+        public String getUnit() {
+            return "шаг";
+        }
+
+        @Override
+        public void setUp() {
+        }
+
+        @Override
+        public long run() {
+            Solution out = solver.solve(Method.RK4, TEST_EQUATION, 1.0, 0.0, 0.0, 0.0, T_END,
+                    FIXED_STEP, null);
+            BenchmarkRunner.consume(out.getY(out.size() - 1));
+            return out.size() - 1;
+        }
+    }
+
+    // Чувствительности решения к y0, y0', y0'' на всей сетке: решение с уравнениями в вариациях
+    // или решение и три возмущенных решения с разностями вперед
+    private static class SensitivityBenchmark implements Benchmark {
+        private static final double[] X0 = {1.0, 0.0, 0.0};
+        private final boolean augmented;
+        private final RungeKuttaSolver solver = new RungeKuttaSolver();
+        private final Solution base = new Solution();
+        private final Solution perturbed = new Solution();
+        private final Solution variational = new Solution(SensitivitySystem.DIMENSION);
+
+        SensitivityBenchmark(boolean augmented) {
+            this.augmented = augmented;
+        }
+
+        @Override
+        public String getName() {
+            return "sensitivity.RK4." + (augmented ? "variational" : "differences");
+        }
+
+        @Override
+        public String getUnit() {
+            return "решение";
+        }
+
+        @Override
+        public void setUp() {
+        }
+
+        @Override
+        public long run() {
+            if (augmented) {
+                solver.solveWithSensitivities(Method.RK4, USER_EQUATION,
+                        X0[0], X0[1], X0[2], 0.0, T_END, FIXED_STEP, null, variational);
+                double sum = 0;
+                for (int i = 0; i < variational.size(); i++) {
+                    for (int j = 0; j < 3; j++) {
+                        sum += variational.get(SensitivitySystem.component(0, j), i);
+                    }
+                }
+                BenchmarkRunner.consume(sum);
+                return 1;
+            }
+            solver.solve(Method.RK4, USER_EQUATION, X0[0], X0[1], X0[2], 0.0, T_END, FIXED_STEP, null, base);
+            double sum = 0;
+            for (int j = 0; j < 3; j++) {
+                double delta = 1e-7;
+                solver.solve(Method.RK4, USER_EQUATION, X0[0] + (j == 0 ? delta : 0),
+                        X0[1] + (j == 1 ? delta : 0), X0[2] + (j == 2 ? delta : 0),
+                        0.0, T_END, FIXED_STEP, null, perturbed);
+                for (int i = 0; i < base.size(); i++) {
+                    sum += (perturbed.getY(i) - base.getY(i)) / delta;
+                }
+            }
+            BenchmarkRunner.consume(sum);
+            return 1;
+        }
+    }
+
+    // Ансамбль 10 000 траекторий РК4 в одном потоке: по одной траектории или блоками
+    private static class EnsembleBenchmark implements Benchmark {
+        private final boolean batched;
+        private final ForkJoinPool pool = new ForkJoinPool(1);
+        private List<TrajectorySpec> specs;
+
+        EnsembleBenchmark(boolean batched) {
+            this.batched = batched;
+        }
+
+        @Override
+        public String getName() {
+            return "ensemble.RK4." + (batched ? "batched" : "scalar");
+        }
+
+        @Override
+        public String getUnit() {
+            return "траектория";
+        }
+
+        @Override
+        public void setUp() {
+            specs = new ArrayList<>();
+            for (int i = 0; i < 10_000; i++) {
+                specs.add(new TrajectorySpec(0.01 * (i % 100), -1.0 + 0.2 * (i / 100 % 10),
+                        -1.0 + 0.2 * (i / 1000), 0.01));
+            }
+        }
+
+        @Override
+        public long run() {
+            List<TrajectorySummary> results = new EnsembleSolver(pool, batched)
+                    .solve(Method.RK4, Equations.FORCED, specs, 0.0, 2.0, null);
+            BenchmarkRunner.consume(results.get(results.size() - 1).getFinalY());
+            return results.size();
+        }
+    }
+
+    private static class StepBenchmark implements Benchmark {
+        private final Method method;
+        private final ThirdOrderODE equation;
+        private final String suffix;
+        private final RungeKuttaSolver solver = new RungeKuttaSolver();
+        private final Solution out = new Solution();
+
+        StepBenchmark(Method method, ThirdOrderODE equation, String suffix) {
+            this.method = method;
+            this.equation = equation;
+            this.suffix = suffix;
+        }
+
+        @Override
+        public String getName() {
+            return "solver." + method.name() + suffix;
+        }
+
+        @Override
+        public String getUnit() {
+            return "шаг";
+        }
+
+        @Override
+        public void setUp() {
+        }
+
+        @Override
+        public long run() {
+            solver.solve(method, equation, 1.0, 0.0, 0.0, 0.0, T_END,
+                    method.isAdaptive() ? 0.01 : FIXED_STEP, CONTROL, out);
+            BenchmarkRunner.consume(out.getY(out.size() - 1));
+            if (method.isAdaptive()) {
+                return out.getAcceptedSteps() + out.getRejectedSteps();
+            }
+            return out.size() - 1;
+        }
+    }
+}
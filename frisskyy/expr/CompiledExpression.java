@@ -0,0 +1,7 @@
+package frisskyy.expr;
+
+// Выражение, готовое к многократному вычислению (см. ExpressionCompiler)
+@FunctionalInterface
+public interface CompiledExpression {
+    double evaluate(double t, double y, double dy, double d2y);
+}
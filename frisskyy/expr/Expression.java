@@ -0,0 +1,250 @@
+package frisskyy.expr;
+
+// Неизменяемое дерево выражения от переменных t, y, y', y''.
+// Фабричные методы сразу сворачивают константы и тривиальные случаи (x + 0, x * 1, x ^ 1),
+// чтобы символьные производные не разрастались.
+public final class Expression {
+
+    public enum Kind { CONSTANT, VARIABLE, ADD, SUB, MUL, DIV, POW, NEG, FUNCTION }
+
+    // Номера переменных совпадают с порядком аргументов CompiledExpression.evaluate
+    public static final int T = 0;
+    public static final int Y = 1;
+    public static final int DY = 2;
+    public static final int D2Y = 3;
+    static final String[] VARIABLE_NAMES = {"t", "y", "y'", "y''"};
+
+    private final Kind kind;
+    private final double value;
+    private final int variable;
+    private final MathFunction function;
+    private final Expression left;
+    private final Expression right;
+
+    private Expression(Kind kind, double value, int variable, MathFunction function,
+                       Expression left, Expression right) {
+        this.kind = kind;
+        this.value = value;
+        this.variable = variable;
+        this.function = function;
+        this.left = left;
+        this.right = right;
+    }
+
+    public static Expression constant(double value) {
+        return new Expression(Kind.CONSTANT, value, -1, null, null, null);
+    }
+
+    public static Expression variable(int index) {
+        if (index < T || index > D2Y) {
+            throw new IllegalArgumentException("Нет переменной с номером " + index);
+        }
+        return new Expression(Kind.VARIABLE, 0, index, null, null, null);
+    }
+
+    public static Expression add(Expression a, Expression b) {
+        if (a.isConstant() && b.isConstant()) {
+            return constant(a.value + b.value);
+        }
+        if (a.isConstant(0)) {
+            return b;
+        }
+        if (b.isConstant(0)) {
+            return a;
+        }
+        return binary(Kind.ADD, a, b);
+    }
+
+    public static Expression sub(Expression a, Expression b) {
+        if (a.isConstant() && b.isConstant()) {
+            return constant(a.value - b.value);
+        }
+        if (b.isConstant(0)) {
+            return a;
+        }
+        if (a.isConstant(0)) {
+            return neg(b);
+        }
+        return binary(Kind.SUB, a, b);
+    }
+
+    public static Expression mul(Expression a, Expression b) {
+        if (a.isConstant() && b.isConstant()) {
+            return constant(a.value * b.value);
+        }
+        if (a.isConstant(0) || b.isConstant(0)) {
+            return constant(0);
+        }
+        if (a.isConstant(1)) {
+            return b;
+        }
+        if (b.isConstant(1)) {
+            return a;
+        }
+        if (a.isConstant(-1)) {
+            return neg(b);
+        }
+        if (b.isConstant(-1)) {
+            return neg(a);
+        }
+        return binary(Kind.MUL, a, b);
+    }
+
+    public static Expression div(Expression a, Expression b) {
+        if (a.isConstant() && b.isConstant()) {
+            return constant(a.value / b.value);
+        }
+        if (a.isConstant(0)) {
+            return constant(0);
+        }
+        if (b.isConstant(1)) {
+            return a;
+        }
+        return binary(Kind.DIV, a, b);
+    }
+
+    public static Expression pow(Expression base, Expression exponent) {
+        if (base.isConstant() && exponent.isConstant()) {
+            return constant(Math.pow(base.value, exponent.value));
+        }
+        if (exponent.isConstant(0)) {
+            return constant(1);
+        }
+        if (exponent.isConstant(1)) {
+            return base;
+        }
+        return binary(Kind.POW, base, exponent);
+    }
+
+    public static Expression neg(Expression a) {
+        if (a.isConstant()) {
+            return constant(-a.value);
+        }
+        if (a.kind == Kind.NEG) {
+            return a.left;
+        }
+        return new Expression(Kind.NEG, 0, -1, null, a, null);
+    }
+
+    public static Expression call(MathFunction function, Expression argument) {
+        if (argument.isConstant()) {
+            return constant(function.apply(argument.value));
+        }
+        return new Expression(Kind.FUNCTION, 0, -1, function, argument, null);
+    }
+
+    private static Expression binary(Kind kind, Expression a, Expression b) {
+        return new Expression(kind, 0, -1, null, a, b);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    public int getVariable() {
+        return variable;
+    }
+
+    public MathFunction getFunction() {
+        return function;
+    }
+
+    // Левый операнд, операнд NEG или аргумент функции
+    public Expression getLeft() {
+        return left;
+    }
+
+    public Expression getRight() {
+        return right;
+    }
+
+    public boolean isConstant() {
+        return kind == Kind.CONSTANT;
+    }
+
+    private boolean isConstant(double v) {
+        return kind == Kind.CONSTANT && value == v;
+    }
+
+    // Зависит ли выражение от переменной с номером index
+    public boolean dependsOn(int index) {
+        switch (kind) {
+            case CONSTANT: return false;
+            case VARIABLE: return variable == index;
+            case NEG:
+            case FUNCTION: return left.dependsOn(index);
+            default: return left.dependsOn(index) || right.dependsOn(index);
+        }
+    }
+
+    // Вычисление обходом дерева; в расчетах используется ExpressionCompiler
+    public double evaluate(double t, double y, double dy, double d2y) {
+        switch (kind) {
+            case CONSTANT: return value;
+            case VARIABLE:
+                switch (variable) {
+                    case T: return t;
+                    case Y: return y;
+                    case DY: return dy;
+                    default: return d2y;
+                }
+            case ADD: return left.evaluate(t, y, dy, d2y) + right.evaluate(t, y, dy, d2y);
+            case SUB: return left.evaluate(t, y, dy, d2y) - right.evaluate(t, y, dy, d2y);
+            case MUL: return left.evaluate(t, y, dy, d2y) * right.evaluate(t, y, dy, d2y);
+            case DIV: return left.evaluate(t, y, dy, d2y) / right.evaluate(t, y, dy, d2y);
+            case POW: return Math.pow(left.evaluate(t, y, dy, d2y), right.evaluate(t, y, dy, d2y));
+            case NEG: return -left.evaluate(t, y, dy, d2y);
+            default: return function.apply(left.evaluate(t, y, dy, d2y));
+        }
+    }
+
+    // Символьная производная по переменной с номером index
+    public Expression derivative(int index) {
+        switch (kind) {
+            case CONSTANT:
+                return constant(0);
+            case VARIABLE:
+                return constant(variable == index ? 1 : 0);
+            case ADD:
+                return add(left.derivative(index), right.derivative(index));
+            case SUB:
+                return sub(left.derivative(index), right.derivative(index));
+            case MUL:
+                return add(mul(left.derivative(index), right), mul(left, right.derivative(index)));
+            case DIV:
+                return div(sub(mul(left.derivative(index), right), mul(left, right.derivative(index))),
+                        pow(right, constant(2)));
+            case POW:
+                if (!right.dependsOn(index)) {
+                    // (u^c)' = c * u^(c-1) * u'
+                    return mul(mul(right, pow(left, sub(right, constant(1)))), left.derivative(index));
+                }
+                // (u^v)' = u^v * (v' * ln u + v * u' / u)
+                return mul(this, add(mul(right.derivative(index), call(MathFunction.LN, left)),
+                        div(mul(right, left.derivative(index)), left)));
+            case NEG:
+                return neg(left.derivative(index));
+            default:
+                return mul(function.derivative(left), left.derivative(index));
+        }
+    }
+
+    @Override
+    public String toString() {
+        switch (kind) {
+            case CONSTANT: return Double.toString(value);
+            case VARIABLE: return VARIABLE_NAMES[variable];
+            case ADD: return "(" + left + " + " + right + ")";
+            case SUB: return "(" + left + " - " + right + ")";
+            case MUL: return "(" + left + " * " + right + ")";
+            case DIV: return "(" + left + " / " + right + ")";
+            case POW: return "(" + left + " ^ " + right + ")";
+            case NEG: return "-" + left;
+            default: return function.getName() + "(" + left + ")";
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package frisskyy.expr;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.HashMap;
+import java.util.Map;
+
+// Перевод дерева выражения в байт-код: для каждого выражения генерируется скрытый класс,
+// реализующий CompiledExpression, с линейным методом evaluate без ветвлений и локальных
+// переменных, кроме аргументов. После прогрева JIT компилирует его так же, как
+// написанную вручную правую часть. Если сгенерировать класс не удалось, возвращается
+// вычисление обходом дерева (Expression.evaluate).
+public class ExpressionCompiler {
+
+    private static final String CLASS_NAME = "frisskyy/expr/GeneratedExpression";
+    private static final String INTERFACE_NAME = "frisskyy/expr/CompiledExpression";
+    private static final int MAX_CODE_LENGTH = 65535;
+
+    // Коды инструкций JVM
+    private static final int ALOAD_0 = 0x2a;
+    private static final int DCONST_0 = 0x0e;
+    private static final int DCONST_1 = 0x0f;
+    private static final int LDC2_W = 0x14;
+    private static final int DLOAD = 0x18;
+    private static final int DLOAD_1 = 0x27;
+    private static final int DLOAD_3 = 0x29;
+    private static final int DUP2 = 0x5c;
+    private static final int DADD = 0x63;
+    private static final int DSUB = 0x67;
+    private static final int DMUL = 0x6b;
+    private static final int DDIV = 0x6f;
+    private static final int DNEG = 0x77;
+    private static final int DRETURN = 0xaf;
+    private static final int RETURN = 0xb1;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKESTATIC = 0xb8;
+
+    private final ConstantPool pool = new ConstantPool();
+    private final ByteArrayOutputStream code = new ByteArrayOutputStream();
+    private int stack;
+    private int maxStack;
+
+    private ExpressionCompiler() {
+    }
+
+    public static CompiledExpression compile(Expression expression) {
+        try {
+            byte[] bytes = new ExpressionCompiler().generate(expression);
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(bytes, true);
+            return (CompiledExpression) lookup.findConstructor(lookup.lookupClass(),
+                    MethodType.methodType(void.class)).invoke();
+        } catch (Throwable e) {
+            if (e instanceof Error && !(e instanceof LinkageError)) {
+                throw (Error) e;
+            }
+            return expression::evaluate;
+        }
+    }
+
+    private byte[] generate(Expression expression) throws IOException {
+        emit(expression);
+        code.write(DRETURN);
+        if (code.size() > MAX_CODE_LENGTH) {
+            throw new IOException("Слишком длинное выражение");
+        }
+
+        int thisClass = pool.classRef(CLASS_NAME);
+        int superClass = pool.classRef("java/lang/Object");
+        int iface = pool.classRef(INTERFACE_NAME);
+        int objectInit = pool.methodRef("java/lang/Object", "<init>", "()V");
+        int initName = pool.utf8("<init>");
+        int initDesc = pool.utf8("()V");
+        int evalName = pool.utf8("evaluate");
+        int evalDesc = pool.utf8("(DDDD)D");
+        int codeName = pool.utf8("Code");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0xCAFEBABE);
+        out.writeShort(0);
+        out.writeShort(52);   // Java 8: без StackMapTable, код линейный
+        pool.writeTo(out);
+        out.writeShort(0x0031);   // public final super
+        out.writeShort(thisClass);
+        out.writeShort(superClass);
+        out.writeShort(1);
+        out.writeShort(iface);
+        out.writeShort(0);   // поля
+        out.writeShort(2);   // методы
+
+        byte[] init = {(byte) ALOAD_0, (byte) INVOKESPECIAL,
+                (byte) (objectInit >> 8), (byte) objectInit, (byte) RETURN};
+        writeMethod(out, 0x0001, initName, initDesc, codeName, 1, 1, init);
+        // this + четыре double по два слота
+        writeMethod(out, 0x0011, evalName, evalDesc, codeName, maxStack, 9, code.toByteArray());
+
+        out.writeShort(0);   // атрибуты класса
+        return bytes.toByteArray();
+    }
+
+    private static void writeMethod(DataOutputStream out, int access, int name, int desc, int codeName,
+                                    int maxStack, int maxLocals, byte[] code) throws IOException {
+        out.writeShort(access);
+        out.writeShort(name);
+        out.writeShort(desc);
+        out.writeShort(1);
+        out.writeShort(codeName);
+        out.writeInt(12 + code.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0);   // таблица исключений
+        out.writeShort(0);   // атрибуты кода
+    }
+
+    private void emit(Expression e) {
+        switch (e.getKind()) {
+            case CONSTANT:
+                emitConstant(e.getValue());
+                break;
+            case VARIABLE:
+                // аргументы (t, y, dy, d2y) лежат в слотах 1, 3, 5, 7
+                int slot = 1 + 2 * e.getVariable();
+                if (slot <= 3) {
+                    code.write(slot == 1 ? DLOAD_1 : DLOAD_3);
+                } else {
+                    code.write(DLOAD);
+                    code.write(slot);
+                }
+                push(2);
+                break;
+            case ADD:
+                emitBinary(e, DADD);
+                break;
+            case SUB:
+                emitBinary(e, DSUB);
+                break;
+            case MUL:
+                emitBinary(e, DMUL);
+                break;
+            case DIV:
+                emitBinary(e, DDIV);
+                break;
+            case NEG:
+                emit(e.getLeft());
+                code.write(DNEG);
+                break;
+            case POW:
+                emitPow(e);
+                break;
+            case FUNCTION:
+                emit(e.getLeft());
+                emitInvoke(e.getFunction().getJavaName(), "(D)D");
+                break;
+            default:
+                throw new AssertionError(e.getKind());
+        }
+    }
+
+    private void emitBinary(Expression e, int opcode) {
+        emit(e.getLeft());
+        emit(e.getRight());
+        code.write(opcode);
+        stack -= 2;
+    }
+
+    // Малые целые степени разворачиваются в умножения, остальные - Math.pow
+    private void emitPow(Expression e) {
+        Expression exponent = e.getRight();
+        if (exponent.isConstant() && exponent.getValue() == 2) {
+            emit(e.getLeft());
+            emitDup();
+            code.write(DMUL);
+            stack -= 2;
+        } else if (exponent.isConstant() && exponent.getValue() == 3) {
+            emit(e.getLeft());
+            emitDup();
+            emitDup();
+            code.write(DMUL);
+            code.write(DMUL);
+            stack -= 4;
+        } else if (exponent.isConstant() && exponent.getValue() == -1) {
+            emitConstant(1);
+            emit(e.getLeft());
+            code.write(DDIV);
+            stack -= 2;
+        } else {
+            emit(e.getLeft());
+            emit(exponent);
+            emitInvoke("pow", "(DD)D");
+        }
+    }
+
+    private void emitDup() {
+        code.write(DUP2);
+        push(2);
+    }
+
+    private void emitConstant(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        if (bits == 0L) {
+            code.write(DCONST_0);
+        } else if (value == 1.0) {
+            code.write(DCONST_1);
+        } else {
+            int index = pool.doubleConst(value);
+            code.write(LDC2_W);
+            code.write(index >> 8);
+            code.write(index);
+        }
+        push(2);
+    }
+
+    private void emitInvoke(String name, String descriptor) {
+        int index = pool.methodRef("java/lang/Math", name, descriptor);
+        code.write(INVOKESTATIC);
+        code.write(index >> 8);
+        code.write(index);
+        // аргументы снимаются со стека, результат double кладется обратно
+        stack -= descriptor.equals("(D)D") ? 0 : 2;
+    }
+
+    private void push(int words) {
+        stack += words;
+        maxStack = Math.max(maxStack, stack);
+    }
+
+    // Пул констант класса с повторным использованием одинаковых записей
+    private static class ConstantPool {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final Map<String, Integer> entries = new HashMap<>();
+        private int next = 1;
+
+        int utf8(String s) {
+            Integer index = entries.get("U" + s);
+            if (index != null) {
+                return index;
+            }
+            write(1, s);
+            return register("U" + s, 1);
+        }
+
+        int classRef(String name) {
+            Integer index = entries.get("C" + name);
+            if (index != null) {
+                return index;
+            }
+            int nameIndex = utf8(name);
+            write(7, nameIndex);
+            return register("C" + name, 1);
+        }
+
+        int methodRef(String owner, String name, String descriptor) {
+            String key = "M" + owner + "." + name + descriptor;
+            Integer index = entries.get(key);
+            if (index != null) {
+                return index;
+            }
+            int ownerIndex = classRef(owner);
+            int nameIndex = utf8(name);
+            int descIndex = utf8(descriptor);
+            write(12, nameIndex, descIndex);
+            int nameAndType = register("N" + name + descriptor, 1);
+            write(10, ownerIndex, nameAndType);
+            return register(key, 1);
+        }
+
+        int doubleConst(double value) {
+            long bits = Double.doubleToRawLongBits(value);
+            String key = "D" + bits;
+            Integer index = entries.get(key);
+            if (index != null) {
+                return index;
+            }
+            try {
+                out.writeByte(6);
+                out.writeLong(bits);
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+            // double занимает две записи пула
+            return register(key, 2);
+        }
+
+        private void write(int tag, String s) {
+            try {
+                out.writeByte(tag);
+                out.writeUTF(s);
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+        }
+
+        private void write(int tag, int... indices) {
+            try {
+                out.writeByte(tag);
+                for (int index : indices) {
+                    out.writeShort(index);
+                }
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+        }
+
+        private int register(String key, int size) {
+            int index = next;
+            entries.put(key, index);
+            next += size;
+            return index;
+        }
+
+        void writeTo(DataOutputStream target) throws IOException {
+            target.writeShort(next);
+            target.write(bytes.toByteArray());
+        }
+    }
+}
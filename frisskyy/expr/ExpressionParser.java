@@ -0,0 +1,192 @@
+package frisskyy.expr;
+
+// Разбор выражения рекурсивным спуском.
+// Грамматика: сумма := произв. (('+' | '-') произв.)*,  произв. := унарн. (('*' | '/') унарн.)*,
+// унарн. := ('-' | '+') унарн. | степень,  степень := первичн. ('^' унарн.)?,
+// первичн. := число | переменная | константа | функция '(' сумма ')' | '(' сумма ')'.
+// Переменные: t, y, y' (dy), y'' (d2y); константы: pi, e.
+public class ExpressionParser {
+
+    private final String text;
+    private final int variableCount;
+    private int pos;
+
+    private ExpressionParser(String text, int variableCount) {
+        this.text = text;
+        this.variableCount = variableCount;
+    }
+
+    // Разрешены переменные с номерами меньше variableCount (1 - только t, 4 - t, y, y', y'')
+    public static Expression parse(String text, int variableCount) {
+        ExpressionParser parser = new ExpressionParser(text, variableCount);
+        parser.skipSpaces();
+        if (parser.pos == text.length()) {
+            throw new IllegalArgumentException("Выражение не задано");
+        }
+        Expression e = parser.parseSum();
+        if (parser.pos < text.length()) {
+            throw parser.error("лишний символ '" + text.charAt(parser.pos) + "'");
+        }
+        return e;
+    }
+
+    private Expression parseSum() {
+        Expression e = parseProduct();
+        while (true) {
+            if (accept('+')) {
+                e = Expression.add(e, parseProduct());
+            } else if (accept('-')) {
+                e = Expression.sub(e, parseProduct());
+            } else {
+                return e;
+            }
+        }
+    }
+
+    private Expression parseProduct() {
+        Expression e = parseUnary();
+        while (true) {
+            if (accept('*')) {
+                e = Expression.mul(e, parseUnary());
+            } else if (accept('/')) {
+                e = Expression.div(e, parseUnary());
+            } else {
+                return e;
+            }
+        }
+    }
+
+    private Expression parseUnary() {
+        if (accept('-')) {
+            return Expression.neg(parseUnary());
+        }
+        if (accept('+')) {
+            return parseUnary();
+        }
+        Expression base = parsePrimary();
+        if (accept('^')) {
+            return Expression.pow(base, parseUnary());
+        }
+        return base;
+    }
+
+    private Expression parsePrimary() {
+        if (pos == text.length()) {
+            throw error("неожиданный конец выражения");
+        }
+        char c = text.charAt(pos);
+        if (accept('(')) {
+            Expression e = parseSum();
+            expect(')');
+            return e;
+        }
+        if (Character.isDigit(c) || c == '.') {
+            return parseNumber();
+        }
+        if (Character.isLetter(c)) {
+            return parseName();
+        }
+        throw error("неожиданный символ '" + c + "'");
+    }
+
+    private Expression parseNumber() {
+        int start = pos;
+        while (pos < text.length() && (Character.isDigit(text.charAt(pos)) || text.charAt(pos) == '.')) {
+            pos++;
+        }
+        if (pos < text.length() && (text.charAt(pos) == 'e' || text.charAt(pos) == 'E')) {
+            int mark = pos++;
+            if (pos < text.length() && (text.charAt(pos) == '+' || text.charAt(pos) == '-')) {
+                pos++;
+            }
+            if (pos < text.length() && Character.isDigit(text.charAt(pos))) {
+                while (pos < text.length() && Character.isDigit(text.charAt(pos))) {
+                    pos++;
+                }
+            } else {
+                pos = mark;   // "2e" - это 2 и далее имя e
+            }
+        }
+        String number = text.substring(start, pos);
+        skipSpaces();
+        try {
+            return Expression.constant(Double.parseDouble(number));
+        } catch (NumberFormatException ex) {
+            pos = start;
+            throw error("неверное число '" + number + "'");
+        }
+    }
+
+    private Expression parseName() {
+        int start = pos;
+        while (pos < text.length() && (Character.isLetterOrDigit(text.charAt(pos)) || text.charAt(pos) == '_')) {
+            pos++;
+        }
+        String name = text.substring(start, pos);
+        if (name.equals("y")) {
+            int primes = 0;
+            while (pos < text.length() && text.charAt(pos) == '\'') {
+                pos++;
+                primes++;
+            }
+            if (primes > 2) {
+                pos = start;
+                throw error("в правой части допустимы только y, y' и y''");
+            }
+            skipSpaces();
+            return variable(Expression.Y + primes, start);
+        }
+        skipSpaces();
+        switch (name) {
+            case "t": return variable(Expression.T, start);
+            case "dy": return variable(Expression.DY, start);
+            case "d2y": return variable(Expression.D2Y, start);
+            case "pi": return Expression.constant(Math.PI);
+            case "e": return Expression.constant(Math.E);
+            default:
+                break;
+        }
+        MathFunction function = MathFunction.forName(name);
+        if (function == null) {
+            pos = start;
+            throw error("неизвестное имя '" + name + "'");
+        }
+        expect('(');
+        Expression argument = parseSum();
+        expect(')');
+        return Expression.call(function, argument);
+    }
+
+    private Expression variable(int index, int start) {
+        if (index >= variableCount) {
+            pos = start;
+            throw error("переменная " + Expression.VARIABLE_NAMES[index] + " здесь недопустима");
+        }
+        return Expression.variable(index);
+    }
+
+    private boolean accept(char c) {
+        if (pos < text.length() && text.charAt(pos) == c) {
+            pos++;
+            skipSpaces();
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) {
+        if (!accept(c)) {
+            throw error("ожидается '" + c + "'");
+        }
+    }
+
+    private void skipSpaces() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Ошибка в выражении (позиция " + (pos + 1) + "): " + message);
+    }
+}
@@ -0,0 +1,98 @@
+package frisskyy.expr;
+
+// Функции одного аргумента, доступные в выражениях. name - имя в тексте выражения,
+// javaName - одноименный статический метод java.lang.Math с сигнатурой (D)D.
+public enum MathFunction {
+    SIN("sin", "sin"),
+    COS("cos", "cos"),
+    TAN("tan", "tan"),
+    ASIN("asin", "asin"),
+    ACOS("acos", "acos"),
+    ATAN("atan", "atan"),
+    SINH("sinh", "sinh"),
+    COSH("cosh", "cosh"),
+    TANH("tanh", "tanh"),
+    EXP("exp", "exp"),
+    LN("ln", "log"),
+    LOG10("lg", "log10"),
+    SQRT("sqrt", "sqrt"),
+    CBRT("cbrt", "cbrt"),
+    ABS("abs", "abs");
+
+    private final String name;
+    private final String javaName;
+
+    MathFunction(String name, String javaName) {
+        this.name = name;
+        this.javaName = javaName;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    String getJavaName() {
+        return javaName;
+    }
+
+    // Функция по имени из выражения (log - синоним ln); null, если такой нет
+    public static MathFunction forName(String name) {
+        if ("log".equals(name)) {
+            return LN;
+        }
+        for (MathFunction f : values()) {
+            if (f.name.equals(name)) {
+                return f;
+            }
+        }
+        return null;
+    }
+
+    public double apply(double x) {
+        switch (this) {
+            case SIN: return Math.sin(x);
+            case COS: return Math.cos(x);
+            case TAN: return Math.tan(x);
+            case ASIN: return Math.asin(x);
+            case ACOS: return Math.acos(x);
+            case ATAN: return Math.atan(x);
+            case SINH: return Math.sinh(x);
+            case COSH: return Math.cosh(x);
+            case TANH: return Math.tanh(x);
+            case EXP: return Math.exp(x);
+            case LN: return Math.log(x);
+            case LOG10: return Math.log10(x);
+            case SQRT: return Math.sqrt(x);
+            case CBRT: return Math.cbrt(x);
+            case ABS: return Math.abs(x);
+            default: throw new AssertionError(this);
+        }
+    }
+
+    // Производная f'(u) как выражение от аргумента u
+    Expression derivative(Expression u) {
+        switch (this) {
+            case SIN: return Expression.call(COS, u);
+            case COS: return Expression.neg(Expression.call(SIN, u));
+            case TAN: return Expression.div(Expression.constant(1),
+                    Expression.pow(Expression.call(COS, u), Expression.constant(2)));
+            case ASIN: return Expression.div(Expression.constant(1), Expression.call(SQRT,
+                    Expression.sub(Expression.constant(1), Expression.pow(u, Expression.constant(2)))));
+            case ACOS: return Expression.neg(ASIN.derivative(u));
+            case ATAN: return Expression.div(Expression.constant(1),
+                    Expression.add(Expression.constant(1), Expression.pow(u, Expression.constant(2))));
+            case SINH: return Expression.call(COSH, u);
+            case COSH: return Expression.call(SINH, u);
+            case TANH: return Expression.sub(Expression.constant(1),
+                    Expression.pow(Expression.call(TANH, u), Expression.constant(2)));
+            case EXP: return Expression.call(EXP, u);
+            case LN: return Expression.div(Expression.constant(1), u);
+            case LOG10: return Expression.div(Expression.constant(1 / Math.log(10)), u);
+            case SQRT: return Expression.div(Expression.constant(0.5), Expression.call(SQRT, u));
+            case CBRT: return Expression.div(Expression.constant(1.0 / 3.0),
+                    Expression.pow(Expression.call(CBRT, u), Expression.constant(2)));
+            case ABS: return Expression.div(u, Expression.call(ABS, u));
+            default: throw new AssertionError(this);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package frisskyy.expr;
+
+import frisskyy.solver.DifferentiableThirdOrderODE;
+
+// Уравнение y''' = f(t, y, y', y''), заданное пользователем текстом.
+// Правая часть разбирается один раз и компилируется в байт-код; если задано точное
+// решение y(t), то y'(t) и y''(t) получаются символьным дифференцированием.
+// Частные производные f по y, y', y'' тоже получаются символьно.
+public class UserEquation implements DifferentiableThirdOrderODE {
+
+    private final String text;
+    // Текст точного решения или пустая строка
+    private final String exactText;
+    private final CompiledExpression rhs;
+    private final CompiledExpression dfdy, dfddy, dfdd2y;
+    private final CompiledExpression exactY, exactDY, exactD2Y;
+
+    private UserEquation(String text, String exactText, Expression rhs, CompiledExpression exactY,
+                         CompiledExpression exactDY, CompiledExpression exactD2Y) {
+        this.text = text;
+        this.exactText = exactText;
+        this.rhs = ExpressionCompiler.compile(rhs);
+        this.dfdy = ExpressionCompiler.compile(rhs.derivative(Expression.Y));
+        this.dfddy = ExpressionCompiler.compile(rhs.derivative(Expression.DY));
+        this.dfdd2y = ExpressionCompiler.compile(rhs.derivative(Expression.D2Y));
+        this.exactY = exactY;
+        this.exactDY = exactDY;
+        this.exactD2Y = exactD2Y;
+    }
+
+    // exactText может быть пустым - тогда точного решения нет.
+    // Ошибки разбора сообщаются IllegalArgumentException с позицией в тексте.
+    public static UserEquation parse(String rhsText, String exactText) {
+        Expression rhs = ExpressionParser.parse(rhsText, Expression.D2Y + 1);
+        if (exactText == null || exactText.trim().isEmpty()) {
+            return new UserEquation(rhsText.trim(), "", rhs, null, null, null);
+        }
+        Expression y;
+        try {
+            y = ExpressionParser.parse(exactText, Expression.T + 1);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Точное решение: " + e.getMessage());
+        }
+        Expression dy = y.derivative(Expression.T);
+        Expression d2y = dy.derivative(Expression.T);
+        return new UserEquation(rhsText.trim(), exactText.trim(), rhs,
+                ExpressionCompiler.compile(y), ExpressionCompiler.compile(dy),
+                ExpressionCompiler.compile(d2y));
+    }
+
+    public double calculate(double t, double y, double dy, double d2y) {
+        return rhs.evaluate(t, y, dy, d2y);
+    }
+
+    public void gradient(double t, double y, double dy, double d2y, double[] gradient) {
+        gradient[0] = dfdy.evaluate(t, y, dy, d2y);
+        gradient[1] = dfddy.evaluate(t, y, dy, d2y);
+        gradient[2] = dfdd2y.evaluate(t, y, dy, d2y);
+    }
+
+    public String getName() {
+        return "y''' = " + text;
+    }
+
+    public double[] exactSolution(double t) {
+        if (exactY == null) {
+            return new double[]{0, 0, 0};
+        }
+        return new double[]{exactY.evaluate(t, 0, 0, 0), exactDY.evaluate(t, 0, 0, 0),
+                exactD2Y.evaluate(t, 0, 0, 0)};
+    }
+
+    public boolean isExactSolutionAvailable() {
+        return exactY != null;
+    }
+
+    // Уравнения с одинаковыми текстами правой части и точного решения взаимозаменяемы
+    // (SolveKey: кэш решений и продолжение до большего t_end)
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof UserEquation)) {
+            return false;
+        }
+        UserEquation that = (UserEquation) obj;
+        return text.equals(that.text) && exactText.equals(that.exactText);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * text.hashCode() + exactText.hashCode();
+    }
+}
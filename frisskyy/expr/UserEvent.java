@@ -0,0 +1,23 @@
+package frisskyy.expr;
+
+import frisskyy.solver.Event;
+
+// Событие g(t, y, y', y'') = 0, заданное пользователем текстом; g компилируется в байт-код.
+// Например, "y" - нули решения, "y'" - экстремумы, "y - 0.5" - достижение уровня 0.5.
+public final class UserEvent {
+
+    private UserEvent() {
+    }
+
+    // Ошибки разбора сообщаются IllegalArgumentException с позицией в тексте
+    public static Event parse(String text, Event.Direction direction, boolean terminal) {
+        CompiledExpression g;
+        try {
+            g = ExpressionCompiler.compile(ExpressionParser.parse(text, Expression.D2Y + 1));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Событие: " + e.getMessage());
+        }
+        return new Event(text.trim() + " = 0", (t, x) -> g.evaluate(t, x[0], x[1], x[2]),
+                direction, terminal);
+    }
+}
@@ -0,0 +1,271 @@
+package frisskyy.io;
+
+import frisskyy.solver.Solution;
+import frisskyy.solver.ThirdOrderODE;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+// Потоковая запись решения в файл. Строки форматируются прямо в байтовый буфер
+// без String.format и промежуточных строк, буфер сбрасывается в FileChannel
+// (или в gzip-поток) крупными блоками, поэтому запись ограничена скоростью диска.
+// Точное решение вычисляется один раз на строку.
+//
+// Форматы:
+//   TEXT   - выровненная таблица, как прежний экспорт в TXT (t - 3 знака, остальное - 6)
+//   CSV    - t,y,dy,d2y[,err_y,err_dy,err_d2y], числа в кратчайшей точной записи Double
+//   BINARY - заголовок "RKSOLBIN", int32 версия (1), int32 число столбцов,
+//            для каждого столбца int32 длина и имя в UTF-8; затем строки подряд,
+//            каждая - значения столбцов как double. Все числа little-endian,
+//            число строк = остаток файла / (8 * число столбцов).
+// Экземпляр не потокобезопасен; строки можно дописывать частями по мере решения.
+public class SolutionExporter implements Closeable {
+
+    public enum Format {
+        TEXT, CSV, BINARY;
+
+        // Формат по имени файла (.txt, .csv, .bin, в том числе с суффиксом .gz); по умолчанию TEXT
+        public static Format forFile(String fileName) {
+            String name = stripGzip(fileName.toLowerCase(Locale.ROOT));
+            if (name.endsWith(".csv")) {
+                return CSV;
+            }
+            if (name.endsWith(".bin")) {
+                return BINARY;
+            }
+            return TEXT;
+        }
+    }
+
+    private static final byte[] MAGIC = "RKSOLBIN".getBytes(StandardCharsets.US_ASCII);
+    private static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 20;
+    // Наибольшая длина строки любого формата с запасом
+    private static final int MAX_ROW_BYTES = 512;
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1000, 10_000, 100_000, 1_000_000,
+            10_000_000, 100_000_000, 1_000_000_000};
+
+    private final WritableByteChannel channel;
+    private final Format format;
+    private final ThirdOrderODE equation;
+    private final boolean exact;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final StringBuilder number = new StringBuilder(32);
+    private long rows;
+
+    private SolutionExporter(WritableByteChannel channel, Format format, ThirdOrderODE equation) throws IOException {
+        this.channel = channel;
+        this.format = format;
+        this.equation = equation;
+        this.exact = equation.isExactSolutionAvailable();
+        writeHeader();
+    }
+
+    // Открывает файл (перезаписывая его) и пишет заголовок. gzip - сжимать ли поток
+    public static SolutionExporter open(Path path, Format format, boolean gzip,
+                                        ThirdOrderODE equation) throws IOException {
+        WritableByteChannel channel;
+        if (gzip) {
+            // наибольшая скорость сжатия: уровень по умолчанию в разы медленнее записи на диск
+            channel = Channels.newChannel(new GZIPOutputStream(Files.newOutputStream(path), 1 << 16) {
+                {
+                    def.setLevel(Deflater.BEST_SPEED);
+                }
+            });
+        } else {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+        try {
+            return new SolutionExporter(channel, format, equation);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Формат и сжатие по имени файла
+    public static SolutionExporter open(Path path, ThirdOrderODE equation) throws IOException {
+        String name = path.getFileName().toString();
+        return open(path, Format.forFile(name), isGzip(name), equation);
+    }
+
+    public static boolean isGzip(String fileName) {
+        return fileName.toLowerCase(Locale.ROOT).endsWith(".gz");
+    }
+
+    private static String stripGzip(String name) {
+        return name.endsWith(".gz") ? name.substring(0, name.length() - 3) : name;
+    }
+
+    // Записывает строки решения с from (включительно) по to (исключительно)
+    public void write(Solution solution, int from, int to) throws IOException {
+        for (int i = from; i < to; i++) {
+            if (buffer.remaining() < MAX_ROW_BYTES) {
+                flush();
+            }
+            double t = solution.getT(i);
+            double y = solution.getY(i);
+            double dy = solution.getDY(i);
+            double d2y = solution.getD2Y(i);
+            double errorY = 0, errorDY = 0, errorD2Y = 0;
+            if (exact) {
+                double[] e = equation.exactSolution(t);
+                errorY = Math.abs(y - e[0]);
+                errorDY = Math.abs(dy - e[1]);
+                errorD2Y = Math.abs(d2y - e[2]);
+            }
+            switch (format) {
+                case BINARY:
+                    buffer.putDouble(t).putDouble(y).putDouble(dy).putDouble(d2y);
+                    if (exact) {
+                        buffer.putDouble(errorY).putDouble(errorDY).putDouble(errorD2Y);
+                    }
+                    break;
+                case CSV:
+                    putShortest(t);
+                    buffer.put((byte) ',');
+                    putShortest(y);
+                    buffer.put((byte) ',');
+                    putShortest(dy);
+                    buffer.put((byte) ',');
+                    putShortest(d2y);
+                    if (exact) {
+                        buffer.put((byte) ',');
+                        putShortest(errorY);
+                        buffer.put((byte) ',');
+                        putShortest(errorDY);
+                        buffer.put((byte) ',');
+                        putShortest(errorD2Y);
+                    }
+                    buffer.put((byte) '\n');
+                    break;
+                default:
+                    putFixed(t, 3, 8);
+                    putFixed(y, 6, 12);
+                    putFixed(dy, 6, 12);
+                    if (exact) {
+                        putFixed(d2y, 6, 12);
+                        putFixed(errorY, 6, 12);
+                        putFixed(errorDY, 6, 12);
+                        putFixed(errorD2Y, 6, 0);
+                    } else {
+                        putFixed(d2y, 6, 0);
+                    }
+                    buffer.put((byte) '\n');
+                    break;
+            }
+        }
+        rows += to - from;
+    }
+
+    public long getRowsWritten() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        String[] names = exact
+                ? new String[]{"t", "y", "dy", "d2y", "err_y", "err_dy", "err_d2y"}
+                : new String[]{"t", "y", "dy", "d2y"};
+        switch (format) {
+            case BINARY:
+                buffer.put(MAGIC).putInt(VERSION).putInt(names.length);
+                for (String name : names) {
+                    byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                    buffer.putInt(bytes.length).put(bytes);
+                }
+                break;
+            case CSV:
+                putAscii(String.join(",", names));
+                buffer.put((byte) '\n');
+                break;
+            default:
+                String header = exact
+                        ? String.format("%-8s %-12s %-12s %-12s %-12s %-12s %-12s\n",
+                        "t", "y(t)", "y'(t)", "y''(t)", "Ошибка y", "Ошибка y'", "Ошибка y''")
+                        : String.format("%-8s %-12s %-12s %-12s\n", "t", "y(t)", "y'(t)", "y''(t)");
+                buffer.put(header.getBytes(StandardCharsets.UTF_8));
+                break;
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // Кратчайшая запись, однозначно восстанавливающая double (как Double.toString)
+    private void putShortest(double v) {
+        number.setLength(0);
+        number.append(v);
+        for (int i = 0; i < number.length(); i++) {
+            buffer.put((byte) number.charAt(i));
+        }
+    }
+
+    // Число с фиксированным числом знаков после точки, дополненное пробелами до width
+    // и отделенное пробелом (при width > 0), как "%-{width}.{decimals}f ".
+    // Слишком большие и нечисловые значения пишутся кратчайшей записью.
+    private void putFixed(double v, int decimals, int width) {
+        int start = buffer.position();
+        long scale = POWERS_OF_TEN[decimals];
+        double scaled = Math.abs(v) * scale;
+        if (!(scaled < 1e17)) {
+            putShortest(v);
+        } else {
+            long digits = Math.round(scaled);
+            if (v < 0 && digits != 0) {
+                buffer.put((byte) '-');
+            }
+            putLong(digits / scale);
+            buffer.put((byte) '.');
+            long fraction = digits % scale;
+            for (long p = scale / 10; p > 0; p /= 10) {
+                buffer.put((byte) ('0' + fraction / p % 10));
+            }
+        }
+        if (width > 0) {
+            for (int n = buffer.position() - start; n < width; n++) {
+                buffer.put((byte) ' ');
+            }
+            buffer.put((byte) ' ');
+        }
+    }
+
+    private void putLong(long value) {
+        if (value >= 10) {
+            putLong(value / 10);
+        }
+        buffer.put((byte) ('0' + value % 10));
+    }
+
+    private void putAscii(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            buffer.put((byte) s.charAt(i));
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package frisskyy.solver;
+
+import java.util.List;
+
+// Многошаговый метод Адамса-Башфорта-Моултона 4-го порядка в режиме PECE:
+// прогноз по явной формуле Адамса-Башфорта, одно вычисление f, коррекция по неявной
+// формуле Адамса-Моултона и еще одно вычисление f - два вызова правой части на шаг
+// вместо четырех у РК4 и шести у Фельдберга. Значения f в трех предыдущих точках хранятся,
+// первые три шага (разгон) выполняются методом РК4.
+// В адаптивном режиме ошибка оценивается по разности прогноза и коррекции (правило Милна);
+// при смене шага история f пересчитывается на новую сетку интерполяционным кубическим
+// многочленом, поэтому повторный разгон не нужен. Экземпляр не потокобезопасен.
+public class AdamsIntegrator {
+
+    private static final int ORDER = 4;
+
+    // Главный член погрешности корректора: 19/270 * (коррекция - прогноз)
+    private static final double MILNE = 19.0 / 270.0;
+    private static final double SAFETY = 0.9;
+    private static final double MIN_FACTOR = 0.2;
+    // Рост шага ограничен, так как история f при этом экстраполируется
+    private static final double MAX_FACTOR = 2.0;
+    // Шаг увеличивается, только если можно увеличить его хотя бы во столько раз
+    private static final double GROW_THRESHOLD = 1.5;
+
+    private static final double FIXED_STEP_EPS = 1e-10;
+
+    private double[] x = new double[0];
+    private double[] xNew = new double[0];
+    private double[] xs = new double[0];
+    private double[] fNew = new double[0];
+    private double[][] k = new double[0][0];
+    // f[0] - производная в текущей точке, f[j] - на j шагов назад
+    private double[][] f = new double[ORDER][0];
+    private final double[][] weights = new double[ORDER][ORDER];
+
+    private SolveMonitor monitor;
+    private List<Event> events;
+
+    // Принятый шаг, для которого вызвана проверка событий, и его плотная выдача
+    private double stepT, stepH;
+    private final EventDetector.DenseOutput denseOutput =
+            (t, result) -> interpolate(x.length, (t - stepT) / stepH, stepH, result);
+
+    // Наблюдатель за ходом решения; null - без наблюдения
+    public void setMonitor(SolveMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    // События, отслеживаемые при интегрировании; null или пустой список - без событий
+    public void setEvents(List<Event> events) {
+        this.events = events;
+    }
+
+    private void ensureBuffers(int n) {
+        if (x.length != n) {
+            x = new double[n];
+            xNew = new double[n];
+            xs = new double[n];
+            fNew = new double[n];
+            k = new double[3][n];
+            f = new double[ORDER][n];
+        }
+    }
+
+    // Интегрирование с постоянным шагом h; в out записывается каждая точка t0 + n*h <= tEnd
+    public void integrate(OdeSystem system, double t0, double[] x0, double tEnd, double h, Solution out) {
+        int n = system.getDimension();
+        ensureBuffers(n);
+        System.arraycopy(x0, 0, x, 0, n);
+
+        double t = t0;
+        out.addInitial(t, x);
+        EventDetector detector = EventDetector.create(events, system, t, x, out);
+        system.computeDerivatives(t, x, f[0]);
+        SolveStatistics statistics = out.getStatistics();
+        int steps = 0;
+        while (t + h <= tEnd + FIXED_STEP_EPS) {
+            if (steps < ORDER - 1) {
+                rungeKuttaStep(system, t, h, n);
+            } else {
+                predictCorrect(system, t, h, n);
+            }
+            statistics.recordStep(h);
+            double tStop = detector != null ? detector.check(t, x, t + h, xNew, null) : Double.NaN;
+            if (!Double.isNaN(tStop)) {
+                t = tStop;
+                detector.stop(t, x, monitor);
+                break;
+            }
+            t += h;
+            advance(n);
+            steps++;
+            out.add(t, x);
+            if (monitor != null) {
+                monitor.stepCompleted(t, out);
+                if (monitor.isCancelRequested()) {
+                    break;
+                }
+            }
+        }
+    }
+
+    // Интегрирование с адаптивным шагом; результат выдается на сетке t0 + n*hOut
+    // (кубическая эрмитова интерполяция внутри шага), hOut также служит начальным шагом
+    public void integrate(OdeSystem system, double t0, double[] x0, double tEnd, double hOut,
+                          StepControl control, Solution out) {
+        int n = system.getDimension();
+        ensureBuffers(n);
+        System.arraycopy(x0, 0, x, 0, n);
+
+        double atol = control.getAbsoluteTolerance();
+        double rtol = control.getRelativeTolerance();
+        double hMin = control.getMinStep();
+        double hMax = control.getMaxStep();
+
+        double t = t0;
+        double h = Math.min(Math.max(hOut, hMin), hMax);
+        double eps = 1e-12 * Math.max(1.0, Math.abs(tEnd));
+        int accepted = 0;
+        int rejected = 0;
+
+        out.addInitial(t, x);
+        int outIndex = 1;
+        double tOut = t0 + hOut;
+        EventDetector detector = EventDetector.create(events, system, t, x, out);
+
+        system.computeDerivatives(t, x, f[0]);
+        // Число точек истории, взятых с текущим шагом (после разгона - не меньше ORDER)
+        int history = 1;
+        int stepsSinceChange = 0;
+
+        while (t < tEnd - eps) {
+            if (t + h > tEnd) {
+                double hLast = tEnd - t;
+                if (history >= ORDER) {
+                    rescaleHistory(hLast / h, n);
+                } else {
+                    history = 1;
+                }
+                h = hLast;
+                stepsSinceChange = 0;
+            }
+
+            double err;
+            if (history < ORDER) {
+                // Разгон: шаг РК4, ошибка оценивается сравнением с двумя полушагами
+                err = startStep(system, t, h, n, atol, rtol);
+            } else {
+                predictCorrect(system, t, h, n);
+                err = 0;
+                for (int i = 0; i < n; i++) {
+                    double sc = atol + rtol * Math.max(Math.abs(x[i]), Math.abs(xNew[i]));
+                    double r = MILNE * (xNew[i] - xs[i]) / sc;
+                    err += r * r;
+                }
+                err = Math.sqrt(err / n);
+            }
+
+            // Правая часть не определена (NaN/Inf) на этом шаге: шаг уменьшается до hMin
+            boolean failed = !Double.isFinite(err);
+            if (failed && h <= hMin) {
+                throw new ArithmeticException("Правая часть не определена при t = " + t);
+            }
+            double factor = failed ? MIN_FACTOR : err == 0 ? MAX_FACTOR
+                    : Math.min(MAX_FACTOR, Math.max(MIN_FACTOR, SAFETY * Math.pow(err, -1.0 / (ORDER + 1))));
+
+            if (!failed && (err <= 1.0 || h <= hMin)) {
+                // Шаг принят (на минимальном шаге - принудительно)
+                out.getStatistics().recordStep(h);
+                double tNew = t + h;
+                double tStop = Double.NaN;
+                if (detector != null) {
+                    stepT = t;
+                    stepH = h;
+                    tStop = detector.check(t, x, tNew, xNew, denseOutput);
+                }
+                boolean stop = !Double.isNaN(tStop);
+                double tLimit = stop ? tStop - eps : tNew + eps;
+                while (tOut <= tLimit && tOut <= tEnd + eps) {
+                    interpolate(n, (tOut - t) / h, h, xs);
+                    out.add(tOut, xs);
+                    outIndex++;
+                    tOut = t0 + outIndex * hOut;
+                }
+                if (stop) {
+                    t = tStop;
+                    detector.stop(t, x, monitor);
+                    accepted++;
+                    break;
+                }
+
+                t = tNew;
+                advance(n);
+                history++;
+                stepsSinceChange++;
+                accepted++;
+                // Во время разгона шаг не меняется, чтобы история оставалась равномерной
+                if (history >= ORDER && factor >= GROW_THRESHOLD && stepsSinceChange >= ORDER && h < hMax) {
+                    double hNew = Math.min(h * factor, hMax);
+                    rescaleHistory(hNew / h, n);
+                    h = hNew;
+                    stepsSinceChange = 0;
+                }
+                if (monitor != null) {
+                    monitor.stepCompleted(t, out);
+                    if (monitor.isCancelRequested()) {
+                        break;
+                    }
+                }
+            } else {
+                // Шаг отклонен: уменьшаем h, история f интерполируется на более частую сетку
+                rejected++;
+                double hNew = Math.max(h * Math.min(factor, 1.0), hMin);
+                if (history >= ORDER) {
+                    rescaleHistory(hNew / h, n);
+                } else {
+                    // Разгон начинается заново из последней точки с меньшим шагом
+                    history = 1;
+                }
+                h = hNew;
+                stepsSinceChange = 0;
+                if (monitor != null && monitor.isCancelRequested()) {
+                    break;
+                }
+            }
+        }
+
+        // Последняя достигнутая точка, если она не попала на сетку вывода
+        if (out.getT(out.size() - 1) < t - eps) {
+            out.add(t, x);
+        }
+        out.setStepCounts(accepted, rejected);
+    }
+
+    // Прогноз xs по Адамсу-Башфорту, коррекция xNew по Адамсу-Моултону, fNew = f(t + h, xNew)
+    private void predictCorrect(OdeSystem system, double t, double h, int n) {
+        double c = h / 24.0;
+        double[] f0 = f[0], f1 = f[1], f2 = f[2], f3 = f[3];
+        for (int i = 0; i < n; i++) {
+            xs[i] = x[i] + c * (55 * f0[i] - 59 * f1[i] + 37 * f2[i] - 9 * f3[i]);
+        }
+        system.computeDerivatives(t + h, xs, fNew);
+        for (int i = 0; i < n; i++) {
+            xNew[i] = x[i] + c * (9 * fNew[i] + 19 * f0[i] - 5 * f1[i] + f2[i]);
+        }
+        system.computeDerivatives(t + h, xNew, fNew);
+    }
+
+    // Шаг классического РК4 из (t, x) с известной f[0]; результат в xNew, fNew = f(t + h, xNew)
+    private void rungeKuttaStep(OdeSystem system, double t, double h, int n) {
+        rungeKutta(system, t, x, f[0], h, xNew, n);
+        system.computeDerivatives(t + h, xNew, fNew);
+    }
+
+    // Шаг разгона с оценкой ошибки по правилу Рунге: один шаг h против двух шагов h/2.
+    // В xNew записывается более точный результат двух полушагов.
+    private double startStep(OdeSystem system, double t, double h, int n, double atol, double rtol) {
+        double half = 0.5 * h;
+        rungeKutta(system, t, x, f[0], h, xs, n);
+        rungeKutta(system, t, x, f[0], half, xNew, n);
+        system.computeDerivatives(t + half, xNew, fNew);
+        System.arraycopy(xNew, 0, k[2], 0, n);
+        rungeKutta(system, t + half, k[2], fNew, half, xNew, n);
+        system.computeDerivatives(t + h, xNew, fNew);
+
+        double err = 0;
+        for (int i = 0; i < n; i++) {
+            double sc = atol + rtol * Math.max(Math.abs(x[i]), Math.abs(xNew[i]));
+            double r = (xNew[i] - xs[i]) / 15.0 / sc;
+            err += r * r;
+        }
+        return Math.sqrt(err / n);
+    }
+
+    // result = шаг РК4 из (t, from) с известной производной df; from и result должны различаться,
+    // result не должен совпадать с k[0], k[1]
+    private void rungeKutta(OdeSystem system, double t, double[] from, double[] df, double h,
+                            double[] result, int n) {
+        double[] k2 = k[0], k3 = k[1];
+        for (int i = 0; i < n; i++) {
+            result[i] = from[i] + 0.5 * h * df[i];
+        }
+        system.computeDerivatives(t + 0.5 * h, result, k2);
+        for (int i = 0; i < n; i++) {
+            result[i] = from[i] + 0.5 * h * k2[i];
+        }
+        system.computeDerivatives(t + 0.5 * h, result, k3);
+        for (int i = 0; i < n; i++) {
+            result[i] = from[i] + h * k3[i];
+            k2[i] += k3[i];
+        }
+        system.computeDerivatives(t + h, result, k3);
+        for (int i = 0; i < n; i++) {
+            result[i] = from[i] + h / 6.0 * (df[i] + 2 * k2[i] + k3[i]);
+        }
+    }
+
+    // Переход в новую точку: x = xNew, история f сдвигается без копирования массивов
+    private void advance(int n) {
+        double[] oldest = f[ORDER - 1];
+        for (int j = ORDER - 1; j > 0; j--) {
+            f[j] = f[j - 1];
+        }
+        f[0] = oldest;
+        System.arraycopy(fNew, 0, f[0], 0, n);
+        System.arraycopy(xNew, 0, x, 0, n);
+    }
+
+    // Пересчет истории f[1..3] с шага h на шаг ratio*h по многочлену Лагранжа,
+    // проходящему через f[0..3] в точках 0, -1, -2, -3 (в единицах старого шага)
+    private void rescaleHistory(double ratio, int n) {
+        for (int m = 1; m < ORDER; m++) {
+            double tau = -m * ratio;
+            for (int j = 0; j < ORDER; j++) {
+                double w = 1;
+                for (int l = 0; l < ORDER; l++) {
+                    if (l != j) {
+                        w *= (tau + l) / (l - j);
+                    }
+                }
+                weights[m][j] = w;
+            }
+        }
+        // Новые значения собираются в k[], чтобы не испортить исходные до конца расчета
+        for (int m = 1; m < ORDER; m++) {
+            double[] target = k[m - 1];
+            for (int i = 0; i < n; i++) {
+                double sum = 0;
+                for (int j = 0; j < ORDER; j++) {
+                    sum += weights[m][j] * f[j][i];
+                }
+                target[i] = sum;
+            }
+        }
+        for (int m = 1; m < ORDER; m++) {
+            System.arraycopy(k[m - 1], 0, f[m], 0, n);
+        }
+    }
+
+    // Кубическая эрмитова интерполяция по (x, f[0]) и (xNew, fNew), theta = (tOut - t) / h
+    private void interpolate(int n, double theta, double h, double[] result) {
+        double theta1 = 1 - theta;
+        double h00 = theta1 * theta1 * (1 + 2 * theta);
+        double h10 = theta * theta1 * theta1;
+        double h01 = theta * theta * (3 - 2 * theta);
+        double h11 = -theta * theta * theta1;
+        double[] f0 = f[0];
+        for (int i = 0; i < n; i++) {
+            result[i] = h00 * x[i] + h10 * h * f0[i] + h01 * xNew[i] + h11 * h * fNew[i];
+        }
+    }
+}
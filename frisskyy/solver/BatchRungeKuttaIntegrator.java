@@ -0,0 +1,314 @@
+package frisskyy.solver;
+
+// Явный метод Рунге-Кутты для блока траекторий уравнения 3-го порядка, которые идут
+// в ногу: у всех общий t и шаг. Состояния и стадии хранятся столбцами (структура массивов),
+// все внутренние циклы - простые проходы по траекториям вида a[i] += c * b[i], которые
+// JIT-компилятор векторизует, а правая часть вычисляется одним вызовом на стадию
+// (BatchedThirdOrderODE). Порядок операций такой же, как в ExplicitRungeKuttaIntegrator,
+// поэтому с постоянным шагом каждая траектория совпадает со скалярным решением побитово.
+// В адаптивном режиме шаг общий и выбирается по наибольшей ошибке среди траекторий блока.
+// Буферы переиспользуются между вызовами. Экземпляр не потокобезопасен.
+public class BatchRungeKuttaIntegrator {
+
+    private static final double SAFETY = 0.9;
+    private static final double MIN_FACTOR = 0.2;
+    private static final double MAX_FACTOR = 5.0;
+
+    private static final double FIXED_STEP_EPS = 1e-10;
+
+    private static final int DIMENSION = 3;
+
+    // Точки вывода: состояния всех траекторий блока в момент t.
+    // Массивы принадлежат интегратору и действительны только во время вызова
+    public interface Observer {
+        void point(double t, double[] y, double[] dy, double[] d2y, int count);
+    }
+
+    private int capacity = -1;
+    // [компонента][траектория]
+    private double[][] x = new double[DIMENSION][0];
+    private double[][] xNew = new double[DIMENSION][0];
+    private double[][] xs = new double[DIMENSION][0];
+    // [стадия][компонента][траектория]
+    private double[][][] k = new double[0][DIMENSION][0];
+    private double[] sum = new double[0];
+    private double[] laneError = new double[0];
+
+    private int acceptedSteps;
+    private int rejectedSteps;
+    private final SolveStatistics statistics = new SolveStatistics();
+
+    private void ensureBuffers(int stages, int count) {
+        if (capacity < count || k.length < stages) {
+            capacity = Math.max(capacity, count);
+            x = new double[DIMENSION][capacity];
+            xNew = new double[DIMENSION][capacity];
+            xs = new double[DIMENSION][capacity];
+            k = new double[stages][DIMENSION][capacity];
+            sum = new double[capacity];
+            laneError = new double[capacity];
+        }
+    }
+
+    // Число принятых и отклоненных общих шагов последнего адаптивного решения
+    public int getAcceptedSteps() {
+        return acceptedSteps;
+    }
+
+    public int getRejectedSteps() {
+        return rejectedSteps;
+    }
+
+    // Затраты последнего вызова integrate: вычисления правой части суммарно по траекториям,
+    // общие шаги блока и время
+    public SolveStatistics getStatistics() {
+        return statistics;
+    }
+
+    // Интегрирование count траекторий с постоянным шагом h; наблюдатель получает начальную
+    // точку и каждую точку t0 + n*h <= tEnd. В y, dy, d2y передаются начальные условия,
+    // на выходе в них записываются состояния в последней точке
+    public void integrate(BatchedThirdOrderODE equation, ButcherTableau tableau,
+                          double t0, double tEnd, double h,
+                          double[] y, double[] dy, double[] d2y, int count, Observer observer) {
+        int stages = tableau.getStages();
+        ensureBuffers(stages, count);
+        load(y, dy, d2y, count);
+        acceptedSteps = 0;
+        rejectedSteps = 0;
+        statistics.clear();
+        long start = System.nanoTime();
+
+        double t = t0;
+        observer.point(t, x[0], x[1], x[2], count);
+        boolean haveFirstStage = false;
+        while (t + h <= tEnd + FIXED_STEP_EPS) {
+            computeStages(equation, tableau, t, h, haveFirstStage, count);
+            statistics.recordStep(h);
+            swapState();
+            if (tableau.fsal) {
+                copyStage(stages - 1, 0, count);
+                haveFirstStage = true;
+            }
+            t += h;
+            observer.point(t, x[0], x[1], x[2], count);
+        }
+        statistics.addIntegrateNanos(System.nanoTime() - start);
+        store(y, dy, d2y, count);
+    }
+
+    // Интегрирование с общим адаптивным шагом по вложенной оценке ошибки, как
+    // ExplicitRungeKuttaIntegrator: для методов с плотной выдачей точки выдаются
+    // на сетке t0 + n*hOut, иначе - в конце каждого принятого шага
+    public void integrate(BatchedThirdOrderODE equation, ButcherTableau tableau,
+                          double t0, double tEnd, double hOut, StepControl control,
+                          double[] y, double[] dy, double[] d2y, int count, Observer observer) {
+        if (!tableau.isEmbedded()) {
+            throw new IllegalArgumentException("Адаптивный шаг требует вложенного метода");
+        }
+        int stages = tableau.getStages();
+        ensureBuffers(stages, count);
+        load(y, dy, d2y, count);
+        statistics.clear();
+        long start = System.nanoTime();
+
+        double atol = control.getAbsoluteTolerance();
+        double rtol = control.getRelativeTolerance();
+        double hMin = control.getMinStep();
+        double hMax = control.getMaxStep();
+        double errorExponent = -1.0 / tableau.getOrder();
+        boolean dense = tableau.hasDenseOutput();
+
+        double t = t0;
+        double h = Math.min(Math.max(hOut, hMin), hMax);
+        double eps = 1e-12 * Math.max(1.0, Math.abs(tEnd));
+        int accepted = 0;
+        int rejected = 0;
+
+        observer.point(t, x[0], x[1], x[2], count);
+        double lastOutput = t;
+        int outIndex = 1;
+        double tOut = t0 + hOut;
+
+        boolean haveFirstStage = false;
+        while (t < tEnd - eps) {
+            if (t + h > tEnd) {
+                h = tEnd - t;
+            }
+
+            computeStages(equation, tableau, t, h, haveFirstStage, count);
+            haveFirstStage = true;
+
+            double err = errorNorm(tableau, h, atol, rtol, count);
+            double factor = err == 0 ? MAX_FACTOR
+                    : Math.min(MAX_FACTOR, Math.max(MIN_FACTOR, SAFETY * Math.pow(err, errorExponent)));
+
+            if (err <= 1.0 || h <= hMin) {
+                statistics.recordStep(h);
+                double tNew = t + h;
+                if (dense) {
+                    while (tOut <= tNew + eps && tOut <= tEnd + eps) {
+                        interpolate(tableau, (tOut - t) / h, h, count);
+                        observer.point(tOut, xs[0], xs[1], xs[2], count);
+                        lastOutput = tOut;
+                        outIndex++;
+                        tOut = t0 + outIndex * hOut;
+                    }
+                }
+
+                t = tNew;
+                swapState();
+                if (tableau.fsal) {
+                    copyStage(stages - 1, 0, count);
+                } else {
+                    haveFirstStage = false;
+                }
+                if (!dense) {
+                    observer.point(t, x[0], x[1], x[2], count);
+                    lastOutput = t;
+                }
+                accepted++;
+                h = Math.min(h * factor, hMax);
+            } else {
+                rejected++;
+                h = Math.max(h * Math.min(factor, 1.0), hMin);
+            }
+        }
+
+        if (lastOutput < t - eps) {
+            observer.point(t, x[0], x[1], x[2], count);
+        }
+        acceptedSteps = accepted;
+        rejectedSteps = rejected;
+        statistics.addIntegrateNanos(System.nanoTime() - start);
+        store(y, dy, d2y, count);
+    }
+
+    private void load(double[] y, double[] dy, double[] d2y, int count) {
+        System.arraycopy(y, 0, x[0], 0, count);
+        System.arraycopy(dy, 0, x[1], 0, count);
+        System.arraycopy(d2y, 0, x[2], 0, count);
+    }
+
+    private void store(double[] y, double[] dy, double[] d2y, int count) {
+        System.arraycopy(x[0], 0, y, 0, count);
+        System.arraycopy(x[1], 0, dy, 0, count);
+        System.arraycopy(x[2], 0, d2y, 0, count);
+    }
+
+    // Новое состояние становится текущим без копирования
+    private void swapState() {
+        double[][] tmp = x;
+        x = xNew;
+        xNew = tmp;
+    }
+
+    private void copyStage(int from, int to, int count) {
+        for (int c = 0; c < DIMENSION; c++) {
+            System.arraycopy(k[from][c], 0, k[to][c], 0, count);
+        }
+    }
+
+    // Производные системы x = (y, y', y'') в состоянии state: (y', y'', f)
+    private void derivatives(BatchedThirdOrderODE equation, double t, double[][] state,
+                             double[][] result, int count) {
+        System.arraycopy(state[1], 0, result[0], 0, count);
+        System.arraycopy(state[2], 0, result[1], 0, count);
+        equation.calculate(t, state[0], state[1], state[2], result[2], count);
+        statistics.addRhsEvaluations(count);
+    }
+
+    // Стадии k[0..s-1] и решение xNew, как ExplicitRungeKuttaIntegrator.computeStages
+    private void computeStages(BatchedThirdOrderODE equation, ButcherTableau tableau,
+                               double t, double h, boolean firstStageReady, int count) {
+        int stages = tableau.getStages();
+        if (!firstStageReady) {
+            derivatives(equation, t, x, k[0], count);
+        }
+        double[] acc = sum;
+        for (int s = 1; s < stages; s++) {
+            double[] a = tableau.a[s];
+            for (int c = 0; c < DIMENSION; c++) {
+                combine(a, a.length, c, count);
+                double[] from = x[c];
+                double[] to = xs[c];
+                for (int i = 0; i < count; i++) {
+                    to[i] = from[i] + h * acc[i];
+                }
+            }
+            derivatives(equation, t + tableau.c[s] * h, xs, k[s], count);
+        }
+        for (int c = 0; c < DIMENSION; c++) {
+            double[] to = xNew[c];
+            if (tableau.fsal) {
+                System.arraycopy(xs[c], 0, to, 0, count);
+            } else {
+                combine(tableau.b, stages, c, count);
+                double[] from = x[c];
+                for (int i = 0; i < count; i++) {
+                    to[i] = from[i] + h * acc[i];
+                }
+            }
+        }
+    }
+
+    // sum[i] = сумма weights[j] * k[j][c][i] по j < terms
+    private void combine(double[] weights, int terms, int c, int count) {
+        double[] target = sum;
+        for (int i = 0; i < count; i++) {
+            target[i] = 0;
+        }
+        for (int j = 0; j < terms; j++) {
+            double w = weights[j];
+            double[] kj = k[j][c];
+            for (int i = 0; i < count; i++) {
+                target[i] += w * kj[i];
+            }
+        }
+    }
+
+    // Наибольшая по траекториям среднеквадратичная ошибка шага в единицах допуска
+    private double errorNorm(ButcherTableau tableau, double h, double atol, double rtol, int count) {
+        int stages = tableau.getStages();
+        double[] err = laneError;
+        for (int i = 0; i < count; i++) {
+            err[i] = 0;
+        }
+        for (int c = 0; c < DIMENSION; c++) {
+            combine(tableau.e, stages, c, count);
+            double[] from = x[c];
+            double[] to = xNew[c];
+            for (int i = 0; i < count; i++) {
+                double sc = atol + rtol * Math.max(Math.abs(from[i]), Math.abs(to[i]));
+                double r = h * sum[i] / sc;
+                err[i] += r * r;
+            }
+        }
+        double max = 0;
+        for (int i = 0; i < count; i++) {
+            max = Math.max(max, Math.sqrt(err[i] / DIMENSION));
+        }
+        return max;
+    }
+
+    // Плотная выдача 4-го порядка в xs, как ExplicitRungeKuttaIntegrator.interpolate
+    private void interpolate(ButcherTableau tableau, double theta, double h, int count) {
+        int last = tableau.getStages() - 1;
+        double theta1 = 1 - theta;
+        for (int c = 0; c < DIMENSION; c++) {
+            combine(tableau.d, last + 1, c, count);
+            double[] from = x[c];
+            double[] to = xNew[c];
+            double[] k0 = k[0][c];
+            double[] kLast = k[last][c];
+            double[] result = xs[c];
+            for (int i = 0; i < count; i++) {
+                double dx = to[i] - from[i];
+                double bspl = h * k0[i] - dx;
+                double r4 = dx - h * kLast[i] - bspl;
+                double r5 = sum[i] * h;
+                result[i] = from[i] + theta * (dx + theta1 * (bspl + theta * (r4 + theta1 * r5)));
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package frisskyy.solver;
+
+// Уравнение 3-го порядка, правая часть которого вычисляется сразу для набора траекторий
+// с общим t. Состояния передаются столбцами (y[i], dy[i], d2y[i] - i-я траектория), поэтому
+// цикл по траекториям в реализации простой и векторизуется JIT-компилятором.
+// Используется в BatchRungeKuttaIntegrator; по умолчанию вызывает скалярный calculate.
+public interface BatchedThirdOrderODE extends ThirdOrderODE {
+
+    // out[i] = f(t, y[i], dy[i], d2y[i]) для i из [0, count)
+    default void calculate(double t, double[] y, double[] dy, double[] d2y, double[] out, int count) {
+        for (int i = 0; i < count; i++) {
+            out[i] = calculate(t, y[i], dy[i], d2y[i]);
+        }
+    }
+
+    // Уравнение в пакетном виде: само уравнение, если оно уже пакетное, иначе обертка
+    // над скалярным calculate
+    static BatchedThirdOrderODE of(ThirdOrderODE equation) {
+        if (equation instanceof BatchedThirdOrderODE) {
+            return (BatchedThirdOrderODE) equation;
+        }
+        return new BatchedThirdOrderODE() {
+            @Override
+            public double calculate(double t, double y, double dy, double d2y) {
+                return equation.calculate(t, y, dy, d2y);
+            }
+
+            @Override
+            public String getName() {
+                return equation.getName();
+            }
+
+            @Override
+            public double[] exactSolution(double t) {
+                return equation.exactSolution(t);
+            }
+
+            @Override
+            public boolean isExactSolutionAvailable() {
+                return equation.isExactSolutionAvailable();
+            }
+        };
+    }
+}
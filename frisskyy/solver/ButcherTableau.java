@@ -0,0 +1,136 @@
+package frisskyy.solver;
+
+// Таблица Бутчера явного метода Рунге-Кутты.
+// Для вложенных методов e = b - b^ задает оценку локальной ошибки.
+public final class ButcherTableau {
+
+    public static final ButcherTableau EULER = new ButcherTableau(1,
+            new double[]{0},
+            new double[][]{{}},
+            new double[]{1},
+            null, null);
+
+    // Эйлер-Коши (предиктор-корректор, метод трапеций)
+    public static final ButcherTableau EULER_CAUCHY = new ButcherTableau(2,
+            new double[]{0, 1},
+            new double[][]{{}, {1}},
+            new double[]{1.0/2, 1.0/2},
+            null, null);
+
+    // Рунге-Кутта 3-го порядка (Гейне)
+    public static final ButcherTableau RK3_HEUN = new ButcherTableau(3,
+            new double[]{0, 1.0/3, 2.0/3},
+            new double[][]{{}, {1.0/3}, {0, 2.0/3}},
+            new double[]{1.0/4, 0, 3.0/4},
+            null, null);
+
+    public static final ButcherTableau RK4 = new ButcherTableau(4,
+            new double[]{0, 1.0/2, 1.0/2, 1},
+            new double[][]{{}, {1.0/2}, {0, 1.0/2}, {0, 0, 1}},
+            new double[]{1.0/6, 1.0/3, 1.0/3, 1.0/6},
+            null, null);
+
+    // Фельдберг 5(4): решение продолжается методом 5-го порядка
+    public static final ButcherTableau FEHLBERG = new ButcherTableau(5,
+            new double[]{0, 1.0/4, 3.0/8, 12.0/13, 1, 1.0/2},
+            new double[][]{
+                    {},
+                    {1.0/4},
+                    {3.0/32, 9.0/32},
+                    {1932.0/2197, -7200.0/2197, 7296.0/2197},
+                    {439.0/216, -8, 3680.0/513, -845.0/4104},
+                    {-8.0/27, 2, -3544.0/2565, 1859.0/4104, -11.0/40}
+            },
+            new double[]{16.0/135, 0, 6656.0/12825, 28561.0/56430, -9.0/50, 2.0/55},
+            new double[]{1.0/360, 0, -128.0/4275, -2197.0/75240, 1.0/50, 2.0/55},
+            null);
+
+    // Дорманд-Принс 5(4); последняя строка A совпадает с весами b (FSAL)
+    public static final ButcherTableau DORMAND_PRINCE = new ButcherTableau(5,
+            new double[]{0, 1.0/5, 3.0/10, 4.0/5, 8.0/9, 1, 1},
+            new double[][]{
+                    {},
+                    {1.0/5},
+                    {3.0/40, 9.0/40},
+                    {44.0/45, -56.0/15, 32.0/9},
+                    {19372.0/6561, -25360.0/2187, 64448.0/6561, -212.0/729},
+                    {9017.0/3168, -355.0/33, 46732.0/5247, 49.0/176, -5103.0/18656},
+                    {35.0/384, 0, 500.0/1113, 125.0/192, -2187.0/6784, 11.0/84}
+            },
+            new double[]{35.0/384, 0, 500.0/1113, 125.0/192, -2187.0/6784, 11.0/84, 0},
+            new double[]{71.0/57600, 0, -71.0/16695, 71.0/1920, -17253.0/339200, 22.0/525, -1.0/40},
+            // Коэффициенты плотной выдачи 4-го порядка (Hairer, Nørsett, Wanner)
+            new double[]{-12715105075.0/11282082432.0, 0, 87487479700.0/32700410799.0,
+                    -10690763975.0/1880347072, 701980252875.0/199316789632.0,
+                    -1453857185.0/822651844, 69997945.0/29380423});
+
+    final int order;
+    final double[] c;
+    final double[][] a;
+    final double[] b;
+    final double[] e;
+    final double[] d;
+    final boolean fsal;
+
+    public ButcherTableau(int order, double[] c, double[][] a, double[] b, double[] e, double[] d) {
+        int stages = c.length;
+        if (a.length != stages || b.length != stages
+                || (e != null && e.length != stages) || (d != null && d.length != stages)) {
+            throw new IllegalArgumentException("Размеры таблицы Бутчера не согласованы");
+        }
+        for (int s = 0; s < stages; s++) {
+            if (a[s].length > s) {
+                throw new IllegalArgumentException("Матрица A явного метода должна быть строго нижнетреугольной");
+            }
+        }
+        this.order = order;
+        this.c = c.clone();
+        this.a = new double[stages][];
+        for (int s = 0; s < stages; s++) {
+            this.a[s] = a[s].clone();
+        }
+        this.b = b.clone();
+        this.e = e == null ? null : e.clone();
+        this.d = d == null ? null : d.clone();
+        this.fsal = isFirstSameAsLast(this.c, this.a, this.b);
+        if (d != null && !fsal) {
+            throw new IllegalArgumentException("Плотная выдача требует свойства FSAL");
+        }
+    }
+
+    // Последняя стадия вычисляется в точке нового решения и может служить первой стадией следующего шага
+    private static boolean isFirstSameAsLast(double[] c, double[][] a, double[] b) {
+        int last = c.length - 1;
+        if (last == 0 || c[last] != 1 || b[last] != 0) {
+            return false;
+        }
+        for (int j = 0; j < last; j++) {
+            double aj = j < a[last].length ? a[last][j] : 0;
+            if (aj != b[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getOrder() {
+        return order;
+    }
+
+    public int getStages() {
+        return c.length;
+    }
+
+    // Есть ли вложенная оценка ошибки для адаптивного шага
+    public boolean isEmbedded() {
+        return e != null;
+    }
+
+    public boolean hasDenseOutput() {
+        return d != null;
+    }
+
+    public boolean isFsal() {
+        return fsal;
+    }
+}
@@ -0,0 +1,62 @@
+package frisskyy.solver;
+
+// Ошибки одного метода на последовательности шагов h, h/2, h/4, ... и наблюдаемый порядок
+public final class ConvergenceResult {
+
+    // Ошибки меньше этого уровня определяются округлением, а не порядком метода
+    private static final double ROUNDOFF_LEVEL = 1e-11;
+
+    private final Method method;
+    private final double[] steps;
+    private final double[] maxErrors;
+    private final double[] rmsErrors;
+
+    ConvergenceResult(Method method, double[] steps, double[] maxErrors, double[] rmsErrors) {
+        this.method = method;
+        this.steps = steps;
+        this.maxErrors = maxErrors;
+        this.rmsErrors = rmsErrors;
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public int getLevels() {
+        return steps.length;
+    }
+
+    public double getStep(int level) {
+        return steps[level];
+    }
+
+    // Максимальная по всем точкам ошибка y, y', y''
+    public double getMaxError(int level) {
+        return maxErrors[level];
+    }
+
+    // Среднеквадратичная по всем точкам ошибка y, y', y''
+    public double getRmsError(int level) {
+        return rmsErrors[level];
+    }
+
+    // Наблюдаемый порядок между уровнями level - 1 и level по максимальной ошибке;
+    // NaN для первого уровня и при нулевых ошибках
+    public double getOrder(int level) {
+        if (level == 0 || !(maxErrors[level] > 0) || !(maxErrors[level - 1] > 0)) {
+            return Double.NaN;
+        }
+        return Math.log(maxErrors[level - 1] / maxErrors[level]) / Math.log(steps[level - 1] / steps[level]);
+    }
+
+    // Порядок по самой мелкой паре шагов, у которой ошибка еще не упала до уровня округления:
+    // там асимптотика видна лучше всего
+    public double getObservedOrder() {
+        for (int level = steps.length - 1; level > 0; level--) {
+            if (maxErrors[level] > ROUNDOFF_LEVEL) {
+                return getOrder(level);
+            }
+        }
+        return Double.NaN;
+    }
+}
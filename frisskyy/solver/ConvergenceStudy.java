@@ -0,0 +1,189 @@
+package frisskyy.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Проверка порядка сходимости: одна и та же задача решается выбранными методами с шагами
+// h, h/2, h/4, ... и сравнивается с точным решением. Все расчеты независимы и выполняются
+// параллельно в ForkJoinPool, каждый со своим RungeKuttaSolver; в SolverMetrics исследование
+// записывается одним решением со сводными затратами. Допускаются только методы
+// с постоянным шагом, уравнение должно иметь точное решение и быть потокобезопасным.
+public class ConvergenceStudy {
+
+    // Ход расчета; вызывается из потоков пула после каждого завершенного расчета
+    public interface Listener {
+        void runCompleted(int completed, int total);
+    }
+
+    private final ForkJoinPool pool;
+    private volatile Listener listener;
+    private volatile boolean cancelRequested;
+
+    public ConvergenceStudy() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ConvergenceStudy(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    // Прерывает текущее исследование; run завершится CancellationException
+    public void cancel() {
+        cancelRequested = true;
+    }
+
+    public List<ConvergenceResult> run(List<Method> methods, ThirdOrderODE equation,
+                                       double y0, double dy0, double d2y0,
+                                       double t0, double tEnd, double h, int levels) {
+        if (!equation.isExactSolutionAvailable()) {
+            throw new IllegalArgumentException("Для проверки порядка нужно точное решение");
+        }
+        if (levels < 2 || levels > 20) {
+            throw new IllegalArgumentException("Число уровней шага должно быть от 2 до 20");
+        }
+        if (h <= 0 || tEnd <= t0) {
+            throw new IllegalArgumentException("Требуется h > 0 и t_end > t0");
+        }
+        for (Method method : methods) {
+            if (method.isAdaptive()) {
+                throw new IllegalArgumentException("Порядок проверяется только для методов с постоянным шагом: "
+                        + method.getTitle());
+            }
+        }
+        cancelRequested = false;
+
+        double[] steps = new double[levels];
+        for (int level = 0; level < levels; level++) {
+            steps[level] = h / (1 << level);
+        }
+        double[][] maxErrors = new double[methods.size()][levels];
+        double[][] rmsErrors = new double[methods.size()][levels];
+        int total = methods.size() * levels;
+        AtomicInteger completed = new AtomicInteger();
+        SolveStatistics statistics = new SolveStatistics();
+        long start = System.nanoTime();
+
+        List<RunTask> tasks = new ArrayList<>(total);
+        for (int m = 0; m < methods.size(); m++) {
+            // Самые мелкие шаги - самые долгие расчеты, они запускаются первыми
+            for (int level = levels - 1; level >= 0; level--) {
+                tasks.add(new RunTask(methods.get(m), equation, y0, dy0, d2y0, t0, tEnd, steps[level],
+                        maxErrors[m], rmsErrors[m], level, completed, total, statistics));
+            }
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(tasks);
+            }
+        });
+        record(methods, statistics, System.nanoTime() - start);
+        if (cancelRequested) {
+            throw new CancellationException();
+        }
+
+        List<ConvergenceResult> results = new ArrayList<>(methods.size());
+        for (int m = 0; m < methods.size(); m++) {
+            results.add(new ConvergenceResult(methods.get(m), steps.clone(), maxErrors[m], rmsErrors[m]));
+        }
+        return results;
+    }
+
+    private static void record(List<Method> methods, SolveStatistics statistics, long nanos) {
+        StringBuilder names = new StringBuilder();
+        for (Method method : methods) {
+            if (names.length() > 0) {
+                names.append('+');
+            }
+            names.append(method.name());
+        }
+        synchronized (statistics) {
+            statistics.setIntegrateNanos(nanos);
+            SolverMetrics metrics = SolverMetrics.getInstance();
+            // методы с постоянным шагом: отклоненных шагов нет
+            metrics.record(1, statistics.getRhsEvaluations(), statistics.getSteps(), 0, nanos);
+            metrics.setLast(names.toString(), statistics);
+        }
+    }
+
+    private class RunTask extends RecursiveAction implements SolveMonitor {
+        private final Method method;
+        private final ThirdOrderODE equation;
+        private final double y0, dy0, d2y0, t0, tEnd, h;
+        private final double[] maxErrors;
+        private final double[] rmsErrors;
+        private final int level;
+        private final AtomicInteger completed;
+        private final int total;
+        // Сводные затраты исследования, общие для всех расчетов
+        private final SolveStatistics statistics;
+
+        RunTask(Method method, ThirdOrderODE equation, double y0, double dy0, double d2y0,
+                double t0, double tEnd, double h, double[] maxErrors, double[] rmsErrors,
+                int level, AtomicInteger completed, int total, SolveStatistics statistics) {
+            this.method = method;
+            this.equation = equation;
+            this.y0 = y0;
+            this.dy0 = dy0;
+            this.d2y0 = d2y0;
+            this.t0 = t0;
+            this.tEnd = tEnd;
+            this.h = h;
+            this.maxErrors = maxErrors;
+            this.rmsErrors = rmsErrors;
+            this.level = level;
+            this.completed = completed;
+            this.total = total;
+            this.statistics = statistics;
+        }
+
+        @Override
+        protected void compute() {
+            if (cancelRequested) {
+                return;
+            }
+            RungeKuttaSolver solver = new RungeKuttaSolver(false);
+            solver.setMonitor(this);
+            Solution solution = solver.solve(method, equation, y0, dy0, d2y0, t0, tEnd, h, null);
+            synchronized (statistics) {
+                statistics.add(solution.getStatistics());
+            }
+
+            double max = 0;
+            double sum = 0;
+            for (int i = 0; i < solution.size(); i++) {
+                double[] exact = equation.exactSolution(solution.getT(i));
+                for (int c = 0; c < 3; c++) {
+                    double error = Math.abs(solution.get(c, i) - exact[c]);
+                    max = Math.max(max, error);
+                    sum += error * error;
+                }
+            }
+            maxErrors[level] = max;
+            rmsErrors[level] = Math.sqrt(sum / (3 * solution.size()));
+
+            Listener l = listener;
+            int done = completed.incrementAndGet();
+            if (l != null) {
+                l.runCompleted(done, total);
+            }
+        }
+
+        @Override
+        public void stepCompleted(double t, Solution out) {
+        }
+
+        @Override
+        public boolean isCancelRequested() {
+            return cancelRequested;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package frisskyy.solver;
+
+// Уравнение y''' = f(t, y, y', y''), которое само вычисляет частные производные f.
+// Используется вместо разностей в Якобиане ThirdOrderSystem (метод Розенброка)
+// и в уравнениях в вариациях SensitivitySystem.
+public interface DifferentiableThirdOrderODE extends ThirdOrderODE {
+
+    // gradient = (df/dy, df/dy', df/dy'')
+    void gradient(double t, double y, double dy, double d2y, double[] gradient);
+}
@@ -0,0 +1,275 @@
+package frisskyy.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Параллельное решение ансамбля независимых траекторий одного уравнения.
+// Траектории делятся на диапазоны между потоками ForkJoinPool; каждый лист задачи
+// использует свой RungeKuttaSolver и один буфер Solution для всех своих траекторий.
+// Для явных методов Рунге-Кутты траектории с одинаковым шагом объединяются в блоки
+// по BLOCK_SIZE и решаются в ногу BatchRungeKuttaIntegrator: с постоянным шагом результат
+// совпадает с поточечным решением, у адаптивных методов шаг общий на блок (по худшей
+// траектории), поэтому шагов может быть больше, чем при отдельном решении каждой.
+// Уравнение вызывается из нескольких потоков одновременно и должно быть потокобезопасным.
+public class EnsembleSolver {
+
+    // Число листовых задач на поток пула, для выравнивания нагрузки
+    private static final int TASKS_PER_THREAD = 4;
+    // Траекторий в блоке: стадии блока помещаются в кэш L2, а одна трудная траектория
+    // в адаптивном режиме замедляет не больше BLOCK_SIZE соседних
+    private static final int BLOCK_SIZE = 256;
+
+    private final ForkJoinPool pool;
+    private final boolean batched;
+
+    public EnsembleSolver() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public EnsembleSolver(ForkJoinPool pool) {
+        this(pool, true);
+    }
+
+    // batched = false - каждая траектория решается отдельно даже для методов Рунге-Кутты
+    public EnsembleSolver(ForkJoinPool pool, boolean batched) {
+        this.pool = pool;
+        this.batched = batched;
+    }
+
+    public List<TrajectorySummary> solve(Method method, ThirdOrderODE equation,
+                                         List<TrajectorySpec> specs,
+                                         double t0, double tEnd, StepControl control) {
+        TrajectorySummary[] results = new TrajectorySummary[specs.size()];
+        long start = System.nanoTime();
+        Totals totals = new Totals();
+        if (results.length > 0 && batched && method.getTableau() != null) {
+            List<int[]> blocks = blocks(specs);
+            int threshold = Math.max(1, blocks.size() / (pool.getParallelism() * TASKS_PER_THREAD));
+            pool.invoke(new BlockTask(method, BatchedThirdOrderODE.of(equation), specs, t0, tEnd, control,
+                    results, totals, blocks, 0, blocks.size(), threshold));
+        } else if (results.length > 0) {
+            int threshold = Math.max(1, results.length / (pool.getParallelism() * TASKS_PER_THREAD));
+            pool.invoke(new SweepTask(method, equation, specs, t0, tEnd, control,
+                    results, totals, 0, results.length, threshold));
+        }
+        totals.record(method, System.nanoTime() - start);
+        return Arrays.asList(results);
+    }
+
+    // Затраты всех траекторий ансамбля: листовые задачи добавляют свои итоги по завершении,
+    // в SolverMetrics ансамбль записывается одним решением
+    private static final class Totals {
+        private final SolveStatistics statistics = new SolveStatistics();
+        private long rejected;
+
+        synchronized void add(SolveStatistics leaf, long leafRejected) {
+            statistics.add(leaf);
+            rejected += leafRejected;
+        }
+
+        synchronized void record(Method method, long nanos) {
+            statistics.setIntegrateNanos(nanos);
+            SolverMetrics metrics = SolverMetrics.getInstance();
+            metrics.record(1, statistics.getRhsEvaluations(), statistics.getSteps(), rejected, nanos);
+            metrics.setLast(method, statistics);
+        }
+    }
+
+    // Номера траекторий, сгруппированные по шагу h и разбитые на блоки не больше BLOCK_SIZE
+    private static List<int[]> blocks(List<TrajectorySpec> specs) {
+        Map<Double, List<Integer>> byStep = new LinkedHashMap<>();
+        for (int i = 0; i < specs.size(); i++) {
+            byStep.computeIfAbsent(specs.get(i).getH(), h -> new ArrayList<>()).add(i);
+        }
+        List<int[]> blocks = new ArrayList<>();
+        for (List<Integer> group : byStep.values()) {
+            for (int from = 0; from < group.size(); from += BLOCK_SIZE) {
+                int to = Math.min(group.size(), from + BLOCK_SIZE);
+                int[] block = new int[to - from];
+                for (int i = from; i < to; i++) {
+                    block[i - from] = group.get(i);
+                }
+                blocks.add(block);
+            }
+        }
+        return blocks;
+    }
+
+    private static class BlockTask extends RecursiveAction {
+        private final Method method;
+        private final BatchedThirdOrderODE equation;
+        private final List<TrajectorySpec> specs;
+        private final double t0;
+        private final double tEnd;
+        private final StepControl control;
+        private final TrajectorySummary[] results;
+        private final Totals totals;
+        private final List<int[]> blocks;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        BlockTask(Method method, BatchedThirdOrderODE equation, List<TrajectorySpec> specs,
+                  double t0, double tEnd, StepControl control, TrajectorySummary[] results,
+                  Totals totals, List<int[]> blocks, int from, int to, int threshold) {
+            this.method = method;
+            this.equation = equation;
+            this.specs = specs;
+            this.t0 = t0;
+            this.tEnd = tEnd;
+            this.control = control;
+            this.results = results;
+            this.totals = totals;
+            this.blocks = blocks;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > threshold) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new BlockTask(method, equation, specs, t0, tEnd, control, results, totals, blocks,
+                                from, mid, threshold),
+                        new BlockTask(method, equation, specs, t0, tEnd, control, results, totals, blocks,
+                                mid, to, threshold));
+                return;
+            }
+            BatchRungeKuttaIntegrator integrator = new BatchRungeKuttaIntegrator();
+            BlockStatistics statistics = new BlockStatistics(equation);
+            double[] y = new double[BLOCK_SIZE];
+            double[] dy = new double[BLOCK_SIZE];
+            double[] d2y = new double[BLOCK_SIZE];
+            SolveStatistics cost = new SolveStatistics();
+            long rejected = 0;
+            for (int b = from; b < to; b++) {
+                int[] block = blocks.get(b);
+                int count = block.length;
+                for (int i = 0; i < count; i++) {
+                    TrajectorySpec spec = specs.get(block[i]);
+                    y[i] = spec.getY0();
+                    dy[i] = spec.getDY0();
+                    d2y[i] = spec.getD2Y0();
+                }
+                double h = specs.get(block[0]).getH();
+                statistics.reset(count);
+                if (method.isAdaptive()) {
+                    integrator.integrate(equation, method.getTableau(), t0, tEnd, h, control,
+                            y, dy, d2y, count, statistics);
+                } else {
+                    integrator.integrate(equation, method.getTableau(), t0, tEnd, h,
+                            y, dy, d2y, count, statistics);
+                }
+                // в итогах - как если бы траектории блока решались по одной
+                cost.addBlock(integrator.getStatistics(), count);
+                rejected += (long) integrator.getRejectedSteps() * count;
+                for (int i = 0; i < count; i++) {
+                    results[block[i]] = new TrajectorySummary(specs.get(block[i]), statistics.points,
+                            statistics.lastT, y[i], dy[i], d2y[i],
+                            statistics.minY[i], statistics.maxY[i], statistics.maxError[i],
+                            integrator.getAcceptedSteps(), integrator.getRejectedSteps());
+                }
+            }
+            totals.add(cost, rejected);
+        }
+    }
+
+    // Итоги траекторий блока, накапливаемые по точкам вывода (как TrajectorySummary.of)
+    private static class BlockStatistics implements BatchRungeKuttaIntegrator.Observer {
+        private final ThirdOrderODE equation;
+        final double[] minY = new double[BLOCK_SIZE];
+        final double[] maxY = new double[BLOCK_SIZE];
+        final double[] maxError = new double[BLOCK_SIZE];
+        int points;
+        double lastT;
+
+        BlockStatistics(ThirdOrderODE equation) {
+            this.equation = equation;
+        }
+
+        void reset(int count) {
+            Arrays.fill(minY, 0, count, Double.POSITIVE_INFINITY);
+            Arrays.fill(maxY, 0, count, Double.NEGATIVE_INFINITY);
+            Arrays.fill(maxError, 0, count, equation.isExactSolutionAvailable() ? 0 : Double.NaN);
+            points = 0;
+        }
+
+        @Override
+        public void point(double t, double[] y, double[] dy, double[] d2y, int count) {
+            points++;
+            lastT = t;
+            for (int i = 0; i < count; i++) {
+                minY[i] = Math.min(minY[i], y[i]);
+                maxY[i] = Math.max(maxY[i], y[i]);
+            }
+            if (equation.isExactSolutionAvailable()) {
+                // Точное решение зависит только от t и общее для блока
+                double exact = equation.exactSolution(t)[0];
+                for (int i = 0; i < count; i++) {
+                    maxError[i] = Math.max(maxError[i], Math.abs(y[i] - exact));
+                }
+            }
+        }
+    }
+
+    private static class SweepTask extends RecursiveAction {
+        private final Method method;
+        private final ThirdOrderODE equation;
+        private final List<TrajectorySpec> specs;
+        private final double t0;
+        private final double tEnd;
+        private final StepControl control;
+        private final TrajectorySummary[] results;
+        private final Totals totals;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        SweepTask(Method method, ThirdOrderODE equation, List<TrajectorySpec> specs,
+                  double t0, double tEnd, StepControl control,
+                  TrajectorySummary[] results, Totals totals, int from, int to, int threshold) {
+            this.method = method;
+            this.equation = equation;
+            this.specs = specs;
+            this.t0 = t0;
+            this.tEnd = tEnd;
+            this.control = control;
+            this.results = results;
+            this.totals = totals;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > threshold) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new SweepTask(method, equation, specs, t0, tEnd, control, results, totals,
+                                from, mid, threshold),
+                        new SweepTask(method, equation, specs, t0, tEnd, control, results, totals,
+                                mid, to, threshold));
+                return;
+            }
+            RungeKuttaSolver solver = new RungeKuttaSolver(false);
+            Solution solution = new Solution();
+            SolveStatistics cost = new SolveStatistics();
+            long rejected = 0;
+            for (int i = from; i < to; i++) {
+                TrajectorySpec spec = specs.get(i);
+                solver.solve(method, equation, spec.getY0(), spec.getDY0(), spec.getD2Y0(),
+                        t0, tEnd, spec.getH(), control, solution);
+                results[i] = TrajectorySummary.of(spec, equation, solution);
+                cost.add(solution.getStatistics());
+                rejected += solution.getRejectedSteps();
+            }
+            totals.add(cost, rejected);
+        }
+    }
+}
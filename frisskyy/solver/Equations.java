@@ -0,0 +1,82 @@
+package frisskyy.solver;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// Встроенные уравнения программы. Порядок all() совпадает со списком в окне RKProgram,
+// в пакетном режиме уравнение задается номером в этом списке (с 1).
+// Уравнения умеют вычислять правую часть сразу для ансамбля траекторий (BatchedThirdOrderODE)
+// и точные частные производные (DifferentiableThirdOrderODE).
+public final class Equations {
+
+    // Встроенные уравнения линейны: y''' = g(t) - y - y' - y''
+    private interface LinearEquation extends BatchedThirdOrderODE, DifferentiableThirdOrderODE {
+        default void gradient(double t, double y, double dy, double d2y, double[] gradient) {
+            gradient[0] = -1.0;
+            gradient[1] = -1.0;
+            gradient[2] = -1.0;
+        }
+    }
+
+    // y''' + y'' + y' + y = 0, y(0) = 1, y'(0) = y''(0) = 0
+    public static final ThirdOrderODE HOMOGENEOUS = new LinearEquation() {
+        public double calculate(double t, double y, double dy, double d2y) {
+            return -d2y - dy - y;
+        }
+        public void calculate(double t, double[] y, double[] dy, double[] d2y, double[] out, int count) {
+            for (int i = 0; i < count; i++) {
+                out[i] = -d2y[i] - dy[i] - y[i];
+            }
+        }
+        public String getName() {
+            return "y''' + y'' + y' + y = 0";
+        }
+        public double[] exactSolution(double t) {
+            // Точное решение для первой задачи
+            double e_t = Math.exp(-t);
+            double cos_t = Math.cos(t);
+            double sin_t = Math.sin(t);
+            double y_exact = 0.5*e_t + 0.5*cos_t + 0.5*sin_t;
+            double dy_exact = -0.5*e_t - 0.5*sin_t + 0.5*cos_t;
+            double d2y_exact = 0.5*e_t - 0.5*cos_t - 0.5*sin_t;
+            return new double[]{y_exact, dy_exact, d2y_exact};
+        }
+        public boolean isExactSolutionAvailable() {
+            return true;
+        }
+    };
+
+    // y''' + y'' + y' + y = sin(t), точное решение не задано
+    public static final ThirdOrderODE FORCED = new LinearEquation() {
+        public double calculate(double t, double y, double dy, double d2y) {
+            return Math.sin(t) - y - dy - d2y;
+        }
+        public void calculate(double t, double[] y, double[] dy, double[] d2y, double[] out, int count) {
+            // sin(t) общий для всех траекторий
+            double force = Math.sin(t);
+            for (int i = 0; i < count; i++) {
+                out[i] = force - y[i] - dy[i] - d2y[i];
+            }
+        }
+        public String getName() {
+            return "y''' + y'' + y' + y = sin(t)";
+        }
+        public double[] exactSolution(double t) {
+            return new double[]{0, 0, 0}; // No exact solution available
+        }
+        public boolean isExactSolutionAvailable() {
+            return false;
+        }
+    };
+
+    private static final List<ThirdOrderODE> ALL =
+            Collections.unmodifiableList(Arrays.asList(HOMOGENEOUS, FORCED));
+
+    private Equations() {
+    }
+
+    public static List<ThirdOrderODE> all() {
+        return ALL;
+    }
+}
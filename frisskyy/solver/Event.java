@@ -0,0 +1,79 @@
+package frisskyy.solver;
+
+// Событие - переход функции g(t, x) через ноль в заданном направлении.
+// Терминальное событие завершает интегрирование в найденной точке.
+public final class Event {
+
+    public enum Direction {
+        ANY("любое"),
+        RISING("рост"),
+        FALLING("убывание");
+
+        private final String title;
+
+        Direction(String title) {
+            this.title = title;
+        }
+
+        @Override
+        public String toString() {
+            return title;
+        }
+    }
+
+    private final String name;
+    private final EventFunction function;
+    private final Direction direction;
+    private final boolean terminal;
+
+    public Event(String name, EventFunction function, Direction direction, boolean terminal) {
+        if (function == null || direction == null) {
+            throw new IllegalArgumentException("Не задана функция или направление события");
+        }
+        this.name = name;
+        this.function = function;
+        this.direction = direction;
+        this.terminal = terminal;
+    }
+
+    // Переход через ноль компоненты состояния (для уравнения 3-го порядка 0, 1, 2 - y, y', y'')
+    public static Event zeroOf(String name, int component, Direction direction, boolean terminal) {
+        if (component < 0) {
+            throw new IllegalArgumentException("Неверный номер компоненты: " + component);
+        }
+        return new Event(name, (t, x) -> x[component], direction, terminal);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public EventFunction getFunction() {
+        return function;
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    public boolean isTerminal() {
+        return terminal;
+    }
+
+    // Подходит ли переход от значения g0 к g1 под направление события
+    boolean matches(double g0, double g1) {
+        switch (direction) {
+            case RISING:
+                return g0 < 0;
+            case FALLING:
+                return g0 > 0;
+            default:
+                return true;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
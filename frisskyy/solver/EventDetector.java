@@ -0,0 +1,211 @@
+package frisskyy.solver;
+
+import java.util.List;
+
+// Поиск событий на принятых шагах. Функции событий вычисляются в концах шага; при смене
+// знака корень уточняется методом хорд (модификация Illinois) на интерполянте шага:
+// плотной выдаче интегратора, если она есть, иначе кубическом эрмитовом многочлене
+// по состояниям и производным в концах шага - это две дополнительные правые части
+// только на шагах, где знак сменился.
+// Находится один переход на шаг, поэтому шаг должен быть мельче расстояния между корнями.
+// Найденные события записываются в Solution в порядке времени. Экземпляр создается на одно
+// интегрирование и не потокобезопасен.
+final class EventDetector {
+
+    private static final int MAX_ITERATIONS = 100;
+
+    // Плотная выдача интегратора на текущем шаге: состояние в момент t внутри шага
+    interface DenseOutput {
+        void interpolate(double t, double[] result);
+    }
+
+    private final Event[] events;
+    private final OdeSystem system;
+    private final Solution out;
+    private final int n;
+
+    // Значения функций событий в начале текущего шага
+    private final double[] g0;
+    private final double[] g1;
+    private final double[] roots;
+
+    // Концы текущего шага для интерполяции
+    private double ta, tb;
+    private final double[] xa, xb, fa, fb;
+    private final double[] xs;
+    private final double[] stopState;
+    private DenseOutput dense;
+    private boolean derivativesReady;
+
+    EventDetector(List<Event> events, OdeSystem system, double t0, double[] x0, Solution out) {
+        this.events = events.toArray(new Event[0]);
+        this.system = system;
+        this.out = out;
+        this.n = system.getDimension();
+        int count = this.events.length;
+        g0 = new double[count];
+        g1 = new double[count];
+        roots = new double[count];
+        xa = new double[n];
+        xb = new double[n];
+        fa = new double[n];
+        fb = new double[n];
+        xs = new double[n];
+        stopState = new double[n];
+        for (int e = 0; e < count; e++) {
+            g0[e] = this.events[e].getFunction().value(t0, x0);
+        }
+    }
+
+    // Создает детектор, если события заданы, иначе возвращает null
+    static EventDetector create(List<Event> events, OdeSystem system, double t0, double[] x0, Solution out) {
+        return events == null || events.isEmpty() ? null : new EventDetector(events, system, t0, x0, out);
+    }
+
+    // Проверка принятого шага [t, tNew]: события внутри шага записываются в out.
+    // dense - плотная выдача шага или null (тогда используется эрмитова интерполяция).
+    // Возвращает момент терминального события (остановка - в stop) или NaN,
+    // если интегрирование продолжается
+    double check(double t, double[] x, double tNew, double[] xNew, DenseOutput dense) {
+        int count = events.length;
+        boolean crossed = false;
+        for (int e = 0; e < count; e++) {
+            g1[e] = events[e].getFunction().value(tNew, xNew);
+            // Ноль в начале шага уже отмечен на предыдущем шаге (или это начальная точка)
+            boolean change = g0[e] != 0 && (g1[e] == 0 || (g0[e] < 0) != (g1[e] < 0))
+                    && events[e].matches(g0[e], g1[e]);
+            roots[e] = Double.NaN;
+            if (change) {
+                if (!crossed) {
+                    prepare(t, x, tNew, xNew, dense);
+                    crossed = true;
+                }
+                roots[e] = locate(events[e], g0[e], g1[e]);
+            }
+        }
+        if (!crossed) {
+            System.arraycopy(g1, 0, g0, 0, count);
+            return Double.NaN;
+        }
+
+        // Первое терминальное событие ограничивает шаг
+        double tStop = Double.NaN;
+        for (int e = 0; e < count; e++) {
+            if (events[e].isTerminal() && !Double.isNaN(roots[e]) && !(roots[e] >= tStop)) {
+                tStop = roots[e];
+            }
+        }
+        // События записываются по возрастанию времени, после остановки - не записываются
+        while (true) {
+            int next = -1;
+            for (int e = 0; e < count; e++) {
+                if (!Double.isNaN(roots[e]) && !(roots[e] > tStop) && (next < 0 || roots[e] < roots[next]
+                        // при совпадении времени терминальное событие записывается последним
+                        || roots[e] == roots[next] && events[next].isTerminal())) {
+                    next = e;
+                }
+            }
+            if (next < 0) {
+                break;
+            }
+            interpolate(roots[next], xs);
+            out.addEvent(new EventOccurrence(events[next], roots[next], xs));
+            roots[next] = Double.NaN;
+        }
+        if (!Double.isNaN(tStop)) {
+            interpolate(tStop, stopState);
+            return tStop;
+        }
+        System.arraycopy(g1, 0, g0, 0, count);
+        return Double.NaN;
+    }
+
+    // Терминальное событие, найденное последним вызовом check: решение заканчивается
+    // в найденной точке. Состояние в момент tStop записывается в x и добавляется в out,
+    // после чего интегратор прекращает цикл шагов
+    void stop(double tStop, double[] x, SolveMonitor monitor) {
+        System.arraycopy(stopState, 0, x, 0, n);
+        out.add(tStop, x);
+        if (monitor != null) {
+            monitor.stepCompleted(tStop, out);
+        }
+    }
+
+    private void prepare(double t, double[] x, double tNew, double[] xNew, DenseOutput dense) {
+        ta = t;
+        tb = tNew;
+        this.dense = dense;
+        System.arraycopy(x, 0, xa, 0, n);
+        System.arraycopy(xNew, 0, xb, 0, n);
+        derivativesReady = false;
+    }
+
+    // Момент перехода через ноль на [ta, tb]; возвращается правая граница интервала,
+    // т.е. точка, в которой знак уже сменился
+    private double locate(Event event, double ga, double gb) {
+        if (gb == 0) {
+            return tb;
+        }
+        double left = ta;
+        double right = tb;
+        double gLeft = ga;
+        double gRight = gb;
+        double tolerance = 4 * Math.ulp(Math.max(Math.abs(ta), Math.abs(tb)));
+        int side = 0;
+        for (int iteration = 0; iteration < MAX_ITERATIONS && right - left > tolerance; iteration++) {
+            double tc = (left * gRight - right * gLeft) / (gRight - gLeft);
+            if (!(tc > left && tc < right)) {
+                tc = 0.5 * (left + right);
+            }
+            interpolate(tc, xs);
+            double gc = event.getFunction().value(tc, xs);
+            if (gc == 0) {
+                return tc;
+            }
+            if ((gc < 0) == (gLeft < 0)) {
+                left = tc;
+                gLeft = gc;
+                // Illinois: при повторном сдвиге той же границы вес другой уменьшается вдвое
+                if (side == -1) {
+                    gRight *= 0.5;
+                }
+                side = -1;
+            } else {
+                right = tc;
+                gRight = gc;
+                if (side == 1) {
+                    gLeft *= 0.5;
+                }
+                side = 1;
+            }
+        }
+        return right;
+    }
+
+    // Состояние на шаге [ta, tb]: плотная выдача интегратора или кубическая эрмитова интерполяция
+    private void interpolate(double t, double[] result) {
+        if (t == tb) {
+            System.arraycopy(xb, 0, result, 0, n);
+            return;
+        }
+        if (dense != null) {
+            dense.interpolate(t, result);
+            return;
+        }
+        if (!derivativesReady) {
+            system.computeDerivatives(ta, xa, fa);
+            system.computeDerivatives(tb, xb, fb);
+            derivativesReady = true;
+        }
+        double h = tb - ta;
+        double theta = (t - ta) / h;
+        double theta1 = 1 - theta;
+        double h00 = theta1 * theta1 * (1 + 2 * theta);
+        double h10 = theta * theta1 * theta1;
+        double h01 = theta * theta * (3 - 2 * theta);
+        double h11 = -theta * theta * theta1;
+        for (int i = 0; i < n; i++) {
+            result[i] = h00 * xa[i] + h10 * h * fa[i] + h01 * xb[i] + h11 * h * fb[i];
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package frisskyy.solver;
+
+// Функция события g(t, x): событие наступает, когда g меняет знак.
+// Вызывается после каждого принятого шага и при уточнении корня, поэтому не должна создавать объекты
+@FunctionalInterface
+public interface EventFunction {
+    double value(double t, double[] x);
+}
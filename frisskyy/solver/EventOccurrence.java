@@ -0,0 +1,33 @@
+package frisskyy.solver;
+
+// Найденное событие: момент перехода через ноль и состояние в этот момент
+public final class EventOccurrence {
+
+    private final Event event;
+    private final double t;
+    private final double[] state;
+
+    EventOccurrence(Event event, double t, double[] state) {
+        this.event = event;
+        this.t = t;
+        this.state = state.clone();
+    }
+
+    public Event getEvent() {
+        return event;
+    }
+
+    public double getT() {
+        return t;
+    }
+
+    // Компонента состояния в момент события
+    public double get(int component) {
+        return state[component];
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s при t = %.6f", event.getName(), t);
+    }
+}
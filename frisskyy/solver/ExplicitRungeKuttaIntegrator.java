@@ -0,0 +1,299 @@
+package frisskyy.solver;
+
+import java.util.List;
+
+// Явный метод Рунге-Кутты, заданный таблицей Бутчера, для систем произвольной размерности.
+// Буферы стадий выделяются один раз и переиспользуются, пока не изменится размерность
+// системы или число стадий. Экземпляр не потокобезопасен.
+public class ExplicitRungeKuttaIntegrator {
+
+    // Параметры управления адаптивным шагом
+    private static final double SAFETY = 0.9;
+    private static final double MIN_FACTOR = 0.2;
+    private static final double MAX_FACTOR = 5.0;
+
+    // Допуск на накопление ошибки округления в t при постоянном шаге
+    private static final double FIXED_STEP_EPS = 1e-10;
+
+    private double[] x = new double[0];
+    private double[] xNew = new double[0];
+    private double[] xs = new double[0];
+    private double[][] k = new double[0][0];
+
+    private SolveMonitor monitor;
+    private List<Event> events;
+    // Участок автоматического выбора метода (StiffnessSwitchingIntegrator) или null
+    private StiffnessDetector stiffness;
+
+    // Принятый шаг, для которого вызвана проверка событий, и его плотная выдача
+    private ButcherTableau stepTableau;
+    private double stepT, stepH;
+    private final EventDetector.DenseOutput denseOutput =
+            (t, result) -> interpolate(stepTableau, x.length, (t - stepT) / stepH, stepH, result);
+
+    // Наблюдатель за ходом решения; null - без наблюдения
+    public void setMonitor(SolveMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    // События, отслеживаемые при интегрировании; null или пустой список - без событий
+    public void setEvents(List<Event> events) {
+        this.events = events;
+    }
+
+    void setStiffnessDetector(StiffnessDetector stiffness) {
+        this.stiffness = stiffness;
+    }
+
+    private void ensureBuffers(int stages, int dimension) {
+        if (x.length != dimension || k.length < stages) {
+            x = new double[dimension];
+            xNew = new double[dimension];
+            xs = new double[dimension];
+            k = new double[stages][dimension];
+        }
+    }
+
+    // Интегрирование с постоянным шагом h; в out записывается каждая точка t0 + n*h <= tEnd
+    public void integrate(OdeSystem system, ButcherTableau tableau,
+                          double t0, double[] x0, double tEnd, double h, Solution out) {
+        int n = system.getDimension();
+        int stages = tableau.getStages();
+        ensureBuffers(stages, n);
+        System.arraycopy(x0, 0, x, 0, n);
+
+        double t = t0;
+        out.addInitial(t, x);
+        EventDetector detector = EventDetector.create(events, system, t, x, out);
+        SolveStatistics statistics = out.getStatistics();
+        boolean haveFirstStage = false;
+        while (t + h <= tEnd + FIXED_STEP_EPS) {
+            computeStages(system, tableau, t, h, haveFirstStage);
+            statistics.recordStep(h);
+            double tStop = detector != null ? detector.check(t, x, t + h, xNew, null) : Double.NaN;
+            if (!Double.isNaN(tStop)) {
+                t = tStop;
+                detector.stop(t, x, monitor);
+                break;
+            }
+            for (int i = 0; i < n; i++) {
+                x[i] = xNew[i];
+            }
+            if (tableau.fsal) {
+                System.arraycopy(k[stages - 1], 0, k[0], 0, n);
+                haveFirstStage = true;
+            }
+            t += h;
+            out.add(t, x);
+            if (monitor != null) {
+                monitor.stepCompleted(t, out);
+                if (monitor.isCancelRequested()) {
+                    break;
+                }
+            }
+        }
+    }
+
+    // Интегрирование с адаптивным шагом по вложенной оценке ошибки.
+    // Для методов с плотной выдачей результат выдается на сетке t0 + n*hOut,
+    // иначе записывается каждый принятый шаг, а hOut служит начальным шагом.
+    public void integrate(OdeSystem system, ButcherTableau tableau,
+                          double t0, double[] x0, double tEnd, double hOut,
+                          StepControl control, Solution out) {
+        if (!tableau.isEmbedded()) {
+            throw new IllegalArgumentException("Адаптивный шаг требует вложенного метода");
+        }
+        int n = system.getDimension();
+        int stages = tableau.getStages();
+        ensureBuffers(stages, n);
+        System.arraycopy(x0, 0, x, 0, n);
+
+        double atol = control.getAbsoluteTolerance();
+        double rtol = control.getRelativeTolerance();
+        double hMin = control.getMinStep();
+        double hMax = control.getMaxStep();
+        // Оценка ошибки имеет порядок младшего метода пары (order - 1), отсюда показатель -1/order
+        double errorExponent = -1.0 / tableau.getOrder();
+        boolean dense = tableau.hasDenseOutput();
+
+        double t = t0;
+        double h = Math.min(Math.max(stiffness != null ? stiffness.initialStep(hOut) : hOut, hMin), hMax);
+        double eps = 1e-12 * Math.max(1.0, Math.abs(tEnd));
+        int accepted = 0;
+        int rejected = 0;
+
+        // На участке автоматического выбора метода сетка вывода общая для всех участков,
+        // а начальная точка участка - точка переключения, которая не записывается
+        double origin = t0;
+        int outIndex = 1;
+        if (stiffness != null) {
+            origin = stiffness.getGridOrigin();
+            outIndex = stiffness.getOutIndex();
+        }
+        if (stiffness == null || !stiffness.isContinuation()) {
+            out.addInitial(t, x);
+        }
+        double tOut = origin + outIndex * hOut;
+        EventDetector detector = EventDetector.create(events, system, t, x, out);
+
+        boolean haveFirstStage = false;
+        while (t < tEnd - eps) {
+            if (t + h > tEnd) {
+                h = tEnd - t;
+            }
+
+            computeStages(system, tableau, t, h, haveFirstStage);
+            // Первая стадия зависит только от (t, x) и остается верной после отклонения шага
+            haveFirstStage = true;
+
+            double err = 0;
+            for (int i = 0; i < n; i++) {
+                double sum = 0;
+                for (int j = 0; j < stages; j++) {
+                    sum += tableau.e[j] * k[j][i];
+                }
+                double sc = atol + rtol * Math.max(Math.abs(x[i]), Math.abs(xNew[i]));
+                double r = h * sum / sc;
+                err += r * r;
+            }
+            err = Math.sqrt(err / n);
+            if (!Double.isFinite(err)) {
+                // Правая часть не определена (NaN/Inf) на этом шаге: шаг уменьшается до hMin
+                if (h <= hMin) {
+                    throw new ArithmeticException("Правая часть не определена при t = " + t);
+                }
+                rejected++;
+                h = Math.max(h * MIN_FACTOR, hMin);
+                if (monitor != null && monitor.isCancelRequested()) {
+                    break;
+                }
+                continue;
+            }
+
+            double factor = err == 0 ? MAX_FACTOR
+                    : Math.min(MAX_FACTOR, Math.max(MIN_FACTOR, SAFETY * Math.pow(err, errorExponent)));
+
+            if (err <= 1.0 || h <= hMin) {
+                // Шаг принят (на минимальном шаге - принудительно)
+                out.getStatistics().recordStep(h);
+                double tNew = t + h;
+                double tStop = Double.NaN;
+                if (detector != null) {
+                    stepTableau = tableau;
+                    stepT = t;
+                    stepH = h;
+                    tStop = detector.check(t, x, tNew, xNew, dense ? denseOutput : null);
+                }
+                boolean stop = !Double.isNaN(tStop);
+                if (dense) {
+                    double tLimit = stop ? tStop - eps : tNew + eps;
+                    while (tOut <= tLimit && tOut <= tEnd + eps) {
+                        interpolate(tableau, n, (tOut - t) / h, h, xs);
+                        out.add(tOut, xs);
+                        outIndex++;
+                        tOut = origin + outIndex * hOut;
+                    }
+                }
+                if (stop) {
+                    t = tStop;
+                    detector.stop(t, x, monitor);
+                    accepted++;
+                    break;
+                }
+
+                // оценка жесткости по стадиям - до того, как FSAL перезапишет первую стадию
+                double rho = stiffness != null ? stiffness.estimate(k, h) : 0.0;
+                double hTaken = h;
+                t = tNew;
+                System.arraycopy(xNew, 0, x, 0, n);
+                if (tableau.fsal) {
+                    System.arraycopy(k[stages - 1], 0, k[0], 0, n);
+                } else {
+                    haveFirstStage = false;
+                }
+                if (!dense) {
+                    out.add(t, x);
+                }
+                accepted++;
+                h = Math.min(h * factor, hMax);
+                if (monitor != null) {
+                    monitor.stepCompleted(t, out);
+                    if (monitor.isCancelRequested()) {
+                        break;
+                    }
+                }
+                if (stiffness != null && stiffness.explicitStep(hTaken, rho)) {
+                    // Шаг ограничен устойчивостью: дальше решает неявный метод
+                    stiffness.switchAt(t, x, h, outIndex);
+                    break;
+                }
+            } else {
+                // Шаг отклонен, уменьшаем h
+                rejected++;
+                h = Math.max(h * Math.min(factor, 1.0), hMin);
+                if (monitor != null && monitor.isCancelRequested()) {
+                    break;
+                }
+            }
+        }
+
+        // Последняя достигнутая точка, если она не попала на сетку вывода
+        // (при переключении метода участок продолжается, и точка не нужна)
+        if ((stiffness == null || !stiffness.isSwitched()) && out.getT(out.size() - 1) < t - eps) {
+            out.add(t, x);
+        }
+        out.setStepCounts(accepted, rejected);
+    }
+
+    // Вычисляет стадии k[0..s-1] и решение xNew = x + h * sum(b_j * k_j).
+    // Если firstStageReady, k[0] уже содержит f(t, x) (FSAL или повтор после отклонения).
+    private void computeStages(OdeSystem system, ButcherTableau tableau,
+                               double t, double h, boolean firstStageReady) {
+        int n = x.length;
+        int stages = tableau.getStages();
+        if (!firstStageReady) {
+            system.computeDerivatives(t, x, k[0]);
+        }
+        for (int s = 1; s < stages; s++) {
+            double[] a = tableau.a[s];
+            for (int i = 0; i < n; i++) {
+                double sum = 0;
+                for (int j = 0; j < a.length; j++) {
+                    sum += a[j] * k[j][i];
+                }
+                xs[i] = x[i] + h * sum;
+            }
+            system.computeDerivatives(t + tableau.c[s] * h, xs, k[s]);
+        }
+        if (tableau.fsal) {
+            // Последняя стадия вычислена в новой точке
+            System.arraycopy(xs, 0, xNew, 0, n);
+        } else {
+            double[] b = tableau.b;
+            for (int i = 0; i < n; i++) {
+                double sum = 0;
+                for (int j = 0; j < stages; j++) {
+                    sum += b[j] * k[j][i];
+                }
+                xNew[i] = x[i] + h * sum;
+            }
+        }
+    }
+
+    // Плотная выдача 4-го порядка внутри принятого шага [t, t + h], theta = (tOut - t) / h
+    private void interpolate(ButcherTableau tableau, int n, double theta, double h, double[] result) {
+        int last = tableau.getStages() - 1;
+        double theta1 = 1 - theta;
+        for (int i = 0; i < n; i++) {
+            double dx = xNew[i] - x[i];
+            double bspl = h * k[0][i] - dx;
+            double r4 = dx - h * k[last][i] - bspl;
+            double r5 = 0;
+            for (int j = 0; j <= last; j++) {
+                r5 += tableau.d[j] * k[j][i];
+            }
+            r5 *= h;
+            result[i] = x[i] + theta * (dx + theta1 * (bspl + theta * (r4 + theta1 * r5)));
+        }
+    }
+}
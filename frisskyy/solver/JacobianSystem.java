@@ -0,0 +1,9 @@
+package frisskyy.solver;
+
+// Система ОДУ, которая сама вычисляет матрицу Якоби df/dx.
+// Для систем без этого интерфейса неявные методы строят Якобиан разностями.
+public interface JacobianSystem extends OdeSystem {
+
+    // Записывает df_i/dx_j в jacobian[i][j]; fx = f(t, x) уже вычислено
+    void computeJacobian(double t, double[] x, double[] fx, double[][] jacobian);
+}
@@ -0,0 +1,81 @@
+package frisskyy.solver;
+
+// LU-разложение квадратной матрицы с выбором ведущего элемента по столбцу.
+// Разложение хранится на месте исходной матрицы и переиспользуется для многих
+// правых частей; буферы выделяются один раз на размерность.
+final class LUDecomposition {
+
+    private double[][] lu = new double[0][0];
+    private int[] pivot = new int[0];
+
+    // Разлагает матрицу a (копируется). Возвращает false, если матрица вырождена.
+    boolean decompose(double[][] a, int n) {
+        if (lu.length != n) {
+            lu = new double[n][n];
+            pivot = new int[n];
+        }
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(a[i], 0, lu[i], 0, n);
+        }
+        for (int col = 0; col < n; col++) {
+            int p = col;
+            double max = Math.abs(lu[col][col]);
+            for (int row = col + 1; row < n; row++) {
+                double v = Math.abs(lu[row][col]);
+                if (v > max) {
+                    max = v;
+                    p = row;
+                }
+            }
+            if (max == 0.0 || Double.isNaN(max)) {
+                return false;
+            }
+            pivot[col] = p;
+            if (p != col) {
+                double[] tmp = lu[p];
+                lu[p] = lu[col];
+                lu[col] = tmp;
+            }
+            double diag = lu[col][col];
+            for (int row = col + 1; row < n; row++) {
+                double m = lu[row][col] / diag;
+                lu[row][col] = m;
+                if (m != 0.0) {
+                    for (int j = col + 1; j < n; j++) {
+                        lu[row][j] -= m * lu[col][j];
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    // Решает A x = b на месте: b заменяется решением
+    void solve(double[] b) {
+        int n = lu.length;
+        for (int i = 0; i < n; i++) {
+            int p = pivot[i];
+            if (p != i) {
+                double tmp = b[p];
+                b[p] = b[i];
+                b[i] = tmp;
+            }
+        }
+        for (int i = 1; i < n; i++) {
+            double sum = b[i];
+            double[] row = lu[i];
+            for (int j = 0; j < i; j++) {
+                sum -= row[j] * b[j];
+            }
+            b[i] = sum;
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            double sum = b[i];
+            double[] row = lu[i];
+            for (int j = i + 1; j < n; j++) {
+                sum -= row[j] * b[j];
+            }
+            b[i] = sum / row[i];
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package frisskyy.solver;
+
+// Методы решения; title - название для интерфейса.
+// Методы Розенброка и Адамса и автоматический выбор не задаются таблицей Бутчера
+// (getTableau() возвращает null).
+public enum Method {
+    EULER("Эйлер", ButcherTableau.EULER, false),
+    EULER_CAUCHY("Эйлер-Коши (РК2)", ButcherTableau.EULER_CAUCHY, false),
+    RK3_HEUN("Рунге-Кутта 3 (Гейне)", ButcherTableau.RK3_HEUN, false),
+    RK4("Рунге-Кутта 4", ButcherTableau.RK4, false),
+    FEHLBERG("Фельдберг 5(4)", ButcherTableau.FEHLBERG, false),
+    FEHLBERG_ADAPTIVE("Фельдберг 5(4) адаптивный", ButcherTableau.FEHLBERG, true),
+    DORMAND_PRINCE("Дорманд-Принс 5(4)", ButcherTableau.DORMAND_PRINCE, true),
+    ADAMS("Адамс-Башфорт-Моултон 4", Family.ADAMS, false),
+    ADAMS_ADAPTIVE("Адамс-Башфорт-Моултон 4 адаптивный", Family.ADAMS, true),
+    ROSENBROCK("Розенброк 2(3), жесткие задачи", Family.ROSENBROCK, true),
+    AUTO("Авто: Дорманд-Принс / Розенброк", Family.SWITCHING, true);
+
+    // Семейство определяет интегратор, которым RungeKuttaSolver решает задачу
+    private enum Family { RUNGE_KUTTA, ADAMS, ROSENBROCK, SWITCHING }
+
+    private final String title;
+    private final ButcherTableau tableau;
+    private final Family family;
+    private final boolean adaptive;
+
+    Method(String title, ButcherTableau tableau, boolean adaptive) {
+        this.title = title;
+        this.tableau = tableau;
+        this.family = Family.RUNGE_KUTTA;
+        this.adaptive = adaptive;
+    }
+
+    Method(String title, Family family, boolean adaptive) {
+        this.title = title;
+        this.tableau = null;
+        this.family = family;
+        this.adaptive = adaptive;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public ButcherTableau getTableau() {
+        return tableau;
+    }
+
+    // Использует ли метод допуски StepControl
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    // Неявный метод для жестких задач (RosenbrockIntegrator)
+    public boolean isImplicit() {
+        return family == Family.ROSENBROCK;
+    }
+
+    // Автоматический выбор явного или неявного метода по жесткости (StiffnessSwitchingIntegrator)
+    public boolean isSwitching() {
+        return family == Family.SWITCHING;
+    }
+
+    // Многошаговый метод Адамса (AdamsIntegrator)
+    public boolean isMultistep() {
+        return family == Family.ADAMS;
+    }
+
+    @Override
+    public String toString() {
+        return title;
+    }
+}
@@ -0,0 +1,9 @@
+package frisskyy.solver;
+
+// Система ОДУ первого порядка x' = f(t, x) размерности N
+public interface OdeSystem {
+    int getDimension();
+
+    // Записывает f(t, x) в dxdt. Вызывается на каждой стадии, поэтому не должен создавать объекты
+    void computeDerivatives(double t, double[] x, double[] dxdt);
+}
@@ -0,0 +1,338 @@
+package frisskyy.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Решение с распараллеливанием по времени (Parareal). Интервал делится на отрезки;
+// грубый метод (по умолчанию РК4 с крупным шагом) последовательно дает начальные значения
+// на границах, точный метод решает все отрезки параллельно в ForkJoinPool, после чего
+// границы уточняются поправкой U[n+1] = G(U_new[n]) + F(U_old[n]) - G(U_old[n]).
+// После k итераций первые k отрезков совпадают с последовательным решением, поэтому
+// они больше не пересчитываются и сразу дописываются в результат; итерации прекращаются,
+// когда границы перестают меняться больше допуска. Выигрыш по времени есть, если итераций
+// заметно меньше числа отрезков и грубый метод намного дешевле точного.
+// Статистика результата (Solution.getStatistics) учитывает все затраты: шаги всех проходов
+// точного метода и вычисления f грубым методом; время - общее время решения, а не сумма по потокам.
+// Уравнение вызывается из нескольких потоков одновременно и должно быть потокобезопасным.
+// Экземпляр не потокобезопасен.
+public class PararealSolver {
+
+    // Шаг грубого метода по умолчанию - во столько раз больше шага точного
+    private static final double DEFAULT_COARSE_FACTOR = 20.0;
+    private static final double DEFAULT_TOLERANCE = 1e-9;
+
+    private final ForkJoinPool pool;
+    private final int slices;
+
+    private Method coarseMethod = Method.RK4;
+    private double coarseStep = Double.NaN;
+    private double tolerance = DEFAULT_TOLERANCE;
+    private int maxIterations = Integer.MAX_VALUE;
+    private volatile SolveMonitor monitor;
+
+    private int iterations;
+    private boolean converged;
+    private double lastChange;
+
+    // Число отрезков по умолчанию - по одному на поток пула
+    public PararealSolver() {
+        this(ForkJoinPool.commonPool(), ForkJoinPool.commonPool().getParallelism());
+    }
+
+    public PararealSolver(ForkJoinPool pool, int slices) {
+        if (slices < 1) {
+            throw new IllegalArgumentException("Число отрезков должно быть положительным");
+        }
+        this.pool = pool;
+        this.slices = slices;
+    }
+
+    // Грубый метод с постоянным шагом step; step = NaN - в 20 раз крупнее шага точного метода.
+    // Шаг уменьшается так, чтобы на отрезке укладывалось целое число шагов
+    public void setCoarse(Method method, double step) {
+        if (method.isAdaptive()) {
+            throw new IllegalArgumentException("Грубый метод должен быть с постоянным шагом");
+        }
+        this.coarseMethod = method;
+        this.coarseStep = step;
+    }
+
+    // Допуск на изменение значений на границах отрезков, в единицах max(1, |x|)
+    public void setTolerance(double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    // Наибольшее число итераций (проходов точного метода); без ограничения сходимость
+    // гарантирована не более чем за число отрезков итераций
+    public void setMaxIterations(int maxIterations) {
+        if (maxIterations < 1) {
+            throw new IllegalArgumentException("Число итераций должно быть положительным");
+        }
+        this.maxIterations = maxIterations;
+    }
+
+    // Наблюдатель вызывается после каждой итерации, когда в результат дописаны готовые отрезки;
+    // при отмене в результате остаются только точные отрезки
+    public void setMonitor(SolveMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    // Число итераций последнего решения
+    public int getIterations() {
+        return iterations;
+    }
+
+    // Сошлись ли итерации (false при отмене или исчерпании setMaxIterations)
+    public boolean isConverged() {
+        return converged;
+    }
+
+    // Изменение значений на границах на последней итерации
+    public double getLastChange() {
+        return lastChange;
+    }
+
+    // fine и control - точный метод и его допуски, h - его шаг (для адаптивных - шаг вывода)
+    public Solution solve(Method fine, ThirdOrderODE equation,
+                          double y0, double dy0, double d2y0,
+                          double t0, double tEnd, double h, StepControl control) {
+        if (!(h > 0) || !(tEnd > t0)) {
+            throw new IllegalArgumentException("Требуется h > 0 и t_end > t0");
+        }
+        iterations = 0;
+        converged = false;
+        lastChange = Double.NaN;
+
+        double[] bounds = boundaries(fine, t0, tEnd, h);
+        int n = bounds.length - 1;
+        long start = System.nanoTime();
+        SolveMonitor m = monitor;
+        Solution out = new Solution();
+        SolveStatistics statistics = out.getStatistics();
+        out.add(t0, y0, dy0, d2y0);
+        if (n == 0) {
+            converged = true;
+            record(fine, out, 0, start);
+            return out;
+        }
+
+        double hCoarse = Double.isNaN(coarseStep) ? DEFAULT_COARSE_FACTOR * h : coarseStep;
+        Coarse coarse = new Coarse(equation, hCoarse, statistics);
+        // u[i] - значение в начале отрезка i, g[i] и f[i] - конец отрезка по грубому и точному методу
+        double[][] u = new double[n + 1][3];
+        double[][] g = new double[n][3];
+        double[][] f = new double[n][3];
+        Solution[] fineSolutions = new Solution[n];
+        u[0][0] = y0;
+        u[0][1] = dy0;
+        u[0][2] = d2y0;
+        for (int i = 0; i < n; i++) {
+            coarse.propagate(u[i], bounds[i], bounds[i + 1], g[i]);
+            System.arraycopy(g[i], 0, u[i + 1], 0, 3);
+        }
+
+        double[] gNew = new double[3];
+        int accepted = 0;
+        int rejected = 0;
+        // отклоненные шаги всех проходов точного метода, как и шаги в statistics
+        long rejectedTotal = 0;
+        for (int k = 0; k < n && k < maxIterations; k++) {
+            // Отрезки до k уже точные и не пересчитываются
+            List<SliceTask> tasks = new ArrayList<>(n - k);
+            for (int i = k; i < n; i++) {
+                tasks.add(new SliceTask(fine, equation, u[i], bounds[i], bounds[i + 1], h, control,
+                        fineSolutions, f, i));
+            }
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(tasks);
+                }
+            });
+            if (m != null && m.isCancelRequested()) {
+                break;
+            }
+            iterations = k + 1;
+            for (int i = k; i < n; i++) {
+                statistics.add(fineSolutions[i].getStatistics());
+                rejectedTotal += fineSolutions[i].getRejectedSteps();
+            }
+
+            // Отрезок k начинался с точного значения и готов
+            out.addAll(fineSolutions[k], 1);
+            accepted += fineSolutions[k].getAcceptedSteps();
+            rejected += fineSolutions[k].getRejectedSteps();
+
+            // Поправка границ: значение в начале отрезка k + 1 теперь точное
+            double change = difference(f[k], u[k + 1]);
+            System.arraycopy(f[k], 0, u[k + 1], 0, 3);
+            for (int i = k + 1; i < n; i++) {
+                coarse.propagate(u[i], bounds[i], bounds[i + 1], gNew);
+                double[] next = u[i + 1];
+                double y = gNew[0] + f[i][0] - g[i][0];
+                double dy = gNew[1] + f[i][1] - g[i][1];
+                double d2y = gNew[2] + f[i][2] - g[i][2];
+                change = Math.max(change, difference(next, y, dy, d2y));
+                next[0] = y;
+                next[1] = dy;
+                next[2] = d2y;
+                System.arraycopy(gNew, 0, g[i], 0, 3);
+            }
+            lastChange = change;
+
+            if (k == n - 1 || change <= tolerance) {
+                // Остальные отрезки посчитаны от значений, отличающихся от точных не больше допуска
+                for (int i = k + 1; i < n; i++) {
+                    out.addAll(fineSolutions[i], 1);
+                    accepted += fineSolutions[i].getAcceptedSteps();
+                    rejected += fineSolutions[i].getRejectedSteps();
+                }
+                converged = true;
+            }
+            out.setStepCounts(accepted, rejected);
+            if (m != null) {
+                m.stepCompleted(out.getT(out.size() - 1), out);
+            }
+            if (converged) {
+                break;
+            }
+        }
+        if (!converged && iterations == Math.min(n, maxIterations) && (m == null || !m.isCancelRequested())) {
+            // Итерации исчерпаны: остальные отрезки - последнее приближение
+            for (int i = iterations; i < n; i++) {
+                out.addAll(fineSolutions[i], 1);
+                accepted += fineSolutions[i].getAcceptedSteps();
+                rejected += fineSolutions[i].getRejectedSteps();
+            }
+            out.setStepCounts(accepted, rejected);
+        }
+        record(fine, out, rejectedTotal, start);
+        return out;
+    }
+
+    // Все отрезки и грубые проходы записываются в SolverMetrics как одно решение
+    private static void record(Method fine, Solution out, long rejected, long start) {
+        SolveStatistics statistics = out.getStatistics();
+        long nanos = System.nanoTime() - start;
+        statistics.setIntegrateNanos(nanos);
+        SolverMetrics metrics = SolverMetrics.getInstance();
+        metrics.record(1, statistics.getRhsEvaluations(), statistics.getSteps(), rejected, nanos);
+        metrics.setLast(fine, statistics);
+    }
+
+    // Границы отрезков. Для методов с постоянным шагом (и для сетки вывода адаптивных)
+    // границы попадают на сетку t0 + i*h, последняя граница - последний узел сетки
+    // (или t_end для адаптивных методов)
+    private double[] boundaries(Method fine, double t0, double tEnd, double h) {
+        long steps = (long) Math.floor((tEnd - t0) / h + 1e-9);
+        int n = (int) Math.min(slices, Math.max(steps, 1));
+        double[] bounds = new double[n + 1];
+        for (int i = 0; i < n; i++) {
+            bounds[i] = t0 + (steps * i / n) * h;
+        }
+        if (fine.isAdaptive()) {
+            bounds[n] = tEnd;
+        } else if (steps == 0) {
+            return new double[]{t0};
+        } else {
+            bounds[n] = t0 + steps * h;
+        }
+        return bounds;
+    }
+
+    // Конец интервала для решателя. Метод с постоянным шагом делает шаги, пока t + h <= t_end
+    // с допуском 1e-10, и из-за накопленного округления t может потерять последний шаг;
+    // половина шага в запасе гарантирует, что отрезок заканчивается ровно на границе
+    private static double end(Method method, double b, double h) {
+        return method.isAdaptive() ? b : b + 0.5 * h;
+    }
+
+    private static double difference(double[] a, double[] b) {
+        return difference(a, b[0], b[1], b[2]);
+    }
+
+    private static double difference(double[] a, double y, double dy, double d2y) {
+        return Math.max(Math.abs(a[0] - y) / Math.max(1.0, Math.abs(y)),
+                Math.max(Math.abs(a[1] - dy) / Math.max(1.0, Math.abs(dy)),
+                        Math.abs(a[2] - d2y) / Math.max(1.0, Math.abs(d2y))));
+    }
+
+    // Грубый метод: конечное состояние отрезка, промежуточные точки не сохраняются
+    private class Coarse {
+        private final ThirdOrderODE equation;
+        private final double step;
+        private final RungeKuttaSolver solver = new RungeKuttaSolver(false);
+        private final Solution buffer = new Solution();
+        private final SolveStatistics statistics;
+
+        Coarse(ThirdOrderODE equation, double step, SolveStatistics statistics) {
+            this.equation = equation;
+            this.step = step;
+            this.statistics = statistics;
+        }
+
+        void propagate(double[] from, double a, double b, double[] to) {
+            long count = Math.max(1, (long) Math.ceil((b - a) / step - 1e-9));
+            double h = (b - a) / count;
+            solver.solve(coarseMethod, equation, from[0], from[1], from[2], a, end(coarseMethod, b, h), h,
+                    null, buffer);
+            buffer.getState(buffer.size() - 1, to);
+            // шаги грубого метода не смешиваются с шагами точного, учитываются только вычисления f
+            statistics.addRhsEvaluations(buffer.getStatistics().getRhsEvaluations());
+        }
+    }
+
+    // Точный метод на одном отрезке
+    private class SliceTask extends RecursiveAction implements SolveMonitor {
+        private final Method method;
+        private final ThirdOrderODE equation;
+        private final double[] start;
+        private final double a, b, h;
+        private final StepControl control;
+        private final Solution[] solutions;
+        private final double[][] ends;
+        private final int index;
+
+        SliceTask(Method method, ThirdOrderODE equation, double[] start, double a, double b, double h,
+                  StepControl control, Solution[] solutions, double[][] ends, int index) {
+            this.method = method;
+            this.equation = equation;
+            this.start = start;
+            this.a = a;
+            this.b = b;
+            this.h = h;
+            this.control = control;
+            this.solutions = solutions;
+            this.ends = ends;
+            this.index = index;
+        }
+
+        @Override
+        protected void compute() {
+            if (isCancelRequested()) {
+                return;
+            }
+            if (solutions[index] == null) {
+                solutions[index] = new Solution();
+            }
+            Solution solution = solutions[index];
+            RungeKuttaSolver solver = new RungeKuttaSolver(false);
+            solver.setMonitor(this);
+            solver.solve(method, equation, start[0], start[1], start[2], a, end(method, b, h), h, control,
+                    solution);
+            solution.getState(solution.size() - 1, ends[index]);
+        }
+
+        @Override
+        public void stepCompleted(double t, Solution out) {
+        }
+
+        @Override
+        public boolean isCancelRequested() {
+            SolveMonitor m = monitor;
+            return m != null && m.isCancelRequested();
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package frisskyy.solver;
+
+import java.util.List;
+
+// L-устойчивый метод Розенброка 2(3) (формула ode23s Шампайна и Райхельта) для жестких систем.
+// Метод является W-методом: второй порядок сохраняется и при приближенном Якобиане,
+// поэтому Якобиан и LU-разложение матрицы W = I - h*d*J переиспользуются между шагами.
+// Якобиан обновляется после отклонения шага или через MAX_JACOBIAN_AGE принятых шагов,
+// разложение - при новом Якобиане или изменении шага; небольшой рост шага не делается,
+// чтобы сохранить разложение. Экземпляр не потокобезопасен.
+public class RosenbrockIntegrator {
+
+    private static final double D = 1.0 / (2.0 + Math.sqrt(2.0));
+    private static final double E32 = 6.0 + Math.sqrt(2.0);
+
+    private static final double SAFETY = 0.9;
+    private static final double MIN_FACTOR = 0.2;
+    private static final double MAX_FACTOR = 5.0;
+    // Рост шага меньше этого множителя не выполняется, чтобы не пересчитывать разложение
+    private static final double KEEP_STEP_FACTOR = 1.2;
+    private static final int MAX_JACOBIAN_AGE = 20;
+
+    private double[] x = new double[0];
+    private double[] xNew = new double[0];
+    private double[] xs = new double[0];
+    private double[] f0 = new double[0];
+    private double[] f1 = new double[0];
+    private double[] f2 = new double[0];
+    private double[] k1 = new double[0];
+    private double[] k2 = new double[0];
+    private double[] k3 = new double[0];
+    private double[] dfdt = new double[0];
+    private double[][] jacobian = new double[0][0];
+    private double[][] w = new double[0][0];
+    private final LUDecomposition lu = new LUDecomposition();
+
+    private SolveMonitor monitor;
+    private List<Event> events;
+    // Участок автоматического выбора метода (StiffnessSwitchingIntegrator) или null
+    private StiffnessDetector stiffness;
+
+    // Принятый шаг, для которого вызвана проверка событий, и его плотная выдача
+    private double stepT, stepH;
+    private final EventDetector.DenseOutput denseOutput =
+            (t, result) -> interpolate(x.length, (t - stepT) / stepH, stepH, result);
+    private int jacobianEvaluations;
+    private int decompositions;
+
+    // Наблюдатель за ходом решения; null - без наблюдения
+    public void setMonitor(SolveMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    // События, отслеживаемые при интегрировании; null или пустой список - без событий
+    public void setEvents(List<Event> events) {
+        this.events = events;
+    }
+
+    void setStiffnessDetector(StiffnessDetector stiffness) {
+        this.stiffness = stiffness;
+    }
+
+    // Число вычислений Якобиана за последнее решение
+    public int getJacobianEvaluations() {
+        return jacobianEvaluations;
+    }
+
+    // Число LU-разложений за последнее решение
+    public int getDecompositions() {
+        return decompositions;
+    }
+
+    private void ensureBuffers(int n) {
+        if (x.length != n) {
+            x = new double[n];
+            xNew = new double[n];
+            xs = new double[n];
+            f0 = new double[n];
+            f1 = new double[n];
+            f2 = new double[n];
+            k1 = new double[n];
+            k2 = new double[n];
+            k3 = new double[n];
+            dfdt = new double[n];
+            jacobian = new double[n][n];
+            w = new double[n][n];
+        }
+    }
+
+    // Интегрирование с адаптивным шагом; результат выдается на сетке t0 + n*hOut
+    // (плотная выдача), hOut также служит начальным шагом
+    public void integrate(OdeSystem system, double t0, double[] x0, double tEnd, double hOut,
+                          StepControl control, Solution out) {
+        int n = system.getDimension();
+        ensureBuffers(n);
+        System.arraycopy(x0, 0, x, 0, n);
+        jacobianEvaluations = 0;
+        decompositions = 0;
+
+        double atol = control.getAbsoluteTolerance();
+        double rtol = control.getRelativeTolerance();
+        double hMin = control.getMinStep();
+        double hMax = control.getMaxStep();
+
+        double t = t0;
+        double h = Math.min(Math.max(stiffness != null ? stiffness.initialStep(hOut) : hOut, hMin), hMax);
+        double eps = 1e-12 * Math.max(1.0, Math.abs(tEnd));
+        int accepted = 0;
+        int rejected = 0;
+
+        // На участке автоматического выбора метода сетка вывода общая для всех участков,
+        // а начальная точка участка - точка переключения, которая не записывается
+        double origin = t0;
+        int outIndex = 1;
+        if (stiffness != null) {
+            origin = stiffness.getGridOrigin();
+            outIndex = stiffness.getOutIndex();
+        }
+        if (stiffness == null || !stiffness.isContinuation()) {
+            out.addInitial(t, x);
+        }
+        double tOut = origin + outIndex * hOut;
+        EventDetector detector = EventDetector.create(events, system, t, x, out);
+
+        system.computeDerivatives(t, x, f0);
+        boolean needJacobian = true;
+        int jacobianAge = 0;
+        // Спектральный радиус текущего Якобиана (только для автоматического выбора метода)
+        double rho = 0.0;
+        double hDecomposed = Double.NaN;
+
+        while (t < tEnd - eps) {
+            if (t + h > tEnd) {
+                h = tEnd - t;
+            }
+            if (needJacobian) {
+                computeJacobian(system, t, n);
+                if (stiffness != null) {
+                    rho = stiffness.spectralRadius(jacobian);
+                }
+                needJacobian = false;
+                jacobianAge = 0;
+                hDecomposed = Double.NaN;
+            }
+            if (h != hDecomposed) {
+                if (!decompose(h, n)) {
+                    // W вырождена при этом шаге
+                    if (h <= hMin) {
+                        throw new ArithmeticException("Вырожденная матрица метода Розенброка при t = " + t);
+                    }
+                    rejected++;
+                    h = Math.max(0.5 * h, hMin);
+                    continue;
+                }
+                hDecomposed = h;
+            }
+
+            double hd = h * D;
+            for (int i = 0; i < n; i++) {
+                k1[i] = f0[i] + hd * dfdt[i];
+            }
+            lu.solve(k1);
+
+            for (int i = 0; i < n; i++) {
+                xs[i] = x[i] + 0.5 * h * k1[i];
+            }
+            system.computeDerivatives(t + 0.5 * h, xs, f1);
+            for (int i = 0; i < n; i++) {
+                k2[i] = f1[i] - k1[i];
+            }
+            lu.solve(k2);
+            for (int i = 0; i < n; i++) {
+                k2[i] += k1[i];
+                xNew[i] = x[i] + h * k2[i];
+            }
+
+            system.computeDerivatives(t + h, xNew, f2);
+            for (int i = 0; i < n; i++) {
+                k3[i] = f2[i] - E32 * (k2[i] - f1[i]) - 2.0 * (k1[i] - f0[i]) + hd * dfdt[i];
+            }
+            lu.solve(k3);
+
+            double err = 0;
+            for (int i = 0; i < n; i++) {
+                double sc = atol + rtol * Math.max(Math.abs(x[i]), Math.abs(xNew[i]));
+                double r = h / 6.0 * (k1[i] - 2.0 * k2[i] + k3[i]) / sc;
+                err += r * r;
+            }
+            err = Math.sqrt(err / n);
+
+            double factor = err == 0 ? MAX_FACTOR
+                    : Math.min(MAX_FACTOR, Math.max(MIN_FACTOR, SAFETY * Math.pow(err, -1.0 / 3.0)));
+
+            if (err <= 1.0 || h <= hMin) {
+                // Шаг принят (на минимальном шаге - принудительно)
+                out.getStatistics().recordStep(h);
+                double tNew = t + h;
+                double tStop = Double.NaN;
+                if (detector != null) {
+                    stepT = t;
+                    stepH = h;
+                    tStop = detector.check(t, x, tNew, xNew, denseOutput);
+                }
+                boolean stop = !Double.isNaN(tStop);
+                double tLimit = stop ? tStop - eps : tNew + eps;
+                while (tOut <= tLimit && tOut <= tEnd + eps) {
+                    interpolate(n, (tOut - t) / h, h, xs);
+                    out.add(tOut, xs);
+                    outIndex++;
+                    tOut = origin + outIndex * hOut;
+                }
+                if (stop) {
+                    t = tStop;
+                    detector.stop(t, x, monitor);
+                    accepted++;
+                    break;
+                }
+
+                double hTaken = h;
+                t = tNew;
+                System.arraycopy(xNew, 0, x, 0, n);
+                System.arraycopy(f2, 0, f0, 0, n);
+                accepted++;
+                if (++jacobianAge >= MAX_JACOBIAN_AGE) {
+                    needJacobian = true;
+                }
+                if (factor >= KEEP_STEP_FACTOR) {
+                    h = Math.min(h * factor, hMax);
+                } else if (factor < 1.0) {
+                    h = Math.max(h * factor, hMin);
+                }
+                if (monitor != null) {
+                    monitor.stepCompleted(t, out);
+                    if (monitor.isCancelRequested()) {
+                        break;
+                    }
+                }
+                if (stiffness != null && stiffness.implicitStep(hTaken, rho)) {
+                    // Явный метод устойчив с этим шагом с большим запасом: жесткость прошла
+                    stiffness.switchAt(t, x, h, outIndex);
+                    break;
+                }
+            } else {
+                // Шаг отклонен: уменьшаем h и, если Якобиан устарел, обновляем его
+                rejected++;
+                if (jacobianAge > 0) {
+                    needJacobian = true;
+                }
+                h = Math.max(h * Math.min(factor, 1.0), hMin);
+            }
+        }
+
+        // Последняя достигнутая точка, если она не попала на сетку вывода
+        // (при переключении метода участок продолжается, и точка не нужна)
+        if ((stiffness == null || !stiffness.isSwitched()) && out.getT(out.size() - 1) < t - eps) {
+            out.add(t, x);
+        }
+        out.setStepCounts(accepted, rejected);
+        out.getStatistics().addJacobianEvaluations(jacobianEvaluations);
+    }
+
+    // Якобиан J = df/dx и производная df/dt в точке (t, x); f0 = f(t, x).
+    // Если система не задает Якобиан, он строится односторонними разностями.
+    private void computeJacobian(OdeSystem system, double t, int n) {
+        jacobianEvaluations++;
+        if (system instanceof JacobianSystem) {
+            ((JacobianSystem) system).computeJacobian(t, x, f0, jacobian);
+        } else {
+            for (int j = 0; j < n; j++) {
+                double saved = x[j];
+                double delta = Math.sqrt(Math.ulp(1.0)) * Math.max(Math.abs(saved), 1e-5);
+                x[j] = saved + delta;
+                system.computeDerivatives(t, x, f1);
+                x[j] = saved;
+                for (int i = 0; i < n; i++) {
+                    jacobian[i][j] = (f1[i] - f0[i]) / delta;
+                }
+            }
+        }
+        double dt = Math.sqrt(Math.ulp(1.0)) * Math.max(Math.abs(t), 1e-5);
+        system.computeDerivatives(t + dt, x, f1);
+        for (int i = 0; i < n; i++) {
+            dfdt[i] = (f1[i] - f0[i]) / dt;
+        }
+    }
+
+    // LU-разложение W = I - h*d*J
+    private boolean decompose(double h, int n) {
+        decompositions++;
+        double hd = h * D;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                w[i][j] = -hd * jacobian[i][j];
+            }
+            w[i][i] += 1.0;
+        }
+        return lu.decompose(w, n);
+    }
+
+    // Плотная выдача 2-го порядка внутри принятого шага [t, t + h], theta = (tOut - t) / h
+    private void interpolate(int n, double theta, double h, double[] result) {
+        double c1 = theta * (1.0 - theta) / (1.0 - 2.0 * D);
+        double c2 = theta * (theta - 2.0 * D) / (1.0 - 2.0 * D);
+        for (int i = 0; i < n; i++) {
+            result[i] = x[i] + h * (c1 * k1[i] + c2 * k2[i]);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package frisskyy.solver;
+
+import java.util.List;
+
+// Решение ОДУ 3-го порядка методами из Method без зависимости от Swing.
+// Уравнение сводится к системе первого порядка ThirdOrderSystem и интегрируется
+// общим ExplicitRungeKuttaIntegrator, многошаговым AdamsIntegrator или,
+// для неявных методов, RosenbrockIntegrator; Method.AUTO переключается между
+// явным и неявным методом (StiffnessSwitchingIntegrator). solveWithSensitivities
+// интегрирует вместе с решением его производные по начальным условиям (SensitivitySystem).
+// Экземпляр хранит рабочие буферы и может переиспользоваться между решениями,
+// но не является потокобезопасным: для параллельных расчетов нужен свой экземпляр на поток.
+// Каждое решение записывается в SolverMetrics как отдельное; составные решатели (Parareal,
+// ансамбли, исследование сходимости) используют экземпляры без записи и записывают
+// одно сводное решение сами.
+public class RungeKuttaSolver {
+
+    private final ExplicitRungeKuttaIntegrator integrator = new ExplicitRungeKuttaIntegrator();
+    private final AdamsIntegrator adams = new AdamsIntegrator();
+    private final RosenbrockIntegrator rosenbrock = new RosenbrockIntegrator();
+    private final StiffnessSwitchingIntegrator switching = new StiffnessSwitchingIntegrator();
+    private final double[] x0 = new double[3];
+    private final double[] z0 = new double[SensitivitySystem.DIMENSION];
+    private final boolean recordMetrics;
+
+    public RungeKuttaSolver() {
+        this(true);
+    }
+
+    // recordMetrics = false - решения не попадают в SolverMetrics (внутренние решения
+    // составных решателей); статистика в Solution заполняется в любом случае
+    RungeKuttaSolver(boolean recordMetrics) {
+        this.recordMetrics = recordMetrics;
+    }
+
+    // Наблюдатель за ходом решения и отменой; null - без наблюдения
+    public void setMonitor(SolveMonitor monitor) {
+        integrator.setMonitor(monitor);
+        adams.setMonitor(monitor);
+        rosenbrock.setMonitor(monitor);
+        switching.setMonitor(monitor);
+    }
+
+    // События, отслеживаемые при следующих решениях (функции от x = (y, y', y''));
+    // найденные события записываются в Solution.getEvents(), терминальное событие
+    // завершает решение. null или пустой список - без событий
+    public void setEvents(List<Event> events) {
+        integrator.setEvents(events);
+        adams.setEvents(events);
+        rosenbrock.setEvents(events);
+        switching.setEvents(events);
+    }
+
+    public Solution solve(Method method, ThirdOrderODE equation,
+                          double y0, double dy0, double d2y0,
+                          double t0, double tEnd, double h, StepControl control) {
+        Solution out = new Solution();
+        solve(method, equation, y0, dy0, d2y0, t0, tEnd, h, control, out);
+        return out;
+    }
+
+    // Решение с записью в существующий буфер результатов (его содержимое очищается)
+    public void solve(Method method, ThirdOrderODE equation,
+                      double y0, double dy0, double d2y0,
+                      double t0, double tEnd, double h, StepControl control, Solution out) {
+        if (out.getDimension() != 3) {
+            throw new IllegalArgumentException("Для уравнения 3-го порядка нужен Solution размерности 3");
+        }
+        checkInterval(t0, tEnd, h);
+        out.clear();
+        x0[0] = y0;
+        x0[1] = dy0;
+        x0[2] = d2y0;
+        integrate(method, new ThirdOrderSystem(equation), x0, t0, tEnd, h, control, out);
+    }
+
+    // Решение вместе с матрицей чувствительностей d(y, y', y'')/d(y0, y0', y0'') в каждой точке
+    // вывода за один проход: результат имеет размерность SensitivitySystem.DIMENSION,
+    // компоненты 0..2 - решение, остальные - SensitivitySystem.component(i, j)
+    public Solution solveWithSensitivities(Method method, ThirdOrderODE equation,
+                                           double y0, double dy0, double d2y0,
+                                           double t0, double tEnd, double h, StepControl control) {
+        Solution out = new Solution(SensitivitySystem.DIMENSION);
+        solveWithSensitivities(method, equation, y0, dy0, d2y0, t0, tEnd, h, control, out);
+        return out;
+    }
+
+    public void solveWithSensitivities(Method method, ThirdOrderODE equation,
+                                       double y0, double dy0, double d2y0,
+                                       double t0, double tEnd, double h, StepControl control, Solution out) {
+        if (out.getDimension() != SensitivitySystem.DIMENSION) {
+            throw new IllegalArgumentException("Для чувствительностей нужен Solution размерности "
+                    + SensitivitySystem.DIMENSION);
+        }
+        checkInterval(t0, tEnd, h);
+        out.clear();
+        SensitivitySystem.initialState(y0, dy0, d2y0, z0);
+        integrate(method, new SensitivitySystem(equation), z0, t0, tEnd, h, control, out);
+    }
+
+    // Продолжение решения out до нового tEnd: последняя точка out служит начальным условием,
+    // новые точки дописываются в out, статистика шагов суммируется. Для явных методов
+    // с постоянным шагом результат совпадает с решением заново от t0; адаптивные методы
+    // начинают с шага h, метод Адамса заново выполняет разгон.
+    public void extend(Method method, ThirdOrderODE equation,
+                       double tEnd, double h, StepControl control, Solution out) {
+        if (out.getDimension() != 3 || out.isEmpty()) {
+            throw new IllegalArgumentException("Нет решения 3-го порядка для продолжения");
+        }
+        if (!(h > 0)) {
+            throw new IllegalArgumentException("Требуется h > 0");
+        }
+        int last = out.size() - 1;
+        double t0 = out.getT(last);
+        if (tEnd <= t0) {
+            return;
+        }
+        out.getState(last, x0);
+        int accepted = out.getAcceptedSteps();
+        int rejected = out.getRejectedSteps();
+        // интеграторы записывают статистику только своего участка
+        out.setStepCounts(0, 0);
+        integrate(method, new ThirdOrderSystem(equation), x0, t0, tEnd, h, control, out);
+        out.setStepCounts(accepted + out.getAcceptedSteps(), rejected + out.getRejectedSteps());
+    }
+
+    // При h <= 0 (или NaN) сетка вывода не продвигается и решение заполняет память
+    private static void checkInterval(double t0, double tEnd, double h) {
+        if (!(h > 0) || !(tEnd > t0)) {
+            throw new IllegalArgumentException("Требуется h > 0 и t_end > t0");
+        }
+    }
+
+    // Затраты интегрирования добавляются в out.getStatistics() и (если включено) в SolverMetrics
+    private void integrate(Method method, OdeSystem system, double[] start,
+                           double t0, double tEnd, double h, StepControl control, Solution out) {
+        SolveStatistics statistics = out.getStatistics();
+        long stepsBefore = statistics.getSteps();
+        long startNanos = System.nanoTime();
+        dispatch(method, system, start, t0, tEnd, h, control, out);
+        long nanos = System.nanoTime() - startNanos;
+        long evaluations = system instanceof SensitivitySystem
+                ? ((SensitivitySystem) system).getEvaluations()
+                : ((ThirdOrderSystem) system).getEvaluations();
+        statistics.addRhsEvaluations(evaluations);
+        statistics.addIntegrateNanos(nanos);
+        if (recordMetrics) {
+            SolverMetrics metrics = SolverMetrics.getInstance();
+            metrics.record(1, evaluations, statistics.getSteps() - stepsBefore,
+                    out.getRejectedSteps(), nanos);
+            metrics.setLast(method, statistics);
+        }
+    }
+
+    private void dispatch(Method method, OdeSystem system, double[] start,
+                          double t0, double tEnd, double h, StepControl control, Solution out) {
+        if (method.isSwitching()) {
+            switching.integrate(system, t0, start, tEnd, h, control, out);
+        } else if (method.isImplicit()) {
+            rosenbrock.integrate(system, t0, start, tEnd, h, control, out);
+        } else if (method.isMultistep()) {
+            if (method.isAdaptive()) {
+                adams.integrate(system, t0, start, tEnd, h, control, out);
+            } else {
+                adams.integrate(system, t0, start, tEnd, h, out);
+            }
+        } else if (method.isAdaptive()) {
+            integrator.integrate(system, method.getTableau(), t0, start, tEnd, h, control, out);
+        } else {
+            integrator.integrate(system, method.getTableau(), t0, start, tEnd, h, out);
+        }
+    }
+}
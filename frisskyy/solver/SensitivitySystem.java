@@ -0,0 +1,104 @@
+package frisskyy.solver;
+
+import java.util.Arrays;
+
+// Уравнение 3-го порядка вместе с уравнениями в вариациях по начальным условиям.
+// Состояние z = (x, S), x = (y, y', y''), S[i][j] = dx_i / dx0_j (x0 = (y0, y0', y0''));
+// S' = J S, S(t0) = I, где J - Якобиан ThirdOrderSystem. Матрица S хранится по строкам
+// в компонентах 3..11, так что Solution размерности DIMENSION содержит и решение,
+// и чувствительности в каждой точке вывода. Стадии метода вычисляют f и Якобиан один раз
+// для всех столбцов S: одно решение заменяет решение плюс три возмущенных решения по
+// разностям. Ошибка адаптивного шага контролируется и по компонентам S.
+public final class SensitivitySystem implements JacobianSystem {
+
+    public static final int DIMENSION = 12;
+
+    private final ThirdOrderSystem system;
+    private final double[] fx = new double[3];
+    private final double[][] jacobian = new double[3][3];
+
+    public SensitivitySystem(ThirdOrderODE equation) {
+        this.system = new ThirdOrderSystem(equation);
+    }
+
+    public ThirdOrderODE getEquation() {
+        return system.getEquation();
+    }
+
+    long getEvaluations() {
+        return system.getEvaluations();
+    }
+
+    // Номер компоненты Solution с производной x_i по начальному условию x0_j
+    public static int component(int i, int j) {
+        return 3 + 3 * i + j;
+    }
+
+    // Начальное состояние: x0 и единичная матрица S
+    static void initialState(double y0, double dy0, double d2y0, double[] z0) {
+        Arrays.fill(z0, 0.0);
+        z0[0] = y0;
+        z0[1] = dy0;
+        z0[2] = d2y0;
+        for (int i = 0; i < 3; i++) {
+            z0[component(i, i)] = 1.0;
+        }
+    }
+
+    // Матрица чувствительностей точки i решения: result[i][j] = dx_i / dx0_j
+    public static void getSensitivity(Solution solution, int point, double[][] result) {
+        if (solution.getDimension() != DIMENSION) {
+            throw new IllegalArgumentException("Решение не содержит чувствительностей");
+        }
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                result[i][j] = solution.get(component(i, j), point);
+            }
+        }
+    }
+
+    @Override
+    public int getDimension() {
+        return DIMENSION;
+    }
+
+    @Override
+    public void computeDerivatives(double t, double[] z, double[] dzdt) {
+        system.computeDerivatives(t, z, fx);
+        system.computeJacobian(t, z, fx, jacobian);
+        dzdt[0] = fx[0];
+        dzdt[1] = fx[1];
+        dzdt[2] = fx[2];
+        // первые две строки J - сдвиг: (S')_0 = S_1, (S')_1 = S_2
+        double g0 = jacobian[2][0];
+        double g1 = jacobian[2][1];
+        double g2 = jacobian[2][2];
+        for (int j = 0; j < 3; j++) {
+            double s0 = z[component(0, j)];
+            double s1 = z[component(1, j)];
+            double s2 = z[component(2, j)];
+            dzdt[component(0, j)] = s1;
+            dzdt[component(1, j)] = s2;
+            dzdt[component(2, j)] = g0 * s0 + g1 * s1 + g2 * s2;
+        }
+    }
+
+    // Блочно-треугольный Якобиан без вторых производных f (d(JS)/dx): метод Розенброка
+    // является W-методом и допускает приближенный Якобиан
+    @Override
+    public void computeJacobian(double t, double[] z, double[] fz, double[][] result) {
+        system.computeJacobian(t, z, fz, jacobian);
+        for (double[] row : result) {
+            Arrays.fill(row, 0.0);
+        }
+        for (int i = 0; i < 3; i++) {
+            for (int k = 0; k < 3; k++) {
+                result[i][k] = jacobian[i][k];
+                // столбец j матрицы S: (S_j)' = J S_j
+                for (int j = 0; j < 3; j++) {
+                    result[component(i, j)][component(k, j)] = jacobian[i][k];
+                }
+            }
+        }
+    }
+}
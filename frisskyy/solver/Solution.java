@@ -0,0 +1,218 @@
+package frisskyy.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// Результат решения в виде столбцов примитивов: t[] и по одному массиву на компоненту состояния.
+// Для уравнения 3-го порядка компоненты 0, 1, 2 - это y, y', y''.
+// Массивы растут удвоением, поэтому на шаг интегрирования не создается ни одного объекта.
+public class Solution {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private final int dimension;
+    private double[] t;
+    private final double[][] columns;
+    private int size;
+
+    // Статистика адаптивного шага
+    private int acceptedSteps;
+    private int rejectedSteps;
+    private final SolveStatistics statistics = new SolveStatistics();
+
+    // Найденные события в порядке времени; список создается при первом событии
+    private List<EventOccurrence> events;
+
+    public Solution() {
+        this(3);
+    }
+
+    public Solution(int dimension) {
+        this(dimension, DEFAULT_CAPACITY);
+    }
+
+    public Solution(int dimension, int capacity) {
+        if (dimension < 1) {
+            throw new IllegalArgumentException("Размерность должна быть положительной");
+        }
+        capacity = Math.max(capacity, 1);
+        this.dimension = dimension;
+        t = new double[capacity];
+        columns = new double[dimension][capacity];
+    }
+
+    public void add(double tValue, double[] state) {
+        if (size == t.length) {
+            grow();
+        }
+        t[size] = tValue;
+        for (int c = 0; c < dimension; c++) {
+            columns[c][size] = state[c];
+        }
+        size++;
+    }
+
+    public void add(double tValue, double yValue, double dyValue, double d2yValue) {
+        if (dimension != 3) {
+            throw new IllegalStateException("Решение не является решением уравнения 3-го порядка");
+        }
+        if (size == t.length) {
+            grow();
+        }
+        t[size] = tValue;
+        columns[0][size] = yValue;
+        columns[1][size] = dyValue;
+        columns[2][size] = d2yValue;
+        size++;
+    }
+
+    // Начальная точка интегрирования. При продолжении решения (RungeKuttaSolver.extend)
+    // она уже записана последней и не дублируется
+    void addInitial(double tValue, double[] state) {
+        if (size > 0 && t[size - 1] == tValue) {
+            return;
+        }
+        add(tValue, state);
+    }
+
+    private void grow() {
+        int capacity = t.length * 2;
+        t = Arrays.copyOf(t, capacity);
+        for (int c = 0; c < dimension; c++) {
+            columns[c] = Arrays.copyOf(columns[c], capacity);
+        }
+    }
+
+    // Дописывает точки other начиная с from; статистика шагов не меняется
+    public void addAll(Solution other, int from) {
+        if (other.dimension != dimension) {
+            throw new IllegalArgumentException("Размерности решений не совпадают");
+        }
+        int count = other.size - from;
+        if (count <= 0) {
+            return;
+        }
+        while (size + count > t.length) {
+            grow();
+        }
+        System.arraycopy(other.t, from, t, size, count);
+        for (int c = 0; c < dimension; c++) {
+            System.arraycopy(other.columns[c], from, columns[c], size, count);
+        }
+        size += count;
+    }
+
+    // Независимая копия с тем же содержимым и статистикой шагов
+    public Solution copy() {
+        Solution result = new Solution(dimension, size);
+        result.addAll(this, 0);
+        result.setStepCounts(acceptedSteps, rejectedSteps);
+        result.statistics.add(statistics);
+        if (events != null) {
+            result.events = new ArrayList<>(events);
+        }
+        return result;
+    }
+
+    // Освобождает неиспользуемый запас массивов (например, перед долгим хранением в кэше)
+    public void trimToSize() {
+        int capacity = Math.max(size, 1);
+        if (capacity < t.length) {
+            t = Arrays.copyOf(t, capacity);
+            for (int c = 0; c < dimension; c++) {
+                columns[c] = Arrays.copyOf(columns[c], capacity);
+            }
+        }
+    }
+
+    // Приблизительный объем памяти решения в байтах: массивы t[] и столбцов с учетом запаса
+    public long getMemoryFootprint() {
+        long eventBytes = events == null ? 0 : events.size() * (64L + dimension * 8L);
+        return (long) (dimension + 1) * (t.length * 8L + 16) + 64 + eventBytes;
+    }
+
+    // Очистка без освобождения памяти, для повторного использования буфера
+    public void clear() {
+        size = 0;
+        acceptedSteps = 0;
+        rejectedSteps = 0;
+        statistics.clear();
+        events = null;
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public double getT(int i) {
+        return t[i];
+    }
+
+    public double get(int component, int i) {
+        return columns[component][i];
+    }
+
+    public double getY(int i) {
+        return columns[0][i];
+    }
+
+    public double getDY(int i) {
+        return columns[1][i];
+    }
+
+    public double getD2Y(int i) {
+        return columns[2][i];
+    }
+
+    // Копирует состояние в точке i в state
+    public void getState(int i, double[] state) {
+        for (int c = 0; c < dimension; c++) {
+            state[c] = columns[c][i];
+        }
+    }
+
+    public int getAcceptedSteps() {
+        return acceptedSteps;
+    }
+
+    public int getRejectedSteps() {
+        return rejectedSteps;
+    }
+
+    void setStepCounts(int accepted, int rejected) {
+        this.acceptedSteps = accepted;
+        this.rejectedSteps = rejected;
+    }
+
+    // Затраты на решение: вычисления правой части, длины шагов, время
+    public SolveStatistics getStatistics() {
+        return statistics;
+    }
+
+    // События, найденные при интегрировании (см. RungeKuttaSolver.setEvents)
+    public List<EventOccurrence> getEvents() {
+        return events == null ? Collections.emptyList() : Collections.unmodifiableList(events);
+    }
+
+    // Завершено ли интегрирование терминальным событием (оно тогда последнее в getEvents)
+    public boolean isTerminated() {
+        return events != null && events.get(events.size() - 1).getEvent().isTerminal();
+    }
+
+    void addEvent(EventOccurrence occurrence) {
+        if (events == null) {
+            events = new ArrayList<>();
+        }
+        events.add(occurrence);
+    }
+}
@@ -0,0 +1,87 @@
+package frisskyy.solver;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// LRU-кэш готовых решений по полной конфигурации расчета (SolveKey).
+// Объем ограничен суммарным размером решений (Solution.getMemoryFootprint), при переполнении
+// вытесняются давно не использованные записи. Решения в кэше общие для всех получателей
+// и не должны изменяться. Методы потокобезопасны.
+public class SolutionCache {
+
+    private final long maxBytes;
+    private final LinkedHashMap<SolveKey, Solution> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long usedBytes;
+    private long hits;
+    private long misses;
+
+    public SolutionCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Размер кэша должен быть положительным");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    // Решение для конфигурации или null, если его нет в кэше
+    public synchronized Solution get(SolveKey key) {
+        Solution solution = entries.get(key);
+        if (solution != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return solution;
+    }
+
+    // Есть ли решение для конфигурации; порядок вытеснения и статистика не меняются
+    public synchronized boolean contains(SolveKey key) {
+        return entries.containsKey(key);
+    }
+
+    // Сохраняет решение; решение больше всего кэша не сохраняется
+    public synchronized void put(SolveKey key, Solution solution) {
+        solution.trimToSize();
+        long bytes = solution.getMemoryFootprint();
+        Solution previous = entries.remove(key);
+        if (previous != null) {
+            usedBytes -= previous.getMemoryFootprint();
+        }
+        if (bytes > maxBytes) {
+            return;
+        }
+        entries.put(key, solution);
+        usedBytes += bytes;
+        Iterator<Map.Entry<SolveKey, Solution>> it = entries.entrySet().iterator();
+        while (usedBytes > maxBytes && it.hasNext()) {
+            Map.Entry<SolveKey, Solution> eldest = it.next();
+            usedBytes -= eldest.getValue().getMemoryFootprint();
+            it.remove();
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        usedBytes = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+}
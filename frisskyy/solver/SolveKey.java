@@ -0,0 +1,70 @@
+package frisskyy.solver;
+
+import java.util.Arrays;
+
+// Полная конфигурация расчета для поиска в SolutionCache. Уравнения сравниваются equals:
+// встроенные - по ссылке, UserEquation - по правой части и точному решению, чтобы продолжение
+// не смешивало графики с разными точными решениями; допуски учитываются только
+// для адаптивных методов.
+public final class SolveKey {
+
+    // Положение tEnd в values
+    private static final int T_END = 4;
+
+    private final ThirdOrderODE equation;
+    private final Method method;
+    private final double[] values;
+
+    public SolveKey(Method method, ThirdOrderODE equation,
+                    double y0, double dy0, double d2y0,
+                    double t0, double tEnd, double h, StepControl control) {
+        this.equation = equation;
+        this.method = method;
+        if (method.isAdaptive() && control != null) {
+            values = new double[]{y0, dy0, d2y0, t0, tEnd, h,
+                    control.getAbsoluteTolerance(), control.getRelativeTolerance(),
+                    control.getMinStep(), control.getMaxStep()};
+        } else {
+            values = new double[]{y0, dy0, d2y0, t0, tEnd, h};
+        }
+    }
+
+    // Отличается ли конфигурация от previous только большим tEnd, т.е. можно ли получить
+    // решение продолжением решения previous
+    public boolean isContinuationOf(SolveKey previous) {
+        if (!equation.equals(previous.equation)
+                || method != previous.method || values.length != previous.values.length
+                || !(values[T_END] > previous.values[T_END])) {
+            return false;
+        }
+        for (int i = 0; i < values.length; i++) {
+            if (i != T_END && Double.compare(values[i], previous.values[i]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof SolveKey)) {
+            return false;
+        }
+        SolveKey that = (SolveKey) obj;
+        // Arrays.equals сравнивает double побитово, как Double.equals
+        return equation.equals(that.equation)
+                && method == that.method
+                && Arrays.equals(values, that.values);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = equation.hashCode();
+        result = 31 * result + method.hashCode();
+        result = 31 * result + Arrays.hashCode(values);
+        return result;
+    }
+}
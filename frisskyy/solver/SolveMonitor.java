@@ -0,0 +1,11 @@
+package frisskyy.solver;
+
+// Наблюдение за ходом решения и его отмена. Методы вызываются в потоке решения
+// после каждого принятого шага, поэтому реализация должна быть дешевой.
+public interface SolveMonitor {
+    // Шаг до момента t завершен; out содержит все записанные к этому моменту точки
+    void stepCompleted(double t, Solution out);
+
+    // true - прервать решение; в out остается решение до текущего момента
+    boolean isCancelRequested();
+}
@@ -0,0 +1,145 @@
+package frisskyy.solver;
+
+// Стоимость решения: число вычислений правой части y''' = f, принятые шаги с их
+// наименьшей, наибольшей и средней длиной и время интегрирования. Заполняется интеграторами
+// вместе с Solution и позволяет сравнивать методы по затратам, а не по числу точек.
+// Для методов с постоянным шагом учитываются все шаги, для адаптивных - только принятые
+// (отклоненные есть в Solution.getRejectedSteps). Запись не потокобезопасна.
+public final class SolveStatistics {
+
+    private long rhsEvaluations;
+    private long steps;
+    private double minStep = Double.NaN;
+    private double maxStep = Double.NaN;
+    private double stepSum;
+    private long integrateNanos;
+    private long jacobianEvaluations;
+    private int methodSwitches;
+
+    // Вычисления правой части, включая разностный якобиан метода Розенброка
+    // и интерполяцию при поиске событий
+    public long getRhsEvaluations() {
+        return rhsEvaluations;
+    }
+
+    // Число шагов, длина которых учтена в min/max/mean
+    public long getSteps() {
+        return steps;
+    }
+
+    // NaN, если шагов не было
+    public double getMinStep() {
+        return minStep;
+    }
+
+    public double getMaxStep() {
+        return maxStep;
+    }
+
+    public double getMeanStep() {
+        return steps == 0 ? Double.NaN : stepSum / steps;
+    }
+
+    // Время интегрирования (вместе с вызовами SolveMonitor) в наносекундах
+    public long getIntegrateNanos() {
+        return integrateNanos;
+    }
+
+    // Вычисления Якобиана (метод Розенброка); их вычисления f входят в getRhsEvaluations
+    public long getJacobianEvaluations() {
+        return jacobianEvaluations;
+    }
+
+    // Переключения между явным и неявным методом (Method.AUTO)
+    public int getMethodSwitches() {
+        return methodSwitches;
+    }
+
+    // Вычислений правой части на принятый шаг
+    public double getRhsPerStep() {
+        return steps == 0 ? Double.NaN : (double) rhsEvaluations / steps;
+    }
+
+    void addRhsEvaluations(long count) {
+        rhsEvaluations += count;
+    }
+
+    void addJacobianEvaluations(long count) {
+        jacobianEvaluations += count;
+    }
+
+    void addMethodSwitch() {
+        methodSwitches++;
+    }
+
+    void recordStep(double h) {
+        if (!(h >= minStep)) {
+            minStep = h;
+        }
+        if (!(h <= maxStep)) {
+            maxStep = h;
+        }
+        stepSum += h;
+        steps++;
+    }
+
+    void addIntegrateNanos(long nanos) {
+        integrateNanos += nanos;
+    }
+
+    void setIntegrateNanos(long nanos) {
+        integrateNanos = nanos;
+    }
+
+    // Добавляет статистику другого решения (отрезка или продолжения)
+    void add(SolveStatistics other) {
+        rhsEvaluations += other.rhsEvaluations;
+        if (other.steps > 0) {
+            if (!(other.minStep >= minStep)) {
+                minStep = other.minStep;
+            }
+            if (!(other.maxStep <= maxStep)) {
+                maxStep = other.maxStep;
+            }
+            stepSum += other.stepSum;
+            steps += other.steps;
+        }
+        integrateNanos += other.integrateNanos;
+        jacobianEvaluations += other.jacobianEvaluations;
+        methodSwitches += other.methodSwitches;
+    }
+
+    // Блок траекторий, решенных в ногу (BatchRungeKuttaIntegrator): каждая траектория сделала
+    // все шаги блока, вычисления f в block уже просуммированы по траекториям
+    void addBlock(SolveStatistics block, int trajectories) {
+        rhsEvaluations += block.rhsEvaluations;
+        if (block.steps > 0) {
+            if (!(block.minStep >= minStep)) {
+                minStep = block.minStep;
+            }
+            if (!(block.maxStep <= maxStep)) {
+                maxStep = block.maxStep;
+            }
+            stepSum += block.stepSum * trajectories;
+            steps += block.steps * trajectories;
+        }
+        integrateNanos += block.integrateNanos;
+    }
+
+    void clear() {
+        rhsEvaluations = 0;
+        steps = 0;
+        minStep = Double.NaN;
+        maxStep = Double.NaN;
+        stepSum = 0;
+        integrateNanos = 0;
+        jacobianEvaluations = 0;
+        methodSwitches = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("вызовов f: %d, шагов: %d, h: %.3g..%.3g (среднее %.3g), %.1f мс",
+                rhsEvaluations, steps, minStep, maxStep, getMeanStep(), integrateNanos / 1e6);
+    }
+}
@@ -0,0 +1,174 @@
+package frisskyy.solver;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+// Сводные затраты всех решений процесса: число решений, вычислений правой части, шагов
+// и время по фазам. Пишут сюда решатели верхнего уровня (RungeKuttaSolver, PararealSolver,
+// EnsembleSolver, ConvergenceStudy) - составное решение записывается один раз со сводными
+// затратами своих внутренних решений; окно программы добавляет время подготовки таблицы
+// и графика. Счетчики - LongAdder, поэтому запись из параллельных решений (ансамбли,
+// Parareal) не создает конкуренции.
+// После registerMBean метрики видны в jconsole/VisualVM как frisskyy.solver:type=SolverMetrics.
+public final class SolverMetrics implements SolverMetricsMXBean {
+
+    public static final String OBJECT_NAME = "frisskyy.solver:type=SolverMetrics";
+
+    // Фазы решения в окне: интегрирование, подготовка таблицы и итогов, построение графика
+    public enum Phase {
+        INTEGRATE, FORMAT, CHART
+    }
+
+    private static final SolverMetrics INSTANCE = new SolverMetrics();
+    private static boolean registered;
+
+    private final LongAdder solves = new LongAdder();
+    private final LongAdder rhsEvaluations = new LongAdder();
+    private final LongAdder steps = new LongAdder();
+    private final LongAdder rejectedSteps = new LongAdder();
+    private final LongAdder[] phaseNanos = new LongAdder[Phase.values().length];
+
+    // Неизменяемый снимок последнего решения
+    private volatile String lastMethod = "";
+    private volatile SolveStatistics last = new SolveStatistics();
+
+    private SolverMetrics() {
+        for (int i = 0; i < phaseNanos.length; i++) {
+            phaseNanos[i] = new LongAdder();
+        }
+    }
+
+    public static SolverMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    // Регистрирует метрики в платформенном MBeanServer (повторные вызовы ничего не делают).
+    // Возвращает false, если JMX недоступен; сбор метрик от этого не зависит
+    public static synchronized boolean registerMBean() {
+        if (!registered) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+                registered = true;
+            } catch (JMException | SecurityException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // solveCount решений: вычисления правой части, сделанные и отклоненные шаги, время
+    void record(int solveCount, long rhs, long stepCount, long rejected, long nanos) {
+        solves.add(solveCount);
+        rhsEvaluations.add(rhs);
+        steps.add(stepCount);
+        rejectedSteps.add(rejected);
+        phaseNanos[Phase.INTEGRATE.ordinal()].add(nanos);
+    }
+
+    // Снимок статистики последнего решения (копируется)
+    void setLast(Method method, SolveStatistics statistics) {
+        setLast(method.name(), statistics);
+    }
+
+    // method - имя метода или нескольких методов составного решения
+    void setLast(String method, SolveStatistics statistics) {
+        SolveStatistics snapshot = new SolveStatistics();
+        snapshot.add(statistics);
+        last = snapshot;
+        lastMethod = method;
+    }
+
+    // Время фаз, выполняемых вне решателя (таблица, график)
+    public void recordPhase(Phase phase, long nanos) {
+        phaseNanos[phase.ordinal()].add(nanos);
+    }
+
+    private double millis(Phase phase) {
+        return phaseNanos[phase.ordinal()].sum() / 1e6;
+    }
+
+    @Override
+    public long getSolveCount() {
+        return solves.sum();
+    }
+
+    @Override
+    public long getRhsEvaluations() {
+        return rhsEvaluations.sum();
+    }
+
+    @Override
+    public long getSteps() {
+        return steps.sum();
+    }
+
+    @Override
+    public long getRejectedSteps() {
+        return rejectedSteps.sum();
+    }
+
+    @Override
+    public double getIntegrateTimeMillis() {
+        return millis(Phase.INTEGRATE);
+    }
+
+    @Override
+    public double getFormatTimeMillis() {
+        return millis(Phase.FORMAT);
+    }
+
+    @Override
+    public double getChartTimeMillis() {
+        return millis(Phase.CHART);
+    }
+
+    @Override
+    public String getLastMethod() {
+        return lastMethod;
+    }
+
+    @Override
+    public long getLastRhsEvaluations() {
+        return last.getRhsEvaluations();
+    }
+
+    @Override
+    public long getLastSteps() {
+        return last.getSteps();
+    }
+
+    @Override
+    public double getLastMinStep() {
+        return last.getMinStep();
+    }
+
+    @Override
+    public double getLastMaxStep() {
+        return last.getMaxStep();
+    }
+
+    @Override
+    public double getLastMeanStep() {
+        return last.getMeanStep();
+    }
+
+    @Override
+    public double getLastIntegrateTimeMillis() {
+        return last.getIntegrateNanos() / 1e6;
+    }
+
+    @Override
+    public void reset() {
+        solves.reset();
+        rhsEvaluations.reset();
+        steps.reset();
+        rejectedSteps.reset();
+        for (LongAdder adder : phaseNanos) {
+            adder.reset();
+        }
+        lastMethod = "";
+        last = new SolveStatistics();
+    }
+}
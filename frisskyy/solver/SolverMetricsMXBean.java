@@ -0,0 +1,35 @@
+package frisskyy.solver;
+
+// Атрибуты SolverMetrics для JMX. Счетчики накапливаются с запуска процесса или с reset();
+// Last* относятся к последнему завершенному решению
+public interface SolverMetricsMXBean {
+    long getSolveCount();
+
+    long getRhsEvaluations();
+
+    long getSteps();
+
+    long getRejectedSteps();
+
+    double getIntegrateTimeMillis();
+
+    double getFormatTimeMillis();
+
+    double getChartTimeMillis();
+
+    String getLastMethod();
+
+    long getLastRhsEvaluations();
+
+    long getLastSteps();
+
+    double getLastMinStep();
+
+    double getLastMaxStep();
+
+    double getLastMeanStep();
+
+    double getLastIntegrateTimeMillis();
+
+    void reset();
+}
@@ -0,0 +1,41 @@
+package frisskyy.solver;
+
+// Параметры адаптивного шага: допуски и границы h
+public final class StepControl {
+
+    private final double absoluteTolerance;
+    private final double relativeTolerance;
+    private final double minStep;
+    private final double maxStep;
+
+    public StepControl(double absoluteTolerance, double relativeTolerance,
+                       double minStep, double maxStep) {
+        if (absoluteTolerance < 0 || relativeTolerance < 0
+                || absoluteTolerance + relativeTolerance <= 0) {
+            throw new IllegalArgumentException("Допуски должны быть неотрицательными и не оба нулевыми");
+        }
+        if (minStep <= 0 || maxStep < minStep) {
+            throw new IllegalArgumentException("Требуется 0 < h_min <= h_max");
+        }
+        this.absoluteTolerance = absoluteTolerance;
+        this.relativeTolerance = relativeTolerance;
+        this.minStep = minStep;
+        this.maxStep = maxStep;
+    }
+
+    public double getAbsoluteTolerance() {
+        return absoluteTolerance;
+    }
+
+    public double getRelativeTolerance() {
+        return relativeTolerance;
+    }
+
+    public double getMinStep() {
+        return minStep;
+    }
+
+    public double getMaxStep() {
+        return maxStep;
+    }
+}
@@ -0,0 +1,219 @@
+package frisskyy.solver;
+
+// Определение жесткости для StiffnessSwitchingIntegrator. На явном участке наибольшее
+// по модулю собственное значение оценивается по разности двух стадий с одинаковым c
+// (для Дорманда-Принса - стадии 6 и 7, c = 1): rho = |k7 - k6| / |X7 - X6|, где
+// X7 - X6 = h * sum (a7j - a6j) kj. Стадии уже вычислены, поэтому оценка бесплатна.
+// Если h * rho долго держится у границы устойчивости явного метода, шаг ограничен
+// устойчивостью, а не точностью, и задача считается жесткой (критерий Хайрера из DOPRI5).
+// На неявном участке rho - спектральный радиус Якобиана, который метод Розенброка и так
+// вычисляет; если явный метод был бы устойчив с текущим шагом с большим запасом, жесткость
+// прошла. Кроме решения о переключении детектор переносит состояние между участками:
+// сетку вывода, момент, состояние и шаг в точке переключения.
+final class StiffnessDetector {
+
+    // Граница устойчивости Дорманда-Принса на отрицательной вещественной полуоси
+    static final double STABILITY_BOUNDARY = 3.25;
+    // Явный шаг считается ограниченным устойчивостью после стольких таких шагов подряд
+    private static final int STIFF_STEPS = 15;
+    // Столько нежестких шагов подряд сбрасывают счетчик жестких
+    private static final int NONSTIFF_STEPS = 6;
+    // Возврат к явному методу: h * rho меньше этой доли границы на стольких шагах подряд
+    private static final double RELAXED_FRACTION = 0.3;
+    private static final int RELAXED_STEPS = 15;
+    // Степень J^(2^SQUARINGS) при оценке спектрального радиуса
+    private static final int SQUARINGS = 4;
+
+    private final ButcherTableau tableau;
+    private final int stageA, stageB;
+    private final int n;
+    private final double[] diff;
+    private double[][] power = new double[0][0];
+    private double[][] square = new double[0][0];
+
+    // Сетка вывода общая для всех участков: t0 + outIndex * hOut
+    private final double gridOrigin;
+    private int outIndex = 1;
+
+    private int stiffCount;
+    private int nonStiffCount;
+    private int relaxedCount;
+
+    // Точка переключения: конец последнего принятого шага участка и предлагаемый шаг
+    private boolean switched;
+    private boolean continuation;
+    private double t;
+    private double step = Double.NaN;
+    private final double[] state;
+
+    StiffnessDetector(ButcherTableau tableau, double t0, int n) {
+        this.tableau = tableau;
+        this.n = n;
+        this.gridOrigin = t0;
+        int a = -1;
+        int b = -1;
+        for (int i = tableau.getStages() - 1; i > 0 && a < 0; i--) {
+            for (int j = i - 1; j >= 0; j--) {
+                if (tableau.c[i] == tableau.c[j]) {
+                    a = i;
+                    b = j;
+                    break;
+                }
+            }
+        }
+        if (a < 0) {
+            throw new IllegalArgumentException("Нужен метод с двумя стадиями с одинаковым c");
+        }
+        stageA = a;
+        stageB = b;
+        diff = new double[n];
+        state = new double[n];
+    }
+
+    ButcherTableau getTableau() {
+        return tableau;
+    }
+
+    // Начало очередного участка: счетчики сбрасываются, точка переключения становится началом
+    void beginSegment() {
+        continuation = switched;
+        switched = false;
+        stiffCount = 0;
+        nonStiffCount = 0;
+        relaxedCount = 0;
+    }
+
+    // Участок начинается в точке переключения: она уже есть в решении (или между узлами сетки)
+    // и повторно не записывается
+    boolean isContinuation() {
+        return continuation;
+    }
+
+    double getGridOrigin() {
+        return gridOrigin;
+    }
+
+    int getOutIndex() {
+        return outIndex;
+    }
+
+    // Начальный шаг участка: шаг из точки переключения или default для первого участка
+    double initialStep(double defaultStep) {
+        return continuation ? step : defaultStep;
+    }
+
+    // Оценка |lambda| по стадиям принятого явного шага
+    double estimate(double[][] k, double h) {
+        double[] aA = tableau.a[stageA];
+        double[] aB = tableau.a[stageB];
+        double num = 0;
+        double den = 0;
+        for (int i = 0; i < n; i++) {
+            double d = 0;
+            for (int j = 0; j < aA.length; j++) {
+                d += (aA[j] - (j < aB.length ? aB[j] : 0.0)) * k[j][i];
+            }
+            diff[i] = h * d;
+            double dk = k[stageA][i] - k[stageB][i];
+            num += dk * dk;
+            den += diff[i] * diff[i];
+        }
+        return den > 0 ? Math.sqrt(num / den) : 0.0;
+    }
+
+    // Оценка спектрального радиуса Якобиана сверху: ||J^m||^(1/m) при m = 2^SQUARINGS,
+    // с нормировкой после каждого возведения в квадрат
+    double spectralRadius(double[][] jacobian) {
+        if (power.length != n) {
+            power = new double[n][n];
+            square = new double[n][n];
+        }
+        double logScale = 0;
+        double norm = normalize(jacobian, power);
+        if (norm == 0) {
+            return 0.0;
+        }
+        logScale = Math.log(norm);
+        for (int s = 0; s < SQUARINGS; s++) {
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    double sum = 0;
+                    for (int l = 0; l < n; l++) {
+                        sum += power[i][l] * power[l][j];
+                    }
+                    square[i][j] = sum;
+                }
+            }
+            norm = normalize(square, power);
+            if (norm == 0) {
+                return 0.0;
+            }
+            logScale = 2 * logScale + Math.log(norm);
+        }
+        return Math.exp(logScale / (1 << SQUARINGS));
+    }
+
+    // to = from / ||from||_inf; возвращает норму
+    private double normalize(double[][] from, double[][] to) {
+        double norm = 0;
+        for (int i = 0; i < n; i++) {
+            double row = 0;
+            for (int j = 0; j < n; j++) {
+                row += Math.abs(from[i][j]);
+            }
+            norm = Math.max(norm, row);
+        }
+        if (norm == 0 || !Double.isFinite(norm)) {
+            return norm == 0 ? 0.0 : Double.POSITIVE_INFINITY;
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                to[i][j] = from[i][j] / norm;
+            }
+        }
+        return norm;
+    }
+
+    // Принятый явный шаг h с оценкой rho; true - пора переходить к неявному методу
+    boolean explicitStep(double h, double rho) {
+        if (h * rho > STABILITY_BOUNDARY) {
+            nonStiffCount = 0;
+            return ++stiffCount >= STIFF_STEPS;
+        }
+        if (++nonStiffCount >= NONSTIFF_STEPS) {
+            stiffCount = 0;
+        }
+        return false;
+    }
+
+    // Принятый неявный шаг h при спектральном радиусе rho; true - пора вернуться к явному методу
+    boolean implicitStep(double h, double rho) {
+        if (h * rho < RELAXED_FRACTION * STABILITY_BOUNDARY) {
+            return ++relaxedCount >= RELAXED_STEPS;
+        }
+        relaxedCount = 0;
+        return false;
+    }
+
+    // Интегратор останавливает участок после принятого шага: t, x - конец шага,
+    // nextStep - предложенный следующий шаг, nextOutIndex - следующий узел сетки вывода
+    void switchAt(double t, double[] x, double nextStep, int nextOutIndex) {
+        this.switched = true;
+        this.t = t;
+        this.step = nextStep;
+        this.outIndex = nextOutIndex;
+        System.arraycopy(x, 0, state, 0, n);
+    }
+
+    boolean isSwitched() {
+        return switched;
+    }
+
+    double getT() {
+        return t;
+    }
+
+    void getState(double[] x) {
+        System.arraycopy(state, 0, x, 0, n);
+    }
+}
@@ -0,0 +1,72 @@
+package frisskyy.solver;
+
+import java.util.List;
+
+// Автоматический выбор метода для задач, жестких лишь на части интервала. Решение начинается
+// явным методом Дорманда-Принса; когда его шаг долго ограничен устойчивостью, а не точностью
+// (оценка по стадиям в StiffnessDetector), интегрирование продолжается методом Розенброка,
+// а когда явный метод снова был бы устойчив с шагом неявного - возвращается к явному.
+// На нежестких участках так не тратятся Якобиан и LU-разложения, а на жестких - тысячи
+// мелких явных шагов. Участки пишутся в один Solution с общей сеткой вывода t0 + n*hOut;
+// шаг в точке переключения переходит в следующий участок. Экземпляр не потокобезопасен.
+public class StiffnessSwitchingIntegrator {
+
+    private final ExplicitRungeKuttaIntegrator explicit = new ExplicitRungeKuttaIntegrator();
+    private final RosenbrockIntegrator implicit = new RosenbrockIntegrator();
+    private SolveMonitor monitor;
+    private double[] x = new double[0];
+
+    // Наблюдатель за ходом решения; null - без наблюдения
+    public void setMonitor(SolveMonitor monitor) {
+        this.monitor = monitor;
+        explicit.setMonitor(monitor);
+        implicit.setMonitor(monitor);
+    }
+
+    // События, отслеживаемые при интегрировании; null или пустой список - без событий
+    public void setEvents(List<Event> events) {
+        explicit.setEvents(events);
+        implicit.setEvents(events);
+    }
+
+    // Интегрирование с адаптивным шагом; результат выдается на сетке t0 + n*hOut,
+    // hOut также служит начальным шагом
+    public void integrate(OdeSystem system, double t0, double[] x0, double tEnd, double hOut,
+                          StepControl control, Solution out) {
+        int n = system.getDimension();
+        if (x.length != n) {
+            x = new double[n];
+        }
+        System.arraycopy(x0, 0, x, 0, n);
+        StiffnessDetector detector = new StiffnessDetector(ButcherTableau.DORMAND_PRINCE, t0, n);
+        explicit.setStiffnessDetector(detector);
+        implicit.setStiffnessDetector(detector);
+        int accepted = 0;
+        int rejected = 0;
+        double t = t0;
+        boolean stiff = false;
+        try {
+            while (true) {
+                detector.beginSegment();
+                if (stiff) {
+                    implicit.integrate(system, t, x, tEnd, hOut, control, out);
+                } else {
+                    explicit.integrate(system, detector.getTableau(), t, x, tEnd, hOut, control, out);
+                }
+                accepted += out.getAcceptedSteps();
+                rejected += out.getRejectedSteps();
+                if (!detector.isSwitched() || (monitor != null && monitor.isCancelRequested())) {
+                    break;
+                }
+                t = detector.getT();
+                detector.getState(x);
+                stiff = !stiff;
+                out.getStatistics().addMethodSwitch();
+            }
+        } finally {
+            explicit.setStiffnessDetector(null);
+            implicit.setStiffnessDetector(null);
+        }
+        out.setStepCounts(accepted, rejected);
+    }
+}
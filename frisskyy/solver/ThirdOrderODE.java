@@ -0,0 +1,9 @@
+package frisskyy.solver;
+
+// Уравнение вида y''' = f(t, y, y', y'')
+public interface ThirdOrderODE {
+    double calculate(double t, double y, double dy, double d2y);
+    String getName();
+    double[] exactSolution(double t); // Метод для точного решения
+    boolean isExactSolutionAvailable(); // Проверка на точное решение
+}
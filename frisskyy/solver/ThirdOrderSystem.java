@@ -0,0 +1,68 @@
+package frisskyy.solver;
+
+// Уравнение 3-го порядка как система первого порядка: x = (y, y', y''), x' = (y', y'', y''').
+// Якобиан известен с точностью до последней строки: ее дает DifferentiableThirdOrderODE,
+// а для остальных уравнений она строится разностями по y, y', y''.
+public final class ThirdOrderSystem implements JacobianSystem {
+
+    private final ThirdOrderODE equation;
+    private final DifferentiableThirdOrderODE differentiable;
+    private final double[] gradient = new double[3];
+    // Число вычислений правой части (для SolveStatistics)
+    private long evaluations;
+
+    public ThirdOrderSystem(ThirdOrderODE equation) {
+        this.equation = equation;
+        this.differentiable = equation instanceof DifferentiableThirdOrderODE
+                ? (DifferentiableThirdOrderODE) equation : null;
+    }
+
+    public ThirdOrderODE getEquation() {
+        return equation;
+    }
+
+    long getEvaluations() {
+        return evaluations;
+    }
+
+    @Override
+    public int getDimension() {
+        return 3;
+    }
+
+    @Override
+    public void computeDerivatives(double t, double[] x, double[] dxdt) {
+        dxdt[0] = x[1];
+        dxdt[1] = x[2];
+        dxdt[2] = equation.calculate(t, x[0], x[1], x[2]);
+        evaluations++;
+    }
+
+    @Override
+    public void computeJacobian(double t, double[] x, double[] fx, double[][] jacobian) {
+        jacobian[0][0] = 0.0;
+        jacobian[0][1] = 1.0;
+        jacobian[0][2] = 0.0;
+        jacobian[1][0] = 0.0;
+        jacobian[1][1] = 0.0;
+        jacobian[1][2] = 1.0;
+        if (differentiable != null) {
+            differentiable.gradient(t, x[0], x[1], x[2], gradient);
+            jacobian[2][0] = gradient[0];
+            jacobian[2][1] = gradient[1];
+            jacobian[2][2] = gradient[2];
+            return;
+        }
+        double sqrtEps = Math.sqrt(Math.ulp(1.0));
+        double y = x[0];
+        double dy = x[1];
+        double d2y = x[2];
+        double dY = sqrtEps * Math.max(Math.abs(y), 1e-5);
+        double dDY = sqrtEps * Math.max(Math.abs(dy), 1e-5);
+        double dD2Y = sqrtEps * Math.max(Math.abs(d2y), 1e-5);
+        jacobian[2][0] = (equation.calculate(t, y + dY, dy, d2y) - fx[2]) / dY;
+        jacobian[2][1] = (equation.calculate(t, y, dy + dDY, d2y) - fx[2]) / dDY;
+        jacobian[2][2] = (equation.calculate(t, y, dy, d2y + dD2Y) - fx[2]) / dD2Y;
+        evaluations += 3;
+    }
+}
@@ -0,0 +1,51 @@
+package frisskyy.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Начальные условия и шаг одной траектории ансамбля
+public final class TrajectorySpec {
+
+    private final double y0;
+    private final double dy0;
+    private final double d2y0;
+    private final double h;
+
+    public TrajectorySpec(double y0, double dy0, double d2y0, double h) {
+        this.y0 = y0;
+        this.dy0 = dy0;
+        this.d2y0 = d2y0;
+        this.h = h;
+    }
+
+    // Декартово произведение сеток начальных условий и шагов
+    public static List<TrajectorySpec> grid(double[] y0s, double[] dy0s, double[] d2y0s, double[] hs) {
+        List<TrajectorySpec> specs = new ArrayList<>(y0s.length * dy0s.length * d2y0s.length * hs.length);
+        for (double y0 : y0s) {
+            for (double dy0 : dy0s) {
+                for (double d2y0 : d2y0s) {
+                    for (double h : hs) {
+                        specs.add(new TrajectorySpec(y0, dy0, d2y0, h));
+                    }
+                }
+            }
+        }
+        return specs;
+    }
+
+    public double getY0() {
+        return y0;
+    }
+
+    public double getDY0() {
+        return dy0;
+    }
+
+    public double getD2Y0() {
+        return d2y0;
+    }
+
+    public double getH() {
+        return h;
+    }
+}
@@ -0,0 +1,98 @@
+package frisskyy.solver;
+
+// Краткие итоги одной траектории ансамбля вместо полного решения
+public final class TrajectorySummary {
+
+    private final TrajectorySpec spec;
+    private final int points;
+    private final double finalT;
+    private final double finalY;
+    private final double finalDY;
+    private final double finalD2Y;
+    private final double minY;
+    private final double maxY;
+    private final double maxError; // NaN, если точное решение недоступно
+    private final int acceptedSteps;
+    private final int rejectedSteps;
+
+    TrajectorySummary(TrajectorySpec spec, int points,
+                              double finalT, double finalY, double finalDY, double finalD2Y,
+                              double minY, double maxY, double maxError,
+                              int acceptedSteps, int rejectedSteps) {
+        this.spec = spec;
+        this.points = points;
+        this.finalT = finalT;
+        this.finalY = finalY;
+        this.finalDY = finalDY;
+        this.finalD2Y = finalD2Y;
+        this.minY = minY;
+        this.maxY = maxY;
+        this.maxError = maxError;
+        this.acceptedSteps = acceptedSteps;
+        this.rejectedSteps = rejectedSteps;
+    }
+
+    static TrajectorySummary of(TrajectorySpec spec, ThirdOrderODE equation, Solution solution) {
+        int last = solution.size() - 1;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        double maxError = equation.isExactSolutionAvailable() ? 0 : Double.NaN;
+        for (int i = 0; i <= last; i++) {
+            double y = solution.getY(i);
+            minY = Math.min(minY, y);
+            maxY = Math.max(maxY, y);
+            if (equation.isExactSolutionAvailable()) {
+                double error = Math.abs(y - equation.exactSolution(solution.getT(i))[0]);
+                maxError = Math.max(maxError, error);
+            }
+        }
+        return new TrajectorySummary(spec, solution.size(),
+                solution.getT(last), solution.getY(last), solution.getDY(last), solution.getD2Y(last),
+                minY, maxY, maxError, solution.getAcceptedSteps(), solution.getRejectedSteps());
+    }
+
+    public TrajectorySpec getSpec() {
+        return spec;
+    }
+
+    public int getPoints() {
+        return points;
+    }
+
+    public double getFinalT() {
+        return finalT;
+    }
+
+    public double getFinalY() {
+        return finalY;
+    }
+
+    public double getFinalDY() {
+        return finalDY;
+    }
+
+    public double getFinalD2Y() {
+        return finalD2Y;
+    }
+
+    public double getMinY() {
+        return minY;
+    }
+
+    public double getMaxY() {
+        return maxY;
+    }
+
+    // Максимальная ошибка y по сравнению с точным решением
+    public double getMaxError() {
+        return maxError;
+    }
+
+    public int getAcceptedSteps() {
+        return acceptedSteps;
+    }
+
+    public int getRejectedSteps() {
+        return rejectedSteps;
+    }
+}
@@ -168,6 +168,9 @@
  * 06-Jul-2005 : Fixed crosshair bug (id = 1233336) (DG);
  * ------------- JFREECHART 1.0.0 ---------------------------------------------
  * 26-Jan-2006 : Added getAnnotations() method (DG);
+ * 17-Oct-2026 : Render only the visible item range of each series pass
+ *               when the renderer state asks for it and the dataset is
+ *               sorted;
  *
  */
 
@@ -2635,8 +2638,14 @@ public class XYPlot extends Plot implements ValueAxisPlot,
                 for (int pass = 0; pass < passCount; pass++) {
                     int seriesCount = dataset.getSeriesCount();
                     for (int series = seriesCount-1; series >= 0 ; series--) {
-                        int itemCount = dataset.getItemCount(series);
-                        for (int item = 0; item < itemCount; item++) {
+                        int[] items = findItemsToRender(
+                            state, dataset, series, xAxis
+                        );
+                        state.startSeriesPass(
+                            dataset, series, items[0], items[1], pass, 
+                            passCount
+                        );
+                        for (int item = items[0]; item <= items[1]; item++) {
                             renderer.drawItem(
                                 g2, state, dataArea, info,
                                 this, xAxis, yAxis, dataset, series, item,
@@ -2651,8 +2660,14 @@ public class XYPlot extends Plot implements ValueAxisPlot,
                 for (int pass = 0; pass < passCount; pass++) {
                     int seriesCount = dataset.getSeriesCount();
                     for (int series = 0; series < seriesCount; series++) {
-                        int itemCount = dataset.getItemCount(series);
-                        for (int item = 0; item < itemCount; item++) {
+                        int[] items = findItemsToRender(
+                            state, dataset, series, xAxis
+                        );
+                        state.startSeriesPass(
+                            dataset, series, items[0], items[1], pass, 
+                            passCount
+                        );
+                        for (int item = items[0]; item <= items[1]; item++) {
                             renderer.drawItem(
                                 g2, state, dataArea, info,
                                 this, xAxis, yAxis, dataset, series, item,
@@ -2666,6 +2681,30 @@ public class XYPlot extends Plot implements ValueAxisPlot,
         return foundData;
     }
 
+    /**
+     * Returns the indices of the first and last items to pass to the 
+     * renderer for a series.  If the renderer state allows it and the 
+     * dataset has an ascending domain order, only the items within the 
+     * visible domain range (plus one item either side) are included.
+     *
+     * @param state  the renderer state.
+     * @param dataset  the dataset.
+     * @param series  the series index (zero-based).
+     * @param xAxis  the domain axis.
+     *
+     * @return An array containing the first and last item indices.
+     */
+    private int[] findItemsToRender(XYItemRendererState state, 
+                                    XYDataset dataset, int series, 
+                                    ValueAxis xAxis) {
+        if (state.getProcessVisibleItemsOnly()) {
+            return DatasetUtilities.findVisibleItems(
+                dataset, series, xAxis.getLowerBound(), xAxis.getUpperBound()
+            );
+        }
+        return new int[] {0, dataset.getItemCount(series) - 1};
+    }
+
     /**
      * Returns the domain axis for a dataset.
      *
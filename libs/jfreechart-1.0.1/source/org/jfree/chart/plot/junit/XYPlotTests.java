@@ -46,7 +46,9 @@ package org.jfree.chart.plot.junit;
 import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.GradientPaint;
+import java.awt.Graphics2D;
 import java.awt.Stroke;
+import java.awt.geom.Rectangle2D;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.ObjectInput;
@@ -65,15 +67,19 @@ import org.jfree.chart.annotations.XYTextAnnotation;
 import org.jfree.chart.axis.AxisLocation;
 import org.jfree.chart.axis.DateAxis;
 import org.jfree.chart.axis.NumberAxis;
+import org.jfree.chart.axis.ValueAxis;
 import org.jfree.chart.labels.StandardXYToolTipGenerator;
+import org.jfree.chart.plot.CrosshairState;
 import org.jfree.chart.plot.IntervalMarker;
 import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.plot.PlotRenderingInfo;
 import org.jfree.chart.plot.ValueMarker;
 import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.renderer.xy.DefaultXYItemRenderer;
 import org.jfree.chart.renderer.xy.StandardXYItemRenderer;
 import org.jfree.chart.renderer.xy.XYBarRenderer;
 import org.jfree.chart.renderer.xy.XYItemRenderer;
+import org.jfree.chart.renderer.xy.XYItemRendererState;
 import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
 import org.jfree.data.time.Day;
 import org.jfree.data.time.TimeSeries;
@@ -822,4 +828,41 @@ public class XYPlotTests extends TestCase {
         assertEquals(x, a3); 
     }
     
+    /**
+     * For a sorted dataset and a renderer that allows it, only the items in 
+     * the visible domain range (plus one either side) should be drawn.
+     */
+    public void testRenderVisibleItemsOnly() {
+        XYSeries series = new XYSeries("S1");
+        for (int i = 0; i < 1000; i++) {
+            series.add(i, Math.sin(i));
+        }
+        XYSeriesCollection dataset = new XYSeriesCollection(series);
+        final int[] range = {Integer.MAX_VALUE, Integer.MIN_VALUE, 0};
+        XYLineAndShapeRenderer renderer = new XYLineAndShapeRenderer() {
+            public void drawItem(Graphics2D g2, XYItemRendererState state,
+                    Rectangle2D dataArea, PlotRenderingInfo info, 
+                    XYPlot plot, ValueAxis domainAxis, ValueAxis rangeAxis, 
+                    XYDataset dataset, int series, int item, 
+                    CrosshairState crosshairState, int pass) {
+                range[0] = Math.min(range[0], item);
+                range[1] = Math.max(range[1], item);
+                range[2]++;
+                super.drawItem(g2, state, dataArea, info, plot, domainAxis,
+                        rangeAxis, dataset, series, item, crosshairState, 
+                        pass);
+            }
+        };
+        NumberAxis domainAxis = new NumberAxis("X");
+        domainAxis.setRange(100.5, 200.5);
+        XYPlot plot = new XYPlot(
+            dataset, domainAxis, new NumberAxis("Y"), renderer
+        );
+        JFreeChart chart = new JFreeChart(plot);
+        chart.createBufferedImage(300, 200);
+        assertEquals(100, range[0]);
+        assertEquals(201, range[1]);
+        assertEquals(2 * 102, range[2]);
+    }
+    
 }
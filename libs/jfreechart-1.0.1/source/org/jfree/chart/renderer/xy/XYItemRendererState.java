@@ -38,6 +38,8 @@
  * --------
  * 07-Oct-2003 : Version 1 (DG);
  * 27-Jan-2004 : Added workingLine attribute (DG);
+ * 17-Oct-2026 : Added processVisibleItemsOnly flag and the item range of
+ *               the current series pass;
  * 
  */
 
@@ -47,6 +49,7 @@ import java.awt.geom.Line2D;
 
 import org.jfree.chart.plot.PlotRenderingInfo;
 import org.jfree.chart.renderer.RendererState;
+import org.jfree.data.xy.XYDataset;
 
 /**
  * The state for an {@link XYItemRenderer}.
@@ -59,6 +62,18 @@ public class XYItemRendererState extends RendererState {
      */
     public Line2D workingLine;
     
+    /** The index of the first item in the current series pass. */
+    private int firstItemIndex;
+    
+    /** The index of the last item in the current series pass. */
+    private int lastItemIndex;
+    
+    /** 
+     * A flag that controls whether the plot passes only the items in the 
+     * visible domain range to the renderer. 
+     */
+    private boolean processVisibleItemsOnly;
+    
     /**
      * Creates a new state.
      * 
@@ -67,6 +82,73 @@ public class XYItemRendererState extends RendererState {
     public XYItemRendererState(PlotRenderingInfo info) {
         super(info);
         this.workingLine = new Line2D.Double();
+        this.processVisibleItemsOnly = false;
+    }
+    
+    /**
+     * Returns the flag that controls whether the plot passes only the items 
+     * in the visible domain range (plus one item either side) to the 
+     * renderer.  This is only possible for datasets with an ascending domain
+     * order, other datasets are always processed in full.
+     * 
+     * @return A boolean.
+     * 
+     * @see #setProcessVisibleItemsOnly(boolean)
+     */
+    public boolean getProcessVisibleItemsOnly() {
+        return this.processVisibleItemsOnly;
+    }
+    
+    /**
+     * Sets the flag that controls whether the plot passes only the items in 
+     * the visible domain range to the renderer.  A renderer should only set 
+     * this flag if it does not rely on seeing the first and last items of 
+     * each series (it can use {@link #getFirstItemIndex()} and 
+     * {@link #getLastItemIndex()} instead).
+     * 
+     * @param flag  the flag.
+     * 
+     * @see #getProcessVisibleItemsOnly()
+     */
+    public void setProcessVisibleItemsOnly(boolean flag) {
+        this.processVisibleItemsOnly = flag;
+    }
+    
+    /**
+     * Returns the index of the first item that will be drawn in the current
+     * series pass.
+     * 
+     * @return The item index.
+     */
+    public int getFirstItemIndex() {
+        return this.firstItemIndex;
+    }
+    
+    /**
+     * Returns the index of the last item that will be drawn in the current
+     * series pass.
+     * 
+     * @return The item index.
+     */
+    public int getLastItemIndex() {
+        return this.lastItemIndex;
+    }
+    
+    /**
+     * This method is called by the plot at the start of each series pass, 
+     * before the first item is drawn.
+     * 
+     * @param dataset  the dataset.
+     * @param series  the series index (zero-based).
+     * @param firstItem  the index of the first item that will be drawn.
+     * @param lastItem  the index of the last item that will be drawn.
+     * @param pass  the pass index.
+     * @param passCount  the number of passes.
+     */
+    public void startSeriesPass(XYDataset dataset, int series, int firstItem,
+                                int lastItem, int pass, int passCount) {
+        this.firstItemIndex = firstItem;
+        this.lastItemIndex = lastItem;
     }
     
 }
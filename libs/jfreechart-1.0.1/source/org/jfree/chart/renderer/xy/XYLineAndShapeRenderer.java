@@ -54,6 +54,11 @@
  *               defaultShapesVisible --> baseShapesVisible and
  *               defaultShapesFilled --> baseShapesFilled (DG);
  * 29-Jul-2005 : Added code to draw item labels (DG);
+ * 17-Oct-2026 : Added decimateLines flag, drawing dense sorted series as
+ *               one line with the first, minimum, maximum and last values
+ *               of each pixel column;
+ * 17-Oct-2026 : Start and close series paths at the item range of the
+ *               series pass, so that only visible items are processed;
  *
  */
 
@@ -79,6 +84,7 @@ import org.jfree.chart.plot.CrosshairState;
 import org.jfree.chart.plot.PlotOrientation;
 import org.jfree.chart.plot.PlotRenderingInfo;
 import org.jfree.chart.plot.XYPlot;
+import org.jfree.data.DomainOrder;
 import org.jfree.data.xy.XYDataset;
 import org.jfree.io.SerialUtilities;
 import org.jfree.ui.RectangleEdge;
@@ -162,6 +168,13 @@ public class XYLineAndShapeRenderer extends AbstractXYItemRenderer
      */
     private boolean drawSeriesLineAsPath;
 
+    /**
+     * A flag that controls whether or not the lines for series with an
+     * ascending domain order are reduced to at most four points per pixel
+     * column before drawing.
+     */
+    private boolean decimateLines;
+
     /**
      * Creates a new renderer with both lines and shapes visible.
      */
@@ -195,6 +208,7 @@ public class XYLineAndShapeRenderer extends AbstractXYItemRenderer
                                        // default, not outline paint
         
         this.drawSeriesLineAsPath = false;
+        this.decimateLines = false;
     }
     
     /**
@@ -224,6 +238,42 @@ public class XYLineAndShapeRenderer extends AbstractXYItemRenderer
         }
     }
     
+    /**
+     * Returns a flag that controls whether or not series lines are decimated
+     * to the resolution of the output device.
+     * 
+     * @return A boolean.
+     * 
+     * @see #setDecimateLines(boolean)
+     */
+    public boolean getDecimateLines() {
+        return this.decimateLines;
+    }
+    
+    /**
+     * Sets the flag that controls whether or not series lines are decimated
+     * to the resolution of the output device, and sends a 
+     * {@link RendererChangeEvent} to all registered listeners.
+     * <P>
+     * When this flag is set and the dataset reports 
+     * {@link DomainOrder#ASCENDING}, the items that fall into each pixel 
+     * column are reduced to the first, minimum, maximum and last y-values 
+     * and the series is drawn as a single path.  The result looks the same 
+     * as drawing every segment, but for series with many more items than 
+     * pixels it needs far fewer drawing operations.  The stroke and paint 
+     * for item 0 are used for the whole series.
+     * 
+     * @param flag  the flag.
+     * 
+     * @see #getDecimateLines()
+     */
+    public void setDecimateLines(boolean flag) {
+        if (this.decimateLines != flag) {
+            this.decimateLines = flag;
+            notifyListeners(new RendererChangeEvent(this));
+        }
+    }
+    
     /**
      * Returns the number of passes through the data that the renderer requires 
      * in order to draw the chart.  Most charts will require a single pass, but 
@@ -670,6 +720,9 @@ public class XYLineAndShapeRenderer extends AbstractXYItemRenderer
          */
         private boolean lastPointGood;
         
+        /** The index of the last series drawn as a decimated line. */
+        private int decimatedSeries = -1;
+        
         /**
          * Creates a new state instance.
          * 
@@ -724,6 +777,9 @@ public class XYLineAndShapeRenderer extends AbstractXYItemRenderer
 
         State state = new State(info);
         state.seriesPath = new GeneralPath();
+        // lines are drawn from the previous item, and paths are closed at
+        // the last item of the pass, so the plot can skip hidden items
+        state.setProcessVisibleItemsOnly(true);
         return state;
 
     }
@@ -766,7 +822,23 @@ public class XYLineAndShapeRenderer extends AbstractXYItemRenderer
 
         // first pass draws the background (lines, for instance)
         if (isLinePass(pass)) {
-            if (item == 0) {
+            if (this.decimateLines 
+                    && dataset.getDomainOrder() == DomainOrder.ASCENDING) {
+                // the whole series is drawn on the first call, the 
+                // remaining items have nothing left to do in this pass
+                State s = (State) state;
+                if (s.decimatedSeries != series) {
+                    s.decimatedSeries = series;
+                    if (getItemLineVisible(series, item)) {
+                        drawDecimatedLine(
+                            s, g2, plot, dataset, pass, series, 
+                            domainAxis, rangeAxis, dataArea
+                        );
+                    }
+                }
+                return;
+            }
+            if (item == state.getFirstItemIndex()) {
                 if (this.drawSeriesLineAsPath) {
                     State s = (State) state;
                     s.seriesPath.reset();
@@ -980,12 +1052,270 @@ public class XYLineAndShapeRenderer extends AbstractXYItemRenderer
             s.setLastPointGood(false);
         }
         // if this is the last item, draw the path ...
-        if (item == dataset.getItemCount(series) - 1) {
+        if (item == s.getLastItemIndex()) {
             // draw path
             drawFirstPassShape(g2, pass, series, item, s.seriesPath);
         }
     }
 
+    /**
+     * Draws the line for the items in the current series pass (first pass), 
+     * reducing the items that fall into each pixel column to the first, 
+     * minimum, maximum and last values.  The items must be sorted in 
+     * ascending order of their x-values.  Items to the left of the data area 
+     * are skipped (apart from the one nearest to it) and drawing stops at 
+     * the first item to the right of the data area.
+     *
+     * @param state  the renderer state.
+     * @param g2  the graphics device.
+     * @param plot  the plot.
+     * @param dataset  the dataset.
+     * @param pass  the pass.
+     * @param series  the series index (zero-based).
+     * @param domainAxis  the domain axis.
+     * @param rangeAxis  the range axis.
+     * @param dataArea  the area within which the data is being drawn.
+     */
+    protected void drawDecimatedLine(State state,
+                                     Graphics2D g2,
+                                     XYPlot plot,
+                                     XYDataset dataset,
+                                     int pass,
+                                     int series,
+                                     ValueAxis domainAxis,
+                                     ValueAxis rangeAxis,
+                                     Rectangle2D dataArea) {
+
+        RectangleEdge xAxisLocation = plot.getDomainAxisEdge();
+        RectangleEdge yAxisLocation = plot.getRangeAxisEdge();
+        boolean horizontal 
+            = plot.getOrientation() == PlotOrientation.HORIZONTAL;
+        double minX = horizontal ? dataArea.getMinY() : dataArea.getMinX();
+        double maxX = horizontal ? dataArea.getMaxY() : dataArea.getMaxX();
+        // increasing x-values can map to decreasing Java2D coordinates 
+        // (horizontal orientation, inverted axis)
+        boolean increasing = domainAxis.valueToJava2D(
+            domainAxis.getUpperBound(), dataArea, xAxisLocation
+        ) >= domainAxis.valueToJava2D(
+            domainAxis.getLowerBound(), dataArea, xAxisLocation
+        );
+        
+        GeneralPath path = state.seriesPath;
+        path.reset();
+        state.setLastPointGood(false);
+        PixelColumn column = new PixelColumn();
+        boolean pending = false;
+        double pendingX = 0.0;
+        double pendingY = 0.0;
+        
+        int lastItem = state.getLastItemIndex();
+        for (int item = state.getFirstItemIndex(); item <= lastItem; item++) {
+            double x = dataset.getXValue(series, item);
+            double y = dataset.getYValue(series, item);
+            double transX 
+                = domainAxis.valueToJava2D(x, dataArea, xAxisLocation);
+            double transY 
+                = rangeAxis.valueToJava2D(y, dataArea, yAxisLocation);
+            if (Double.isNaN(transX) || Double.isNaN(transY)) {
+                // a missing value breaks the line
+                column.flush(state, horizontal);
+                state.setLastPointGood(false);
+                pending = false;
+                continue;
+            }
+            boolean beforeArea = increasing ? transX < minX : transX > maxX;
+            if (beforeArea) {
+                // remember the last item before the data area, so that the
+                // line enters the area at the correct angle
+                pending = true;
+                pendingX = transX;
+                pendingY = transY;
+                continue;
+            }
+            if (pending) {
+                column.add(pendingX, pendingY);
+                column.flush(state, horizontal);
+                pending = false;
+            }
+            if (!column.accepts(transX)) {
+                column.flush(state, horizontal);
+            }
+            column.add(transX, transY);
+            if (increasing ? transX > maxX : transX < minX) {
+                break;
+            }
+        }
+        column.flush(state, horizontal);
+        
+        drawFirstPassShape(g2, pass, series, 0, path);
+    }
+
+    /**
+     * Accumulates the points of a series line that fall into a single pixel 
+     * column and appends them to the series path.  A column with only a few 
+     * points is appended unchanged, otherwise it is reduced to the first, 
+     * minimum, maximum and last points, with the minimum and maximum moved to 
+     * the centre of the column so that the vertical span is filled in the 
+     * same way as by the full line.
+     */
+    private static class PixelColumn {
+        
+        /** The largest number of points that is appended unchanged. */
+        private static final int RAW_POINTS = 8;
+        
+        /** The pixel column index. */
+        private long index;
+        
+        /** The number of points added since the last flush. */
+        private int count;
+        
+        /** The x-coordinates of the first few points. */
+        private double[] rawX = new double[RAW_POINTS];
+        
+        /** The y-coordinates of the first few points. */
+        private double[] rawY = new double[RAW_POINTS];
+        
+        /** The minimum y-coordinate. */
+        private double minY;
+        
+        /** The maximum y-coordinate. */
+        private double maxY;
+        
+        /** The sequence number of the point with the minimum y-coordinate. */
+        private int minSeq;
+        
+        /** The sequence number of the point with the maximum y-coordinate. */
+        private int maxSeq;
+        
+        /** The x-coordinate of the most recent point. */
+        private double lastX;
+        
+        /** The y-coordinate of the most recent point. */
+        private double lastY;
+        
+        /**
+         * Returns <code>true</code> if a point at the specified 
+         * x-coordinate belongs in the current column.
+         * 
+         * @param x  the x-coordinate (in Java2D space).
+         * 
+         * @return A boolean.
+         */
+        boolean accepts(double x) {
+            return this.count == 0 || (long) Math.floor(x) == this.index;
+        }
+        
+        /**
+         * Adds a point to the column.
+         * 
+         * @param x  the x-coordinate (in Java2D space).
+         * @param y  the y-coordinate (in Java2D space).
+         */
+        void add(double x, double y) {
+            if (this.count == 0) {
+                this.index = (long) Math.floor(x);
+                this.minY = y;
+                this.maxY = y;
+                this.minSeq = 0;
+                this.maxSeq = 0;
+            }
+            else if (y < this.minY) {
+                this.minY = y;
+                this.minSeq = this.count;
+            }
+            else if (y > this.maxY) {
+                this.maxY = y;
+                this.maxSeq = this.count;
+            }
+            if (this.count < RAW_POINTS) {
+                this.rawX[this.count] = x;
+                this.rawY[this.count] = y;
+            }
+            this.lastX = x;
+            this.lastY = y;
+            this.count++;
+        }
+        
+        /**
+         * Appends the accumulated points to the series path in the order
+         * they were added, and resets the column.
+         * 
+         * @param state  the renderer state.
+         * @param horizontal  <code>true</code> if the plot orientation is 
+         *                    horizontal (x and y are swapped).
+         */
+        void flush(State state, boolean horizontal) {
+            if (this.count == 0) {
+                return;
+            }
+            if (this.count <= RAW_POINTS) {
+                for (int i = 0; i < this.count; i++) {
+                    append(state, this.rawX[i], this.rawY[i], horizontal);
+                }
+            }
+            else {
+                int last = this.count - 1;
+                double centre = this.index + 0.5;
+                append(state, this.rawX[0], this.rawY[0], horizontal);
+                if (this.minSeq < this.maxSeq) {
+                    appendInner(state, centre, this.minY, this.minSeq, last,
+                            horizontal);
+                    appendInner(state, centre, this.maxY, this.maxSeq, last,
+                            horizontal);
+                }
+                else {
+                    appendInner(state, centre, this.maxY, this.maxSeq, last,
+                            horizontal);
+                    appendInner(state, centre, this.minY, this.minSeq, last,
+                            horizontal);
+                }
+                append(state, this.lastX, this.lastY, horizontal);
+            }
+            this.count = 0;
+        }
+        
+        /**
+         * Appends an extreme point unless it coincides with the first or 
+         * last point.
+         * 
+         * @param state  the renderer state.
+         * @param x  the x-coordinate (in Java2D space).
+         * @param y  the y-coordinate (in Java2D space).
+         * @param seq  the sequence number of the point within the column.
+         * @param last  the sequence number of the last point.
+         * @param horizontal  swap x and y?
+         */
+        private static void appendInner(State state, double x, double y, 
+                                        int seq, int last, 
+                                        boolean horizontal) {
+            if (seq > 0 && seq < last) {
+                append(state, x, y, horizontal);
+            }
+        }
+        
+        /**
+         * Appends a point to the series path.
+         * 
+         * @param state  the renderer state.
+         * @param x  the x-coordinate (in Java2D space).
+         * @param y  the y-coordinate (in Java2D space).
+         * @param horizontal  swap x and y?
+         */
+        private static void append(State state, double x, double y, 
+                                   boolean horizontal) {
+            float px = (float) (horizontal ? y : x);
+            float py = (float) (horizontal ? x : y);
+            if (state.isLastPointGood()) {
+                state.seriesPath.lineTo(px, py);
+            }
+            else {
+                state.seriesPath.moveTo(px, py);
+            }
+            state.setLastPointGood(true);
+        }
+        
+    }
+    
     /**
      * Draws the item shapes and adds chart entities (second pass). This method 
      * draws the shapes which mark the item positions. If <code>entities</code> 
@@ -1218,6 +1548,9 @@ public class XYLineAndShapeRenderer extends AbstractXYItemRenderer
         if (this.drawOutlines != that.drawOutlines) {
             return false;
         }
+        if (this.decimateLines != that.decimateLines) {
+            return false;
+        }
         if (this.useOutlinePaint != that.useOutlinePaint) {
             return false;
         }
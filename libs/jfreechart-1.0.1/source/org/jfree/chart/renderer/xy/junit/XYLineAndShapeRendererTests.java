@@ -43,7 +43,12 @@
 
 package org.jfree.chart.renderer.xy.junit;
 
+import java.awt.Graphics2D;
+import java.awt.Shape;
 import java.awt.geom.Line2D;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.ObjectInput;
@@ -63,6 +68,7 @@ import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
 import org.jfree.data.Range;
 import org.jfree.data.xy.TableXYDataset;
+import org.jfree.data.xy.XYSeries;
 import org.jfree.data.xy.XYSeriesCollection;
 
 /**
@@ -157,6 +163,11 @@ public class XYLineAndShapeRendererTests extends TestCase {
         assertFalse(r1.equals(r2));
         r2.setUseOutlinePaint(true);
         assertTrue(r1.equals(r2));
+    
+        r1.setDecimateLines(true);
+        assertFalse(r1.equals(r2));
+        r2.setDecimateLines(true);
+        assertTrue(r1.equals(r2));
     }
 
     /**
@@ -255,4 +266,90 @@ public class XYLineAndShapeRendererTests extends TestCase {
         assertFalse(bounds.contains(6.0));
     }
 
+    /**
+     * A series with only a few items per pixel is not reduced, so the 
+     * decimated line should match the line drawn as a single path.
+     */
+    public void testDecimateLinesSparse() {
+        JFreeChart chart = createSineChart(500, 100.0);
+        XYLineAndShapeRenderer renderer = (XYLineAndShapeRenderer) 
+            ((XYPlot) chart.getPlot()).getRenderer();
+        renderer.setDrawSeriesLineAsPath(true);
+        BufferedImage expected = drawChart(chart);
+        renderer.setDrawSeriesLineAsPath(false);
+        renderer.setDecimateLines(true);
+        BufferedImage actual = drawChart(chart);
+        for (int x = 0; x < expected.getWidth(); x++) {
+            for (int y = 0; y < expected.getHeight(); y++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y));
+            }
+        }
+    }
+
+    /**
+     * A series with many items per pixel should be drawn with at most a 
+     * handful of path segments per pixel column.
+     */
+    public void testDecimateLinesDense() {
+        JFreeChart chart = createSineChart(50000, 1000.0);
+        XYPlot plot = (XYPlot) chart.getPlot();
+        plot.getDomainAxis().setRange(100.0, 300.0);
+        final int[] segments = new int[1];
+        XYLineAndShapeRenderer renderer 
+            = new XYLineAndShapeRenderer(true, false) {
+                protected void drawFirstPassShape(Graphics2D g2, int pass, 
+                        int series, int item, Shape shape) {
+                    PathIterator iterator = shape.getPathIterator(null);
+                    while (!iterator.isDone()) {
+                        segments[0]++;
+                        iterator.next();
+                    }
+                }
+            };
+        renderer.setDecimateLines(true);
+        plot.setRenderer(renderer);
+        drawChart(chart);
+        assertTrue(segments[0] > 0);
+        assertTrue(segments[0] <= 4 * 400 + 2);
+    }
+
+    /**
+     * Creates a line chart for a sampled sine wave with a gap in the middle.
+     * 
+     * @param count  the number of items.
+     * @param xMax  the largest x-value.
+     * 
+     * @return The chart.
+     */
+    private JFreeChart createSineChart(int count, double xMax) {
+        XYSeries series = new XYSeries("S1");
+        for (int i = 0; i < count; i++) {
+            double x = i * xMax / count;
+            double y = (i == count / 2) ? Double.NaN : Math.sin(x / 3.0);
+            series.add(x, y);
+        }
+        JFreeChart chart = ChartFactory.createXYLineChart(
+            "Test Chart", "X", "Y", new XYSeriesCollection(series), 
+            PlotOrientation.VERTICAL, false, false, false
+        );
+        chart.setAntiAlias(false);
+        return chart;
+    }
+
+    /**
+     * Draws a chart to an image.
+     * 
+     * @param chart  the chart.
+     * 
+     * @return The image.
+     */
+    private BufferedImage drawChart(JFreeChart chart) {
+        BufferedImage image 
+            = new BufferedImage(400, 300, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = image.createGraphics();
+        chart.draw(g2, new Rectangle2D.Double(0, 0, 400, 300), null, null);
+        g2.dispose();
+        return image;
+    }
+
 }
@@ -100,6 +100,7 @@
  *               from DatasetUtilities --> DataUtilities (DG);
  * 22-Sep-2005 : Added new findStackedRangeBounds() method that takes base
  *               argument (DG);
+ * 17-Oct-2026 : Added findVisibleItems() method;
  * 
  */
 
@@ -110,6 +111,7 @@ import java.util.Iterator;
 import java.util.List;
 
 import org.jfree.data.DomainInfo;
+import org.jfree.data.DomainOrder;
 import org.jfree.data.KeyToGroupMap;
 import org.jfree.data.KeyedValues;
 import org.jfree.data.Range;
@@ -997,6 +999,62 @@ public final class DatasetUtilities {
         return result;
     }
 
+    /**
+     * Returns the indices of the first and last items in a series that need 
+     * to be visited to draw the series over the x-range 
+     * <code>xLow</code> to <code>xHigh</code>.  The result includes the 
+     * nearest item outside the range on each side, so that lines connecting
+     * to items off the edge of the range are not lost.
+     * <p>
+     * If the dataset reports {@link DomainOrder#ASCENDING} the indices are 
+     * found with a binary search, otherwise the full range of items is 
+     * returned.  For an empty series the last index is less than the first.
+     *
+     * @param dataset  the dataset (<code>null</code> not permitted).
+     * @param series  the series index (zero-based).
+     * @param xLow  the lower bound of the x-range.
+     * @param xHigh  the upper bound of the x-range.
+     *
+     * @return An array containing the first and last item indices.
+     */
+    public static int[] findVisibleItems(XYDataset dataset, int series, 
+                                         double xLow, double xHigh) {
+        if (dataset == null) {
+            throw new IllegalArgumentException("Null 'dataset' argument.");
+        }
+        int itemCount = dataset.getItemCount(series);
+        if (itemCount == 0 
+                || dataset.getDomainOrder() != DomainOrder.ASCENDING) {
+            return new int[] {0, itemCount - 1};
+        }
+        // first item with x >= xLow, then step back to its neighbour
+        int low = 0;
+        int high = itemCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (dataset.getXValue(series, mid) < xLow) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        int first = Math.max(low - 1, 0);
+        // first item with x > xHigh (this is the neighbour on the right)
+        high = itemCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (dataset.getXValue(series, mid) <= xHigh) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        int last = Math.min(low, itemCount - 1);
+        return new int[] {first, last};
+    }
+
     /**
      * Returns the minimum range value for the specified dataset.  This is 
      * easy if the dataset implements the {@link RangeInfo} interface (a good
@@ -500,6 +500,48 @@ public class DatasetUtilitiesTests extends TestCase {
         return result;
     }
     
+    /**
+     * Some checks for the findVisibleItems() method.
+     */
+    public void testFindVisibleItems() {
+        XYSeries s1 = new XYSeries("Series 1");
+        for (int i = 0; i < 10; i++) {
+            s1.add(i, i * i);
+        }
+        XYSeries s2 = new XYSeries("Series 2");
+        XYSeriesCollection dataset = new XYSeriesCollection(s1);
+        dataset.addSeries(s2);
+        
+        int[] items = DatasetUtilities.findVisibleItems(dataset, 0, 2.5, 5.5);
+        assertEquals(2, items[0]);
+        assertEquals(6, items[1]);
+        items = DatasetUtilities.findVisibleItems(dataset, 0, 3.0, 5.0);
+        assertEquals(2, items[0]);
+        assertEquals(6, items[1]);
+        items = DatasetUtilities.findVisibleItems(dataset, 0, -5.0, 20.0);
+        assertEquals(0, items[0]);
+        assertEquals(9, items[1]);
+        items = DatasetUtilities.findVisibleItems(dataset, 0, 20.0, 30.0);
+        assertEquals(9, items[0]);
+        assertEquals(9, items[1]);
+        items = DatasetUtilities.findVisibleItems(dataset, 0, -3.0, -1.0);
+        assertEquals(0, items[0]);
+        assertEquals(0, items[1]);
+        items = DatasetUtilities.findVisibleItems(dataset, 1, 0.0, 1.0);
+        assertTrue(items[1] < items[0]);
+        
+        // an unsorted series is always processed in full
+        XYSeries s3 = new XYSeries("Series 3", false);
+        s3.add(5.0, 1.0);
+        s3.add(1.0, 2.0);
+        s3.add(3.0, 3.0);
+        items = DatasetUtilities.findVisibleItems(
+            new XYSeriesCollection(s3), 0, 4.0, 6.0
+        );
+        assertEquals(0, items[0]);
+        assertEquals(2, items[1]);
+    }
+    
     /**
      * Creates a sample dataset for testing purposes.
      * 
@@ -66,6 +66,9 @@
  *               series (DG);
  * ------------- JFreeChart 1.0.0 ---------------------------------------------
  * 11-Jan-2005 : Renamed update(int, Number) --> updateByIndex() (DG);
+ * 17-Oct-2026 : Added add(double[], double[]) and add(double[], double[],
+ *               int, int, boolean) methods for bulk loading; the series is
+ *               left unchanged if one of the items is rejected;
  * 
  */
 
@@ -385,6 +388,137 @@ public class XYSeries extends Series implements Cloneable, Serializable {
         }
     }
 
+    /**
+     * Adds all the (x, y) pairs from two arrays to the series and sends a
+     * single {@link SeriesChangeEvent} to all registered listeners.
+     *
+     * @param xValues  the x-values (<code>null</code> not permitted).
+     * @param yValues  the y-values (<code>null</code> not permitted).
+     *
+     * @see #add(double[], double[], int, int, boolean)
+     */
+    public void add(double[] xValues, double[] yValues) {
+        if (xValues == null) {
+            throw new IllegalArgumentException("Null 'xValues' argument.");
+        }
+        add(xValues, yValues, 0, xValues.length, true);
+    }
+
+    /**
+     * Adds <code>length</code> (x, y) pairs, starting at <code>offset</code>
+     * in the two arrays, to the series and, if requested, sends a single
+     * {@link SeriesChangeEvent} to all registered listeners.
+     * <P>
+     * When the new x-values are in ascending order and do not precede the
+     * last item already in the series (the usual case when charting the
+     * output of a simulation), the items are appended directly without the
+     * per-item binary search performed by {@link #add(XYDataItem, boolean)}.
+     * Otherwise each item is inserted in turn, with the same sorting and
+     * duplicate checking rules as the single-item methods.  If any item is
+     * rejected, the series is left unchanged and no event is sent.
+     *
+     * @param xValues  the x-values (<code>null</code> not permitted).
+     * @param yValues  the y-values (<code>null</code> not permitted).
+     * @param offset  the index of the first pair to add.
+     * @param length  the number of pairs to add.
+     * @param notify  a flag that controls whether or not a
+     *                {@link SeriesChangeEvent} is sent to all registered
+     *                listeners.
+     *
+     * @throws SeriesException if duplicate x-values are not allowed and one
+     *                         of the x-values is already in the series (or
+     *                         repeated in the arrays).
+     */
+    public void add(double[] xValues, double[] yValues, int offset,
+                    int length, boolean notify) {
+        if (xValues == null) {
+            throw new IllegalArgumentException("Null 'xValues' argument.");
+        }
+        if (yValues == null) {
+            throw new IllegalArgumentException("Null 'yValues' argument.");
+        }
+        if (offset < 0 || length < 0 || offset + length > xValues.length
+                || offset + length > yValues.length) {
+            throw new IndexOutOfBoundsException("Invalid offset/length.");
+        }
+        if (length == 0) {
+            return;
+        }
+
+        if (canAppendInOrder(xValues, offset, length)) {
+            if (this.data instanceof java.util.ArrayList) {
+                ((java.util.ArrayList) this.data).ensureCapacity(
+                        this.data.size() + length);
+            }
+            for (int i = offset; i < offset + length; i++) {
+                this.data.add(new XYDataItem(xValues[i], yValues[i]));
+            }
+        }
+        else {
+            // a rejected duplicate must not leave the earlier items behind
+            List saved = new java.util.ArrayList(this.data);
+            try {
+                for (int i = offset; i < offset + length; i++) {
+                    add(new XYDataItem(xValues[i], yValues[i]), false);
+                }
+            }
+            catch (SeriesException e) {
+                this.data.clear();
+                this.data.addAll(saved);
+                throw e;
+            }
+        }
+        int excess = getItemCount() - this.maximumItemCount;
+        if (excess > 0) {
+            this.data.subList(0, excess).clear();
+        }
+        if (notify) {
+            fireSeriesChanged();
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if the given x-values can be appended to the
+     * end of the series without breaking the sort order or the duplicate
+     * x-value rule, so that no searching is required.
+     *
+     * @param xValues  the x-values.
+     * @param offset  the index of the first x-value.
+     * @param length  the number of x-values.
+     *
+     * @return A boolean.
+     */
+    private boolean canAppendInOrder(double[] xValues, int offset,
+                                     int length) {
+        if (!this.autoSort && this.allowDuplicateXValues) {
+            return true;
+        }
+        if (!this.autoSort && !this.data.isEmpty()) {
+            // unsorted series: the ordering trick below does not rule out
+            // duplicates of existing items
+            return false;
+        }
+        double previous = Double.NEGATIVE_INFINITY;
+        if (!this.data.isEmpty()) {
+            XYDataItem last = (XYDataItem) this.data.get(this.data.size() - 1);
+            previous = last.getX().doubleValue();
+            if (Double.isNaN(previous)) {
+                return false;
+            }
+        }
+        boolean first = this.data.isEmpty();
+        for (int i = offset; i < offset + length; i++) {
+            double x = xValues[i];
+            if (Double.isNaN(x) || x < previous
+                    || (x == previous && !first && !this.allowDuplicateXValues)) {
+                return false;
+            }
+            previous = x;
+            first = false;
+        }
+        return true;
+    }
+
     /**
      * Deletes a range of items from the series and sends a 
      * {@link SeriesChangeEvent} to all registered listeners.
@@ -49,6 +49,8 @@
  * 11-Jan-2005 : Removed deprecated code in preparation for 1.0.0 release (DG);
  * 28-Mar-2005 : Fixed bug in getSeries(int) method (1170825) (DG);
  * 05-Oct-2005 : Made the interval delegate a dataset listener (DG);
+ * 17-Oct-2026 : Added getDomainOrder() method, reporting ascending order
+ *               when every series is sorted;
  *
  */
 
@@ -59,6 +61,7 @@ import java.util.Collections;
 import java.util.List;
 
 import org.jfree.data.DomainInfo;
+import org.jfree.data.DomainOrder;
 import org.jfree.data.Range;
 import org.jfree.data.general.DatasetChangeEvent;
 import org.jfree.data.general.DatasetUtilities;
@@ -208,6 +211,25 @@ public class XYSeriesCollection extends AbstractIntervalXYDataset
         return (XYSeries) this.data.get(series);
     }
 
+    /**
+     * Returns the order of the domain (x-) values in the dataset.  This is
+     * {@link DomainOrder#ASCENDING} when every series in the collection
+     * keeps its items sorted by x-value, and {@link DomainOrder#NONE}
+     * otherwise.
+     *
+     * @return The domain order (never <code>null</code>).
+     */
+    public DomainOrder getDomainOrder() {
+        int seriesCount = getSeriesCount();
+        for (int i = 0; i < seriesCount; i++) {
+            XYSeries s = (XYSeries) this.data.get(i);
+            if (!s.getAutoSort()) {
+                return DomainOrder.NONE;
+            }
+        }
+        return DomainOrder.ASCENDING;
+    }
+
     /**
      * Returns the key for a series.
      *
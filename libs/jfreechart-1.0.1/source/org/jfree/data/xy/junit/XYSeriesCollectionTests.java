@@ -53,6 +53,7 @@ import junit.framework.Test;
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
 
+import org.jfree.data.DomainOrder;
 import org.jfree.data.xy.XYSeries;
 import org.jfree.data.xy.XYSeriesCollection;
 
@@ -170,4 +171,16 @@ public class XYSeriesCollectionTests extends TestCase {
         }
     }
     
+    /**
+     * The domain order is ascending only while every series is sorted.
+     */
+    public void testGetDomainOrder() {
+        XYSeriesCollection dataset = new XYSeriesCollection();
+        assertEquals(DomainOrder.ASCENDING, dataset.getDomainOrder());
+        dataset.addSeries(new XYSeries("S1"));
+        assertEquals(DomainOrder.ASCENDING, dataset.getDomainOrder());
+        dataset.addSeries(new XYSeries("S2", false, true));
+        assertEquals(DomainOrder.NONE, dataset.getDomainOrder());
+    }
+    
 }
@@ -327,4 +327,61 @@ public class XYSeriesTests extends TestCase {
         assertEquals(3.0, s1.getX(1).doubleValue(), EPSILON);
     }
     
+    /**
+     * Some checks for the add(double[], double[], ...) method.
+     */
+    public void testAddArrays() {
+        // sorted input appended to a sorted series
+        XYSeries s1 = new XYSeries("S1");
+        s1.add(1.0, 1.1);
+        s1.add(new double[] {2.0, 3.0, 3.0, 4.0}, 
+                new double[] {2.2, 3.3, 3.4, 4.4});
+        assertEquals(5, s1.getItemCount());
+        assertEquals(3.3, s1.getY(2).doubleValue(), EPSILON);
+        assertEquals(3.4, s1.getY(3).doubleValue(), EPSILON);
+        assertEquals(4.4, s1.getY(4).doubleValue(), EPSILON);
+
+        // unordered input is still sorted
+        XYSeries s2 = new XYSeries("S2");
+        s2.add(2.0, 2.2);
+        s2.add(new double[] {9.0, 3.0, 1.0, 0.0}, 
+                new double[] {0.0, 3.3, 1.1, 0.0}, 1, 2, true);
+        assertEquals(3, s2.getItemCount());
+        assertEquals(1.0, s2.getX(0).doubleValue(), EPSILON);
+        assertEquals(2.0, s2.getX(1).doubleValue(), EPSILON);
+        assertEquals(3.0, s2.getX(2).doubleValue(), EPSILON);
+
+        // duplicates are rejected when not allowed
+        XYSeries s3 = new XYSeries("S3", true, false);
+        s3.add(1.0, 1.1);
+        boolean pass = false;
+        try {
+            s3.add(new double[] {1.0, 2.0}, new double[] {1.1, 2.2});
+        }
+        catch (SeriesException e) {
+            pass = true;
+        }
+        assertTrue(pass);
+
+        // ...and the items added before the duplicate are removed again
+        pass = false;
+        try {
+            s3.add(new double[] {2.0, 1.0}, new double[] {2.2, 1.1});
+        }
+        catch (SeriesException e) {
+            pass = true;
+        }
+        assertTrue(pass);
+        assertEquals(1, s3.getItemCount());
+        assertEquals(1.0, s3.getX(0).doubleValue(), EPSILON);
+
+        // the maximum item count is respected
+        XYSeries s4 = new XYSeries("S4");
+        s4.setMaximumItemCount(2);
+        s4.add(new double[] {1.0, 2.0, 3.0}, new double[] {1.1, 2.2, 3.3});
+        assertEquals(2, s4.getItemCount());
+        assertEquals(2.0, s4.getX(0).doubleValue(), EPSILON);
+        assertEquals(3.0, s4.getX(1).doubleValue(), EPSILON);
+    }
+    
 }